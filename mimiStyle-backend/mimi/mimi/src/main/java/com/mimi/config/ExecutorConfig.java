@@ -0,0 +1,108 @@
+package com.mimi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Các thread pool riêng, có giới hạn, cho những công việc chạy nền.
+ * Mỗi loại việc một pool để một loại tải không chiếm hết thread của loại khác.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /** Chạy song song các truy vấn thống kê của trang admin. Hàng đợi đầy thì từ chối ngay. */
+    @Bean(name = "analyticsExecutor")
+    public ThreadPoolTaskExecutor analyticsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(32);
+        executor.setThreadNamePrefix("analytics-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Băm/kiểm tra mật khẩu (BCrypt). Số thread bằng số CPU để các phép băm không tranh nhau CPU
+     * với phần còn lại của API; hàng đợi ngắn, đầy thì login/register bị từ chối ngay bằng 429.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 2);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /** Băm lại mật khẩu theo cost mới sau khi đăng nhập; một thread, bận thì bỏ qua (lần đăng nhập sau làm lại). */
+    @Bean(name = "passwordRehashExecutor")
+    public ThreadPoolTaskExecutor passwordRehashExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("password-rehash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ghi sự kiện SSE ra socket. Mỗi kết nối có hàng đợi sự kiện riêng và chiếm tối đa một tác vụ trong pool
+     * tại một thời điểm, nên hàng đợi của pool bằng số kết nối tối đa là đủ, không tác vụ nào bị từ chối.
+     */
+    @Bean(name = "sseExecutor")
+    public ThreadPoolTaskExecutor sseExecutor(@Value("${realtime.sse.writer-threads:16}") int threads,
+                                              @Value("${realtime.sse.max-connections:20000}") int maxConnections) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxConnections);
+        executor.setThreadNamePrefix("sse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * So tin đăng mới/sửa với các tìm kiếm đã lưu, sau khi lưu sản phẩm đã commit. Hàng đợi đầy thì luồng
+     * phát sự kiện tự chạy (chậm lại chứ không bỏ mất thông báo).
+     */
+    @Bean(name = "listingAlertExecutor")
+    public ThreadPoolTaskExecutor listingAlertExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(5_000);
+        executor.setThreadNamePrefix("listing-alert-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Các truy vấn con độc lập của trang chi tiết sản phẩm (ảnh, biến thể, giấy tờ, người bán) chạy song song.
+     * Hàng đợi đầy thì luồng request tự chạy phần việc đó, không lỗi.
+     */
+    @Bean(name = "productDetailExecutor")
+    public ThreadPoolTaskExecutor productDetailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("product-detail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
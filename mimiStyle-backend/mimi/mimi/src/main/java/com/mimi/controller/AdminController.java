@@ -0,0 +1,64 @@
+package com.mimi.controller;
+
+import com.mimi.dto.request.UserSearchRequest;
+import com.mimi.dto.response.AdminDashboardResponse;
+import com.mimi.service.AdminAnalyticsService;
+import com.mimi.service.DuplicateImageService;
+import com.mimi.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final AdminAnalyticsService adminAnalyticsService;
+    private final UserService userService;
+    private final DuplicateImageService duplicateImageService;
+
+    /** Thống kê toàn sàn cho admin: GMV, đơn theo trạng thái, user mới, tin đăng mới, top seller/sản phẩm. */
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            AdminDashboardResponse dashboard = adminAnalyticsService.getDashboard(startDate, endDate);
+            return ResponseEntity.ok(dashboard);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Danh sách user phân trang keyset: lọc theo tiền tố username/email (q), role, khoảng createdFrom..createdTo;
+     * sort=createdAt|username, direction=asc|desc, limit tối đa 100.
+     */
+    @GetMapping("/users")
+    public ResponseEntity<?> searchUsers(@ModelAttribute UserSearchRequest filter) {
+        try {
+            return ResponseEntity.ok(userService.searchUsers(filter));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Báo cáo kiểm duyệt: các cặp ảnh gần giống nhau giữa hai tin đăng khác nhau (sameSeller = một người đăng lại).
+     * Quét theo id ảnh, gửi lại nextCursor để quét tiếp; maxDistance mặc định 6, tối đa 11 bit.
+     */
+    @GetMapping("/duplicate-images")
+    public ResponseEntity<?> getDuplicateImages(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) Integer maxDistance) {
+        try {
+            return ResponseEntity.ok(duplicateImageService.getDuplicateReport(cursor, limit, maxDistance));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
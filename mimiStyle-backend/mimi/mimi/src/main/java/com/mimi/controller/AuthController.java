@@ -3,11 +3,18 @@ package com.mimi.controller;
 import com.mimi.dto.request.LoginRequest;
 import com.mimi.dto.request.RegisterRequest;
 import com.mimi.dto.response.UserResponse;
+import com.mimi.exception.TooManyRequestsException;
+import com.mimi.security.AuthAdmissionControl;
+import com.mimi.security.SessionAuthenticationFilter;
+import com.mimi.security.SessionPrincipal;
 import com.mimi.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -16,25 +23,67 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthAdmissionControl admissionControl;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
+            admissionControl.checkRegister(httpRequest);
             UserResponse user = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(user);
+        } catch (TooManyRequestsException ex) {
+            return tooManyRequests(ex);
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
+            admissionControl.checkLogin(httpRequest, request.getEmail());
             UserResponse user = authService.login(request);
             return ResponseEntity.ok(user);
+        } catch (TooManyRequestsException ex) {
+            return tooManyRequests(ex);
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
         }
     }
-}
 
+    /** Kiểm tra username/email còn trống khi người dùng đang gõ ở form đăng ký. */
+    @GetMapping("/availability")
+    public ResponseEntity<?> availability(@RequestParam(required = false) String username,
+                                          @RequestParam(required = false) String email) {
+        try {
+            return ResponseEntity.ok(authService.checkAvailability(username, email));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest request) {
+        authService.logout(SessionAuthenticationFilter.resolveToken(request));
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Thông tin user của session token hiện tại. */
+    @GetMapping("/me")
+    public ResponseEntity<?> me(@AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(authService.getCurrentUser(principal.getUserId()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> tooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+}
@@ -0,0 +1,31 @@
+package com.mimi.controller;
+
+import com.mimi.dto.response.BestSellerResponse;
+import com.mimi.service.BestSellerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/best-sellers")
+@RequiredArgsConstructor
+public class BestSellerController {
+
+    private final BestSellerService bestSellerService;
+
+    /** Sản phẩm bán chạy trong 7 hoặc 30 ngày gần nhất, toàn sàn hoặc theo danh mục. */
+    @GetMapping
+    public ResponseEntity<?> getBestSellers(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<BestSellerResponse> bestSellers = bestSellerService.getBestSellers(days, categoryId, limit);
+            return ResponseEntity.ok(bestSellers);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
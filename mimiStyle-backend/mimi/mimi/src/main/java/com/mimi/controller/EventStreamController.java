@@ -0,0 +1,49 @@
+package com.mimi.controller;
+
+import com.mimi.event.UserEventBus;
+import com.mimi.security.SessionPrincipal;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+
+    private final UserEventBus eventBus;
+
+    /**
+     * Kênh Server-Sent Events của user hiện tại: order.created, order.received, order.status, post.liked, post.commented.
+     * Chỉ nhận session token qua header Authorization (token trên URL sẽ nằm trong log truy cập/proxy), nên client
+     * mở stream bằng fetch đọc ReadableStream thay cho EventSource.
+     * Khi kết nối lại, trình duyệt tự gửi Last-Event-ID để nhận bù các sự kiện bị lỡ.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(@AuthenticationPrincipal SessionPrincipal principal,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    HttpServletResponse response) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        Long lastId = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                lastId = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException ex) {
+                return ResponseEntity.badRequest().body("Invalid Last-Event-ID");
+            }
+        }
+        try {
+            // nginx không được gom (buffer) response của stream
+            response.setHeader("X-Accel-Buffering", "no");
+            return ResponseEntity.ok(eventBus.subscribe(principal.getUserId(), lastId));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mimi.controller;
+
+import com.mimi.security.SessionPrincipal;
+import com.mimi.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class FollowController {
+
+    private final FeedService feedService;
+
+    /** User đăng nhập theo dõi user {id}. */
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<?> follow(@PathVariable Long id,
+                                    @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            feedService.follow(principal.getUserId(), id);
+            return ResponseEntity.ok(Map.of("success", true, "following", true));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/follow")
+    public ResponseEntity<?> unfollow(@PathVariable Long id,
+                                      @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            feedService.unfollow(principal.getUserId(), id);
+            return ResponseEntity.ok(Map.of("success", true, "following", false));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
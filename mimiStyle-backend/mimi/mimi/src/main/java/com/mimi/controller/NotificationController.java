@@ -0,0 +1,60 @@
+package com.mimi.controller;
+
+import com.mimi.security.SessionPrincipal;
+import com.mimi.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    /** Thông báo của user, mới nhất trước; gửi lại nextCursor để lấy trang sau. */
+    @GetMapping
+    public ResponseEntity<?> list(@RequestParam(required = false) String cursor,
+                                  @RequestParam(required = false) Integer limit,
+                                  @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(notificationService.getNotifications(principal.getUserId(), cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> unreadCount(@AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(Map.of("unread", notificationService.countUnread(principal.getUserId())));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /** Đánh dấu đã đọc một thông báo (id) hoặc tất cả (không truyền id). */
+    @PostMapping("/read")
+    public ResponseEntity<?> markRead(@RequestParam(required = false) Long id,
+                                      @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(Map.of("updated", notificationService.markRead(principal.getUserId(), id)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.mimi.controller;
 
 import com.mimi.domain.Order;
+import com.mimi.domain.enums.OrderStatus;
+import com.mimi.domain.enums.Role;
 import com.mimi.dto.request.CreateOrderRequest;
 import com.mimi.dto.request.UpdateOrderStatusRequest;
 import com.mimi.dto.response.OrderResponse;
+import com.mimi.dto.response.SellerOrderInboxResponse;
+import com.mimi.security.SessionPrincipal;
 import com.mimi.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,20 +28,58 @@ public class OrderController {
     private final OrderService orderService;
 
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody CreateOrderRequest request) {
-        Order order = orderService.createOrder(request);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> createOrder(@RequestBody CreateOrderRequest request) {
+        try {
+            Order order = orderService.createOrder(request);
+            return ResponseEntity.ok(order);
+        } catch (IllegalArgumentException ex) {
+            // Người mua/sản phẩm không tồn tại, biến thể hết hàng
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Map<String, Object>> updateOrderStatus(@PathVariable Long id, @RequestBody UpdateOrderStatusRequest request) {
-        orderService.updateOrderStatus(id, request);
-        return ResponseEntity.ok(Map.of("success", true, "message", "Đã cập nhật trạng thái đơn hàng"));
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, @RequestBody UpdateOrderStatusRequest request) {
+        try {
+            orderService.updateOrderStatus(id, request);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Đã cập nhật trạng thái đơn hàng"));
+        } catch (IllegalArgumentException ex) {
+            // Đơn không tồn tại, mở lại đơn đã hủy nhưng biến thể không còn đủ hàng
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
     }
 
     @GetMapping("/me")
-    public ResponseEntity<List<OrderResponse>> getMyOrders(@RequestParam Long buyerId) {
-        List<OrderResponse> orders = orderService.getOrderResponsesByBuyer(buyerId);
+    public ResponseEntity<?> getMyOrders(@AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        List<OrderResponse> orders = orderService.getOrderResponsesByBuyer(principal.getUserId());
         return ResponseEntity.ok(orders);
     }
+
+    /** Hộp đơn của seller: đơn có sản phẩm của seller, lọc theo trạng thái/ngày, phân trang bằng cursor. */
+    @GetMapping("/seller/{sellerId}")
+    public ResponseEntity<?> getSellerInbox(
+            @PathVariable Long sellerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        // Hộp đơn có tên, số điện thoại, địa chỉ người mua: chỉ chính seller hoặc admin được xem
+        if (!sellerId.equals(principal.getUserId()) && principal.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed");
+        }
+        try {
+            SellerOrderInboxResponse inbox = orderService.getSellerInbox(sellerId, status, startDate, endDate, cursor, size);
+            return ResponseEntity.ok(inbox);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
 }
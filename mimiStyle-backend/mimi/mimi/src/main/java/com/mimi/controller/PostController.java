@@ -0,0 +1,160 @@
+package com.mimi.controller;
+
+import com.mimi.dto.request.CreateCommentRequest;
+import com.mimi.dto.request.CreatePostRequest;
+import com.mimi.dto.response.PostResponse;
+import com.mimi.security.SessionPrincipal;
+import com.mimi.service.FeedService;
+import com.mimi.service.PostEngagementService;
+import com.mimi.service.PostService;
+import com.mimi.service.TrendingPostService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/posts")
+@RequiredArgsConstructor
+public class PostController {
+
+    private final PostService postService;
+    private final FeedService feedService;
+    private final PostEngagementService engagementService;
+    private final TrendingPostService trendingPostService;
+
+    @PostMapping
+    public ResponseEntity<?> createPost(@RequestBody CreatePostRequest request,
+                                        @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            PostResponse post = postService.createPost(principal.getUserId(), request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(post);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Feed phân trang bằng cursor (id bài cuối của trang trước).
+     * type=global (mặc định): toàn sàn; type=following: bài của user đăng nhập và những người user theo dõi.
+     * commentPreview=N (tối đa 5) kèm N bình luận mới nhất của mỗi bài.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(@RequestParam(defaultValue = "global") String type,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(defaultValue = "0") int commentPreview,
+                                     @AuthenticationPrincipal SessionPrincipal principal) {
+        Long viewerId = principal != null ? principal.getUserId() : null;
+        try {
+            if ("following".equalsIgnoreCase(type)) {
+                if (viewerId == null) {
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+                }
+                return ResponseEntity.ok(feedService.getFollowingFeed(viewerId, cursor, limit, commentPreview));
+            }
+            if ("global".equalsIgnoreCase(type)) {
+                return ResponseEntity.ok(feedService.getGlobalFeed(viewerId, cursor, limit, commentPreview));
+            }
+            return ResponseEntity.badRequest().body("type must be global or following");
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /** Bài thịnh hành: tương tác (like, bình luận) giảm dần theo tuổi bài; phân trang bằng nextCursor. */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(defaultValue = "0") int commentPreview,
+                                         @AuthenticationPrincipal SessionPrincipal principal) {
+        Long viewerId = principal != null ? principal.getUserId() : null;
+        try {
+            return ResponseEntity.ok(trendingPostService.getTrending(viewerId, cursor, limit, commentPreview));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getPost(@PathVariable Long id,
+                                     @AuthenticationPrincipal SessionPrincipal principal) {
+        try {
+            Long viewerId = principal != null ? principal.getUserId() : null;
+            return ResponseEntity.ok(postService.getPost(id, viewerId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/like")
+    public ResponseEntity<?> like(@PathVariable Long id,
+                                  @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(engagementService.like(id, principal.getUserId()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/like")
+    public ResponseEntity<?> unlike(@PathVariable Long id,
+                                    @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(engagementService.unlike(id, principal.getUserId()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /** Bình luận của bài, cũ nhất trước; gửi lại nextCursor để lấy trang sau. */
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<?> getComments(@PathVariable Long id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(postService.getComments(id, cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/comments")
+    public ResponseEntity<?> addComment(@PathVariable Long id,
+                                        @RequestBody CreateCommentRequest request,
+                                        @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(engagementService.addComment(id, principal.getUserId(), request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/comments/{commentId}")
+    public ResponseEntity<?> deleteComment(@PathVariable Long id,
+                                           @PathVariable Long commentId,
+                                           @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            engagementService.deleteComment(id, commentId, principal.getUserId());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
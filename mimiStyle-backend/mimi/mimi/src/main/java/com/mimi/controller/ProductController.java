@@ -3,14 +3,25 @@ package com.mimi.controller;
 import com.mimi.domain.Product;
 import com.mimi.domain.ProductImage;
 import com.mimi.dto.response.ProductResponse;
+import com.mimi.event.ProductImagesChangedEvent;
 import com.mimi.repository.ProductImageRepository;
+import com.mimi.service.CatalogChangeService;
+import com.mimi.service.DuplicateImageService;
+import com.mimi.service.ProductBatchService;
+import com.mimi.service.ProductDetailService;
 import com.mimi.service.ProductService;
+import com.mimi.service.ProductVariantService;
+import com.mimi.service.ProductViewService;
+import com.mimi.service.SimilarProductService;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -26,7 +37,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
@@ -35,6 +45,14 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductImageRepository productImageRepository;
+    private final SimilarProductService similarProductService;
+    private final ProductViewService productViewService;
+    private final DuplicateImageService duplicateImageService;
+    private final ProductVariantService productVariantService;
+    private final ProductDetailService productDetailService;
+    private final ProductBatchService productBatchService;
+    private final CatalogChangeService catalogChangeService;
+    private final ApplicationEventPublisher eventPublisher;
     @Value("${file.upload-dir}")
     private String uploadDir;
 
@@ -45,27 +63,83 @@ public class ProductController {
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<ProductResponse>> getUserProducts(@PathVariable Long userId) {
-        List<Product> products = productService.getProductsByUserId(userId);
-        List<ProductResponse> productResponses = products.stream().map(this::mapToProductResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(productResponses);
+        return ResponseEntity.ok(productService.toProductResponses(productService.getProductsByUserId(userId)));
     }
 
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        List<ProductResponse> productResponses = products.stream().map(this::mapToProductResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(productResponses);
+        return ResponseEntity.ok(productService.toProductResponses(productService.getAllProducts()));
     }
 
+    /**
+     * Đồng bộ tăng dần cho bản catalog lưu ở client: since = nextSince của lần gọi trước (0 = tải toàn bộ).
+     * Trả sản phẩm đã thêm/sửa (upserts) và id đã xóa (deletedIds), mỗi sản phẩm một lần; gọi tiếp khi hasMore.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getCatalogChanges(@RequestParam(defaultValue = "0") long since,
+                                               @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(catalogChangeService.getChanges(since, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Nhiều sản phẩm trong một request (giỏ hàng, tóm tắt đơn): ids=1,2,3, tối đa 200 id. Trả về theo thứ tự id
+     * gửi lên, kèm ảnh đại diện và tên người bán; id không tồn tại nằm trong missingIds.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductBatch(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(productBatchService.getProducts(ids));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Kèm bảng biến thể size × màu (một truy vấn) nếu sản phẩm có biến thể.
+     * similar=N (tối đa 12) kèm N sản phẩm tương tự, lấy từ danh sách láng giềng đã tính trước.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "0") int similar) {
         Product product = productService.getProductById(id);
+        productViewService.recordView(id);
         ProductResponse response = mapToProductResponse(product);
+        response.setVariants(productVariantService.getVariantMatrix(id));
+        if (similar > 0) {
+            response.setSimilarProducts(similarProductService.getSimilarProducts(id, similar));
+        }
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Toàn bộ dữ liệu trang chi tiết trong một tài liệu: sản phẩm kèm ảnh, bảng biến thể, giấy tờ, hồ sơ người bán
+     * và đường dẫn danh mục. Tài liệu được cache dạng JSON đã serialize; client gửi lại ETag qua If-None-Match
+     * thì nhận 304 nếu chưa đổi.
+     */
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<byte[]> getProductDetail(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProductDetailService.Document document;
+        try {
+            document = productDetailService.getDetail(id);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
+        productViewService.recordView(id);
+        if (document.getEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(document.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(document.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(document.getJson());
+    }
+
     @PostMapping
     public ResponseEntity<?> createProduct(@RequestBody Product product) {
         try {
@@ -168,6 +242,7 @@ public class ProductController {
             resetThumbnail(productId);
         }
 
+        eventPublisher.publishEvent(new ProductImagesChangedEvent(productId, List.of(), images));
         return ResponseEntity.ok("Đã xóa ảnh thành công");
     }
 
@@ -219,6 +294,8 @@ public class ProductController {
                 Files.copy(file.getInputStream(),
                         uploadPath.resolve(filename),
                         StandardCopyOption.REPLACE_EXISTING);
+                // Tính sẵn dHash để kiểm tra ảnh trùng và gắn ảnh vào sản phẩm không phải giải mã lại
+                duplicateImageService.hashUploadedFile(filename);
 
                 filenames.add(filename);
             }
@@ -232,6 +309,7 @@ public class ProductController {
     }
 
     /* ================== SAVE IMAGE DB ================== */
+    @Transactional
     @PostMapping("/{id}/images")
     public ResponseEntity<List<ProductImage>> saveProductImages(
             @PathVariable Long id,
@@ -258,12 +336,33 @@ public class ProductController {
             img.setProduct(product);
             img.setImageUrl(name.trim());
             img.setIsThumbnail(thumbnail);
+            img.setPerceptualHash(duplicateImageService.hashUploadedFile(name.trim()));
 
             images.add(img);
             thumbnail = false;
         }
 
-        return ResponseEntity.ok(productImageRepository.saveAll(images));
+        List<ProductImage> saved = productImageRepository.saveAll(images);
+        eventPublisher.publishEvent(new ProductImagesChangedEvent(id, saved, List.of()));
+        return ResponseEntity.ok(saved);
+    }
+
+    /**
+     * Kiểm tra ảnh vừa tải lên (tên file trả về từ upload-images) có trùng/gần trùng ảnh của tin đăng khác không,
+     * trước khi đăng tin. productId: bỏ qua ảnh của chính tin đó (khi sửa tin); maxDistance tối đa 11 bit.
+     */
+    @PostMapping("/duplicate-check")
+    public ResponseEntity<?> checkDuplicateImages(@RequestBody List<String> filenames,
+                                                  @RequestParam(required = false) Long productId,
+                                                  @RequestParam(required = false) Integer maxDistance) {
+        if (filenames == null || filenames.isEmpty()) {
+            return ResponseEntity.badRequest().body("filenames is required");
+        }
+        try {
+            return ResponseEntity.ok(duplicateImageService.checkDuplicates(filenames, productId, maxDistance));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
     }
 
     /* ===================================================== */
@@ -316,43 +415,6 @@ public class ProductController {
     }
 
     private ProductResponse mapToProductResponse(Product product) {
-        ProductResponse response = new ProductResponse();
-        response.setId(product.getId());
-        response.setName(product.getName());
-        response.setDescription(product.getDescription());
-        response.setConditionPercentage(product.getConditionPercentage());
-        response.setTradeType(product.getTradeType());
-        response.setBuyPrice(product.getBuyPrice());
-        response.setRentPrice(product.getRentPrice());
-        response.setRentUnit(product.getRentUnit());
-        response.setStatus(product.getStatus());
-        response.setAddressContact(product.getAddressContact());
-        response.setFeatured(product.getFeatured());
-        response.setIsNew(product.getIsNew());
-        response.setCreatedAt(product.getCreatedAt());
-
-        if (product.getSeller() != null) {
-            response.setSellerId(product.getSeller().getId());
-            response.setSellerName(product.getSeller().getFullName());
-        }
-
-        if (product.getCategory() != null) {
-            response.setCategoryId(product.getCategory().getId());
-            response.setCategoryName(product.getCategory().getName());
-        }
-
-        // Map images - need to fetch them explicitly due to LAZY loading
-        try {
-            List<ProductImage> images = productImageRepository.findByProductId(product.getId());
-            if (images != null && !images.isEmpty()) {
-                List<String> imageUrls = images.stream().map(ProductImage::getImageUrl).collect(Collectors.toList());
-                response.setImages(imageUrls);
-            }
-        } catch (Exception e) {
-            // If images can't be loaded, just skip them
-            System.err.println("Error loading images for product " + product.getId() + ": " + e.getMessage());
-        }
-
-        return response;
+        return productService.toProductResponses(List.of(product)).get(0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.mimi.controller;
+
+import com.mimi.dto.request.VariantRequest;
+import com.mimi.dto.response.VariantMatrixResponse;
+import com.mimi.service.ProductVariantService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductVariantController {
+
+    private final ProductVariantService productVariantService;
+
+    /**
+     * Tin đang bán còn hàng theo size và/hoặc màu (không phân biệt dấu), lọc thêm theo danh mục (gồm danh mục con).
+     * Mới nhất trước; gửi lại nextCursor để lấy trang sau.
+     */
+    @GetMapping("/available")
+    public ResponseEntity<?> findAvailable(@RequestParam(required = false) String size,
+                                           @RequestParam(required = false) String color,
+                                           @RequestParam(required = false) Long categoryId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productVariantService.findAvailable(size, color, categoryId, cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/variants")
+    public ResponseEntity<VariantMatrixResponse> getVariants(@PathVariable Long id) {
+        VariantMatrixResponse matrix = productVariantService.getVariantMatrix(id);
+        return ResponseEntity.ok(matrix != null ? matrix : new VariantMatrixResponse(List.of(), List.of(), List.of()));
+    }
+
+    @PostMapping("/{id}/variants")
+    public ResponseEntity<?> addVariant(@PathVariable Long id, @RequestBody VariantRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(productVariantService.addVariant(id, request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /** Sửa size/màu/tồn kho; trường không gửi thì giữ nguyên. */
+    @PutMapping("/{id}/variants/{variantId}")
+    public ResponseEntity<?> updateVariant(@PathVariable Long id, @PathVariable Long variantId,
+                                           @RequestBody VariantRequest request) {
+        try {
+            return ResponseEntity.ok(productVariantService.updateVariant(id, variantId, request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/variants/{variantId}")
+    public ResponseEntity<?> deleteVariant(@PathVariable Long id, @PathVariable Long variantId) {
+        try {
+            productVariantService.deleteVariant(id, variantId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        }
+    }
+}
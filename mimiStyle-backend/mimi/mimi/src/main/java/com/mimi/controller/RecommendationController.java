@@ -0,0 +1,31 @@
+package com.mimi.controller;
+
+import com.mimi.security.SessionPrincipal;
+import com.mimi.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/recommendations")
+@RequiredArgsConstructor
+public class RecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    /** Sản phẩm "dành cho bé" theo giai đoạn hiện tại của các bé trong hồ sơ của user. */
+    @GetMapping("/baby")
+    public ResponseEntity<?> getBabyRecommendations(@RequestParam(defaultValue = "20") int limit,
+                                                    @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(recommendationService.getBabyRecommendations(principal.getUserId(), limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
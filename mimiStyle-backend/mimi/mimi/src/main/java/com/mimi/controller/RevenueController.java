@@ -1,13 +1,21 @@
 package com.mimi.controller;
 
+import com.mimi.domain.enums.TimeGranularity;
+import com.mimi.dto.response.ProductPerformanceResponse;
 import com.mimi.dto.response.RevenueResponse;
+import com.mimi.dto.response.RevenueTimeSeriesResponse;
 import com.mimi.dto.response.SoldProductResponse;
 import com.mimi.service.RevenueService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -39,4 +47,47 @@ public class RevenueController {
         List<SoldProductResponse> soldProducts = revenueService.getSoldProducts(userId, startDate, endDate, category);
         return ResponseEntity.ok(soldProducts);
     }
+
+    /** Lượt xem trang sản phẩm đặt cạnh số lượng bán / doanh thu của từng sản phẩm. */
+    @GetMapping("/product-performance/{userId}")
+    public ResponseEntity<List<ProductPerformanceResponse>> getProductPerformance(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String category) {
+        return ResponseEntity.ok(revenueService.getProductPerformance(userId, startDate, endDate, category));
+    }
+
+    /** Doanh thu, số lượng và số đơn theo ngày/tuần/tháng kèm chi tiết theo danh mục (cho biểu đồ). */
+    @GetMapping("/timeseries/{userId}")
+    public ResponseEntity<?> getRevenueTimeSeries(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "DAY") TimeGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            RevenueTimeSeriesResponse series = revenueService.getRevenueTimeSeries(userId, granularity, startDate, endDate);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /** Xuất toàn bộ lịch sử bán hàng ra CSV, ghi dạng stream nên không giới hạn số dòng. */
+    @GetMapping("/sold-products/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportSoldProducts(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String category) {
+
+        StreamingResponseBody body = out -> revenueService.exportSoldProductsCsv(userId, startDate, endDate, category, out);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("sold-products-" + userId + ".csv")
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.mimi.controller;
+
+import com.mimi.dto.request.CreateSavedSearchRequest;
+import com.mimi.security.SessionPrincipal;
+import com.mimi.service.SavedSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    /** Lưu tìm kiếm (danh mục, giá trần, kiểu giao dịch, độ mới tối thiểu, từ khóa) để được báo khi có tin khớp. */
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody CreateSavedSearchRequest request,
+                                    @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedSearchService.createSavedSearch(principal.getUserId(), request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> list(@AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            return ResponseEntity.ok(savedSearchService.getSavedSearches(principal.getUserId()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> delete(@PathVariable Long id,
+                                    @AuthenticationPrincipal SessionPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        try {
+            savedSearchService.deleteSavedSearch(principal.getUserId(), id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        }
+    }
+}
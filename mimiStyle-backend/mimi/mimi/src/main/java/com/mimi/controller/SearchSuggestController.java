@@ -0,0 +1,21 @@
+package com.mimi.controller;
+
+import com.mimi.service.SearchSuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/suggest")
+@RequiredArgsConstructor
+public class SearchSuggestController {
+
+    private final SearchSuggestService searchSuggestService;
+
+    /** Gợi ý khi gõ ô tìm kiếm (tên sản phẩm, danh mục); không phân biệt dấu, vd. q=sua khớp "Sữa bột". */
+    @GetMapping
+    public ResponseEntity<?> suggest(@RequestParam(required = false) String q,
+                                     @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(searchSuggestService.suggest(q, limit));
+    }
+}
@@ -8,7 +8,6 @@ import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -28,6 +27,7 @@ import com.mimi.domain.User;
 import com.mimi.dto.request.UpdateUserRequest;
 import com.mimi.dto.response.UserResponse;
 import com.mimi.repository.UserRepository;
+import com.mimi.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -37,16 +37,15 @@ import lombok.RequiredArgsConstructor;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserService userService;
 
     /**
      * List all users (for ADMIN). Returns all users in the system.
+     * Prefer GET /api/admin/users (paginated, searchable) for large user bases.
      */
     @GetMapping("/list")
     public ResponseEntity<List<UserResponse>> listUsers() {
-        List<UserResponse> list = userRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(list);
+        return ResponseEntity.ok(userService.listAllUsers());
     }
 
     @GetMapping("/{id}")
@@ -158,6 +157,7 @@ public class UserController {
                 .address(user.getAddress())
                 .avatarUrl(user.getAvatarUrl())
                 .role(user.getRole())
+                .createdAt(user.getCreatedAt())
                 .build();
     }
 }
@@ -0,0 +1,35 @@
+package com.mimi.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Nhật ký thay đổi catalog (outbox), ghi cùng transaction với thao tác trên sản phẩm/ảnh. id là số thứ tự thay đổi
+ * lấy từ CatalogSequence (tăng theo thứ tự commit) mà client dùng làm since; deleted = tombstone. Được nén định kỳ:
+ * mỗi sản phẩm chỉ giữ dòng mới nhất.
+ */
+@Entity
+@Table(name = "catalog_changes", indexes = {
+    @Index(name = "idx_catalog_changes_product_id", columnList = "product_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChange {
+
+    @Id
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Boolean deleted = false;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,24 @@
+package com.mimi.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bộ đếm số thứ tự của catalog_changes, một dòng duy nhất (id = 1). Transaction ghi thay đổi tăng bộ đếm bằng
+ * UPDATE nên giữ khóa dòng tới lúc commit; transaction sau phải chờ, vì vậy số thứ tự trùng thứ tự commit.
+ */
+@Entity
+@Table(name = "catalog_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSequence {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "seq_value", nullable = false)
+    private Long seqValue;
+}
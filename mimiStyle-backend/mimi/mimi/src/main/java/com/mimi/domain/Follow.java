@@ -0,0 +1,38 @@
+package com.mimi.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/** follower theo dõi followee; bài đăng của followee xuất hiện trong feed "following" của follower. */
+@Entity
+@Table(name = "follows", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"follower_id", "followee_id"})
+}, indexes = {
+    @Index(name = "idx_follows_followee", columnList = "followee_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    private User follower;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id", nullable = false)
+    private User followee;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.mimi.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thông báo trong ứng dụng. Loại LISTING_MATCH được ghi theo lô (INSERT IGNORE) khi một tin đăng khớp tìm kiếm
+ * đã lưu; unique (saved_search_id, product_id) để sửa tin nhiều lần không báo trùng.
+ */
+@Entity
+@Table(name = "notifications", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_notifications_search_product", columnNames = {"saved_search_id", "product_id"})
+}, indexes = {
+    @Index(name = "idx_notifications_user_created_id", columnList = "user_id, created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "saved_search_id")
+    private Long savedSearchId;
+
+    @Column(name = "is_read", nullable = false)
+    private Boolean read = false;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // Phân trang keyset (createdAt, id) cho hộp đơn của seller / admin
+    @Index(name = "idx_orders_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_orders_status_created_id", columnList = "status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
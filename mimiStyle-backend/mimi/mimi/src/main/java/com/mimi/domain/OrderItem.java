@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+    // Phục vụ các truy vấn doanh thu đi từ sản phẩm của seller sang đơn hàng
+    @Index(name = "idx_order_items_product_order", columnList = "product_id, order_id"),
+    @Index(name = "idx_order_items_seller_order", columnList = "seller_id, order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,4 +47,8 @@ public class OrderItem {
     
     @Column(name = "rent_duration")
     private Integer rentDuration;
+
+    // Người bán của sản phẩm tại thời điểm đặt hàng (denormalized) để lọc đơn theo seller không phải join qua products
+    @Column(name = "seller_id")
+    private Long sellerId;
 }
\ No newline at end of file
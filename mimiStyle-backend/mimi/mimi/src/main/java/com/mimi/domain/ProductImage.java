@@ -1,12 +1,15 @@
 package com.mimi.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "product_images")
+@Table(name = "product_images", indexes = {
+    @Index(name = "idx_product_images_phash", columnList = "perceptual_hash")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,4 +28,9 @@ public class ProductImage {
     
     @Column(name = "is_thumbnail")
     private Boolean isThumbnail = false;
+
+    /** dHash 64 bit của ảnh (PerceptualHash), để phát hiện ảnh đăng lại; null nếu chưa tính hoặc không đọc được */
+    @JsonIgnore
+    @Column(name = "perceptual_hash")
+    private Long perceptualHash;
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.mimi.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** Số lượt xem trang chi tiết của một sản phẩm trong một ngày; ghi theo lô bởi ProductViewServiceImpl. */
+@Entity
+@Table(name = "product_views_daily", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"product_id", "view_date"})
+}, indexes = {
+    @Index(name = "idx_product_views_daily_date", columnList = "view_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductViewDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "view_date", nullable = false)
+    private LocalDate viewDate;
+
+    @Column(nullable = false)
+    private Long views = 0L;
+}
@@ -0,0 +1,52 @@
+package com.mimi.domain;
+
+import com.mimi.domain.enums.TradeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Tìm kiếm đã lưu của user; tin đăng mới/sửa khớp điều kiện sẽ tạo thông báo (xem SavedSearchServiceImpl). */
+@Entity
+@Table(name = "saved_searches", indexes = {
+    @Index(name = "idx_saved_searches_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** null: mọi danh mục; có giá trị thì khớp cả danh mục con */
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "max_price", precision = 19, scale = 2)
+    private BigDecimal maxPrice;
+
+    /** null hoặc BOTH: mua hay thuê đều được */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trade_type")
+    private TradeType tradeType;
+
+    @Column(name = "min_condition")
+    private Integer minCondition;
+
+    /** Các từ khóa cách nhau bởi khoảng trắng, tên sản phẩm phải chứa đủ tất cả */
+    @Column(name = "keywords")
+    private String keywords;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
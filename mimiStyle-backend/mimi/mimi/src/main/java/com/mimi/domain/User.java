@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_users_role_created_id", columnList = "role, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
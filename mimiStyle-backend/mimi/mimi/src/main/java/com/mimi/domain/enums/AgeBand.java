@@ -0,0 +1,12 @@
+package com.mimi.domain.enums;
+
+/** Giai đoạn của bé dùng cho gợi ý sản phẩm: theo số tuần còn lại tới ngày dự sinh, hoặc số tháng tuổi. */
+public enum AgeBand {
+    PREGNANCY_EARLY,
+    PREGNANCY_LATE,
+    NEWBORN_0_3M,
+    INFANT_3_6M,
+    INFANT_6_12M,
+    TODDLER_1_3Y,
+    PRESCHOOL_3Y_PLUS
+}
@@ -0,0 +1,8 @@
+package com.mimi.domain.enums;
+
+public enum EngagementType {
+    LIKED,
+    UNLIKED,
+    COMMENTED,
+    COMMENT_DELETED
+}
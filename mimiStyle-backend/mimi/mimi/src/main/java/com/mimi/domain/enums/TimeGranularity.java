@@ -0,0 +1,7 @@
+package com.mimi.domain.enums;
+
+public enum TimeGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,23 @@
+package com.mimi.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Bài đăng kèm thông tin tác giả, phẳng hóa từ một truy vấn (không phải entity). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostRow {
+    private Long id;
+    private String content;
+    private LocalDateTime createdAt;
+    private Integer totalLikes;
+    private Integer totalComments;
+    private Long authorId;
+    private String authorUsername;
+    private String authorFullName;
+    private String authorAvatarUrl;
+}
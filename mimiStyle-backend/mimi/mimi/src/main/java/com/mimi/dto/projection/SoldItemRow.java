@@ -0,0 +1,29 @@
+package com.mimi.dto.projection;
+
+import com.mimi.domain.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Một dòng bán hàng đã được phẳng hóa (không phải entity), dùng cho xuất báo cáo dạng stream. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SoldItemRow {
+    private Long orderId;
+    private LocalDateTime orderCreatedAt;
+    private OrderStatus orderStatus;
+    private Long productId;
+    private String productName;
+    private String categoryName;
+    private String imageUrl;
+    private Integer quantity;
+    private BigDecimal price;
+    private String shippingName;
+    private String shippingPhone;
+    private String shippingAddress;
+    private String note;
+}
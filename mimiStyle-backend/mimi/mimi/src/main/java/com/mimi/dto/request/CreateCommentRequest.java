@@ -0,0 +1,12 @@
+package com.mimi.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateCommentRequest {
+    private String content;
+}
@@ -0,0 +1,16 @@
+package com.mimi.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatePostRequest {
+    private String content;
+    /** Tên file ảnh đã upload */
+    private List<String> imageUrls;
+}
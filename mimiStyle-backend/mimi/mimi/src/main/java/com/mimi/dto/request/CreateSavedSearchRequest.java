@@ -0,0 +1,19 @@
+package com.mimi.dto.request;
+
+import com.mimi.domain.enums.TradeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateSavedSearchRequest {
+    private Long categoryId;
+    private BigDecimal maxPrice;
+    private TradeType tradeType;
+    private Integer minCondition;
+    private String keywords;
+}
@@ -0,0 +1,25 @@
+package com.mimi.dto.request;
+
+import com.mimi.domain.enums.Role;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/** Tham số tìm kiếm danh sách user cho admin (query string). */
+@Data
+public class UserSearchRequest {
+    /** Tiền tố của username hoặc email */
+    private String q;
+    private Role role;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+    /** createdAt (mặc định) hoặc username */
+    private String sort = "createdAt";
+    /** asc hoặc desc (mặc định) */
+    private String direction = "desc";
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,14 @@
+package com.mimi.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantRequest {
+    private String size;
+    private String color;
+    private Integer stockQuantity;
+}
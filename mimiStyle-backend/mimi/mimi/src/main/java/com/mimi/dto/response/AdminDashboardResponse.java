@@ -0,0 +1,30 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminDashboardResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    /** Tổng giá trị đơn (finalAmount) không tính đơn đã hủy */
+    private BigDecimal gmv;
+    private Map<OrderStatus, Long> ordersByStatus;
+    private Long newUsers;
+    private List<CategoryCountResponse> newListingsByCategory;
+    private List<TopSellerResponse> topSellers;
+    private List<TopProductResponse> topProducts;
+    /** Các mục bị quá thời gian hoặc lỗi, giá trị tương ứng để null */
+    private List<String> unavailableSections;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,17 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.AgeBand;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BabyRecommendationResponse {
+    /** Giai đoạn hiện tại của các bé trong hồ sơ; rỗng khi user chưa có hồ sơ bé (trả về gợi ý chung). */
+    private List<AgeBand> ageBands;
+    private List<ProductResponse> products;
+}
@@ -0,0 +1,14 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestSellerResponse {
+    private Integer rank;
+    private Long unitsSold;
+    private ProductResponse product;
+}
@@ -0,0 +1,20 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesResponse {
+    /** Sản phẩm tạo mới hoặc đã sửa (trạng thái hiện tại), theo thứ tự thay đổi. */
+    private List<ProductResponse> upserts;
+    /** Sản phẩm đã bị xóa (tombstone). */
+    private List<Long> deletedIds;
+    /** Gửi lại làm since ở lần gọi kế tiếp. */
+    private Long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,14 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryCountResponse {
+    private Long categoryId;
+    private String categoryName;
+    private Long count;
+}
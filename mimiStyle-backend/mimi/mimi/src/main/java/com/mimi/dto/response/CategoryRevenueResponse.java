@@ -0,0 +1,18 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryRevenueResponse {
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal revenue;
+    private Long unitsSold;
+    private Long orderCount;
+}
@@ -0,0 +1,21 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentResponse {
+    private Long id;
+    private Long postId;
+    private String content;
+    private LocalDateTime createdAt;
+    private Long authorId;
+    private String authorUsername;
+    private String authorFullName;
+    private String authorAvatarUrl;
+}
@@ -0,0 +1,17 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Một trang kết quả phân trang keyset; gửi lại nextCursor để lấy trang tiếp theo. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    /** null khi đã hết dữ liệu */
+    private String nextCursor;
+}
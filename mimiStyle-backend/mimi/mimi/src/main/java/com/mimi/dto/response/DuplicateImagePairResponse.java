@@ -0,0 +1,24 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Cặp ảnh gần giống nhau thuộc hai sản phẩm khác nhau, cho báo cáo kiểm duyệt. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateImagePairResponse {
+    private Long imageId;
+    private String imageUrl;
+    private Long productId;
+    private String productName;
+    private Long sellerId;
+    private Long otherImageId;
+    private String otherImageUrl;
+    private Long otherProductId;
+    private String otherProductName;
+    private Long otherSellerId;
+    private Integer distance;
+    private Boolean sameSeller;
+}
@@ -0,0 +1,19 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Một ảnh đã đăng gần giống ảnh vừa tải lên (distance = số bit lệch giữa hai dHash, 0 = giống hệt). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateImageResponse {
+    private String filename;
+    private Long imageId;
+    private String imageUrl;
+    private Long productId;
+    private String productName;
+    private Long sellerId;
+    private Integer distance;
+}
@@ -0,0 +1,23 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+    private Long id;
+    private String type;
+    private Long productId;
+    private String productName;
+    private BigDecimal buyPrice;
+    private BigDecimal rentPrice;
+    private Long savedSearchId;
+    private Boolean read;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.mimi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostResponse {
+    private Long id;
+    private String content;
+    private LocalDateTime createdAt;
+    private Long authorId;
+    private String authorUsername;
+    private String authorFullName;
+    private String authorAvatarUrl;
+    private List<String> imageUrls;
+    private Long totalLikes;
+    private Long totalComments;
+    /** null khi không biết người xem */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByMe;
+    /** Vài bình luận mới nhất, chỉ có khi feed được gọi với commentPreview &gt; 0 */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentResponse> commentPreview;
+}
@@ -0,0 +1,16 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponse {
+    /** Theo đúng thứ tự id trong request (id lặp lại chỉ trả một lần). */
+    private List<ProductSummaryResponse> items;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,24 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Toàn bộ dữ liệu trang chi tiết sản phẩm trong một tài liệu (ảnh nằm trong product.images). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDetailResponse {
+    private ProductResponse product;
+    /** null nếu sản phẩm không có biến thể */
+    private VariantMatrixResponse variants;
+    /** Ảnh giấy chứng nhận/hóa đơn của sản phẩm */
+    private List<String> certificates;
+    private SellerProfileResponse seller;
+    /** Từ danh mục gốc tới danh mục của sản phẩm */
+    private List<CategoryPathItemResponse> categoryPath;
+    private LocalDateTime generatedAt;
+}
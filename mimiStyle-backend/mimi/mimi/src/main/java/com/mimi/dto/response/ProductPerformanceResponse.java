@@ -0,0 +1,22 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** Lượt xem đặt cạnh số lượng bán của một sản phẩm trong khoảng thời gian (màn hình doanh thu của seller). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPerformanceResponse {
+    private Long productId;
+    private String productName;
+    private String category;
+    private Long views;
+    private Integer unitsSold;
+    private BigDecimal revenue;
+    /** unitsSold / views; null khi chưa có lượt xem */
+    private Double conversionRate;
+}
@@ -1,5 +1,6 @@
 package com.mimi.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.mimi.domain.enums.ProductStatus;
 import com.mimi.domain.enums.RentUnit;
 import com.mimi.domain.enums.TradeType;
@@ -39,4 +40,12 @@ public class ProductResponse {
     
     // Images
     private List<String> images;
+
+    /** Sản phẩm tương tự, chỉ có ở trang chi tiết khi client yêu cầu */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ProductResponse> similarProducts;
+
+    /** Bảng biến thể size × màu kèm tồn kho, chỉ có ở trang chi tiết của sản phẩm có biến thể */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private VariantMatrixResponse variants;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.ProductStatus;
+import com.mimi.domain.enums.RentUnit;
+import com.mimi.domain.enums.TradeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** Thông tin rút gọn của sản phẩm để hiển thị giỏ hàng / tóm tắt đơn. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryResponse {
+    private Long id;
+    private String name;
+    private TradeType tradeType;
+    private BigDecimal buyPrice;
+    private BigDecimal rentPrice;
+    private RentUnit rentUnit;
+    private ProductStatus status;
+    private Long sellerId;
+    private String sellerName;
+    private String thumbnailUrl;
+}
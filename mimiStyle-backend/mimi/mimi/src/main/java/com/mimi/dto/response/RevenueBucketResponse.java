@@ -0,0 +1,21 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueBucketResponse {
+    /** Ngày bắt đầu của bucket (đầu ngày / thứ Hai đầu tuần / ngày 1 của tháng) */
+    private LocalDate bucketStart;
+    private BigDecimal revenue;
+    private Long unitsSold;
+    private Long orderCount;
+    private List<CategoryRevenueResponse> categories;
+}
@@ -13,4 +13,6 @@ public class RevenueResponse {
     private BigDecimal totalRevenue;
     private Integer totalProductsSold;
     private String period;
+    /** Tổng lượt xem trang chi tiết các sản phẩm của seller trong cùng khoảng thời gian */
+    private Long totalViews;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.TimeGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueTimeSeriesResponse {
+    private TimeGranularity granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalRevenue;
+    private Long totalUnitsSold;
+    private Long totalOrders;
+    private List<RevenueBucketResponse> buckets;
+}
@@ -0,0 +1,22 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.TradeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchResponse {
+    private Long id;
+    private Long categoryId;
+    private BigDecimal maxPrice;
+    private TradeType tradeType;
+    private Integer minCondition;
+    private String keywords;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerOrderInboxResponse {
+    private List<SellerOrderResponse> orders;
+    /** null khi đã hết dữ liệu */
+    private String nextCursor;
+    private Map<OrderStatus, Long> statusCounts;
+}
@@ -0,0 +1,29 @@
+package com.mimi.dto.response;
+
+import com.mimi.domain.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Đơn hàng nhìn từ phía một seller: chỉ các dòng sản phẩm của seller đó. Không có phí ship, giảm giá hay tổng tiền
+ * vì các khoản đó tính cho cả đơn (có thể gồm hàng của nhiều seller).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerOrderResponse {
+    private Long id;
+    private LocalDateTime createdAt;
+    private OrderStatus status;
+    private String shippingName;
+    private String shippingPhone;
+    private String shippingAddress;
+    /** Tổng các dòng của seller */
+    private BigDecimal subtotal;
+    private List<OrderItemResponse> items;
+}
@@ -0,0 +1,19 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerProfileResponse {
+    private Long id;
+    private String username;
+    private String fullName;
+    private String avatarUrl;
+    private LocalDateTime memberSince;
+    private Long activeListings;
+}
@@ -0,0 +1,16 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String text;
+    /** PRODUCT (tên sản phẩm) hoặc CATEGORY */
+    private String type;
+    /** Id danh mục khi type = CATEGORY, id sản phẩm phổ biến nhất mang tên này khi type = PRODUCT */
+    private Long refId;
+}
@@ -0,0 +1,17 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopSellerResponse {
+    private Long sellerId;
+    private String sellerName;
+    private BigDecimal revenue;
+    private Long unitsSold;
+}
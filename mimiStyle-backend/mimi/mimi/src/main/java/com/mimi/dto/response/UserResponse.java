@@ -1,10 +1,12 @@
 package com.mimi.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.mimi.domain.enums.Role;
 import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -19,5 +21,12 @@ public class UserResponse {
     private String address;
     private String avatarUrl;
     private Role role;
+    private LocalDateTime createdAt;
+
+    // Chỉ có khi đăng nhập: gửi lại qua header "Authorization: Bearer <token>"
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime tokenExpiresAt;
 }
 
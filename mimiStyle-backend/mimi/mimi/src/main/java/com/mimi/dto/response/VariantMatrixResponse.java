@@ -0,0 +1,17 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Bảng biến thể của sản phẩm: hai trục size/màu (theo thứ tự xuất hiện) và tồn kho từng ô. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantMatrixResponse {
+    private List<String> sizes;
+    private List<String> colors;
+    private List<VariantResponse> variants;
+}
@@ -0,0 +1,15 @@
+package com.mimi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantResponse {
+    private Long id;
+    private String size;
+    private String color;
+    private Integer stockQuantity;
+}
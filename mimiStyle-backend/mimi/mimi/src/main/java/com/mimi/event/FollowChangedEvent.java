@@ -0,0 +1,13 @@
+package com.mimi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Phát ra khi follow/unfollow; listener nên dùng @TransactionalEventListener (AFTER_COMMIT). */
+@Data
+@AllArgsConstructor
+public class FollowChangedEvent {
+    private Long followerId;
+    private Long followeeId;
+    private boolean following;
+}
@@ -0,0 +1,17 @@
+package com.mimi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Phát ra trong OrderServiceImpl.createOrder; listener nên dùng @TransactionalEventListener (AFTER_COMMIT). */
+@Data
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    private Long orderId;
+    private Long buyerId;
+    private LocalDateTime createdAt;
+    private List<OrderItemSnapshot> items;
+}
@@ -0,0 +1,19 @@
+package com.mimi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** Thông tin tối thiểu của một order item, chụp lại trong transaction để listener không phải chạm vào entity lazy. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemSnapshot {
+    private Long productId;
+    private Long categoryId;
+    private Long sellerId;
+    private Integer quantity;
+    private BigDecimal price;
+}
@@ -0,0 +1,20 @@
+package com.mimi.event;
+
+import com.mimi.domain.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Phát ra trong OrderServiceImpl.updateOrderStatus khi trạng thái thực sự thay đổi. */
+@Data
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+    private Long orderId;
+    private Long buyerId;
+    private LocalDateTime createdAt;
+    private OrderStatus oldStatus;
+    private OrderStatus newStatus;
+    private List<OrderItemSnapshot> items;
+}
@@ -0,0 +1,15 @@
+package com.mimi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/** Phát ra trong PostServiceImpl.createPost; listener nên dùng @TransactionalEventListener (AFTER_COMMIT). */
+@Data
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private Long postId;
+    private Long authorId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.mimi.event;
+
+import com.mimi.domain.enums.EngagementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Phát ra trong PostEngagementServiceImpl khi like/unlike/bình luận thực sự làm thay đổi bộ đếm.
+ * Listener nên dùng @TransactionalEventListener(fallbackExecution = true): like không chạy trong transaction.
+ */
+@Data
+@AllArgsConstructor
+public class PostEngagementEvent {
+    private Long postId;
+    private Long postAuthorId;
+    private Long actorId;
+    private EngagementType type;
+}
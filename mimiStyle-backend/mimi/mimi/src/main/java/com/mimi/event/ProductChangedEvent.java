@@ -0,0 +1,12 @@
+package com.mimi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Phát ra trong transaction của ProductServiceImpl khi sản phẩm được tạo, sửa hoặc xóa. */
+@Data
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private Long productId;
+    private boolean deleted;
+}
@@ -0,0 +1,16 @@
+package com.mimi.event;
+
+import com.mimi.domain.ProductImage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/** Phát ra trong transaction của ProductController khi ảnh của sản phẩm được thêm hoặc xóa. */
+@Data
+@AllArgsConstructor
+public class ProductImagesChangedEvent {
+    private Long productId;
+    private List<ProductImage> added;
+    private List<ProductImage> removed;
+}
@@ -0,0 +1,81 @@
+package com.mimi.event;
+
+import com.mimi.domain.enums.EngagementType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/** Chuyển sự kiện nghiệp vụ (sau commit) thành sự kiện SSE cho những user liên quan. */
+@Component
+public class RealtimeEventRelay {
+
+    private final UserEventBus eventBus;
+
+    public RealtimeEventRelay(UserEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("orderId", event.getOrderId());
+        data.put("status", "PENDING");
+        data.put("createdAt", event.getCreatedAt());
+        if (event.getBuyerId() != null) {
+            eventBus.publish(event.getBuyerId(), "order.created", data);
+        }
+        for (Long sellerId : sellerIds(event.getItems())) {
+            eventBus.publish(sellerId, "order.received", data);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("orderId", event.getOrderId());
+        data.put("oldStatus", event.getOldStatus());
+        data.put("status", event.getNewStatus());
+        if (event.getBuyerId() != null) {
+            eventBus.publish(event.getBuyerId(), "order.status", data);
+        }
+        for (Long sellerId : sellerIds(event.getItems())) {
+            eventBus.publish(sellerId, "order.status", data);
+        }
+    }
+
+    /** Báo cho tác giả bài khi có người khác thích hoặc bình luận. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEngagement(PostEngagementEvent event) {
+        if (event.getPostAuthorId() == null || event.getPostAuthorId().equals(event.getActorId())) {
+            return;
+        }
+        String type;
+        if (event.getType() == EngagementType.LIKED) {
+            type = "post.liked";
+        } else if (event.getType() == EngagementType.COMMENTED) {
+            type = "post.commented";
+        } else {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("postId", event.getPostId());
+        data.put("userId", event.getActorId());
+        eventBus.publish(event.getPostAuthorId(), type, data);
+    }
+
+    private static Set<Long> sellerIds(Iterable<OrderItemSnapshot> items) {
+        Set<Long> sellers = new LinkedHashSet<>();
+        if (items != null) {
+            for (OrderItemSnapshot item : items) {
+                if (item.getSellerId() != null) {
+                    sellers.add(item.getSellerId());
+                }
+            }
+        }
+        return sellers;
+    }
+}
@@ -0,0 +1,297 @@
+package com.mimi.event;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pub/sub trong tiến trình, đẩy sự kiện tới user qua Server-Sent Events.
+ * Mỗi kết nối có hàng đợi giới hạn; client chậm làm đầy hàng đợi thì sự kiện cũ nhất bị bỏ, không chặn người phát.
+ * Việc ghi ra socket chạy trên sseExecutor (mỗi kết nối tối đa một tác vụ ghi tại một thời điểm, mỗi lượt ghi
+ * tối đa EVENTS_PER_TURN sự kiện rồi nhường thread cho kết nối khác), kết nối đang chờ không giữ thread nào
+ * (async servlet). emitter.send chặn khi client ngừng đọc; kết nối ghi mãi không xong quá stall-timeout bị đóng. Mỗi user giữ vài sự kiện gần nhất để client kết nối lại
+ * với Last-Event-ID nhận bù phần bị lỡ.
+ */
+@Component
+public class UserEventBus {
+
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int RECENT_PER_USER = 100;
+    private static final long RECENT_TTL_MS = 10 * 60_000L;
+    private static final int MAX_CONNECTIONS_PER_USER = 5;
+    private static final int EVENTS_PER_TURN = 32;
+
+    private final ThreadPoolTaskExecutor executor;
+    private final long emitterTimeoutMs;
+    private final int maxConnections;
+    private final long stallTimeoutMs;
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // Bắt đầu từ thời điểm khởi động để id sau khi restart vẫn lớn hơn Last-Event-ID cũ
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public UserEventBus(@Qualifier("sseExecutor") ThreadPoolTaskExecutor executor,
+                        @Value("${realtime.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+                        @Value("${realtime.sse.max-connections:20000}") int maxConnections,
+                        @Value("${realtime.sse.stall-timeout-ms:15000}") long stallTimeoutMs) {
+        this.executor = executor;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxConnections = maxConnections;
+        this.stallTimeoutMs = stallTimeoutMs;
+    }
+
+    private static final class UserEvent {
+        private final long id;
+        private final String type;
+        private final Object data;
+        private final long createdAt;
+
+        private UserEvent(long id, String type, Object data) {
+            this.id = id;
+            this.type = type;
+            this.data = data;
+            this.createdAt = System.currentTimeMillis();
+        }
+    }
+
+    /** Sự kiện đặc biệt chỉ để giữ kết nối, không lưu lại, không có id. */
+    private static final UserEvent HEARTBEAT = new UserEvent(0, null, null);
+
+    /** Các kết nối và sự kiện gần đây của một user; mọi thay đổi phải giữ lock của channel. */
+    private static final class Channel {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<UserEvent> recent = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        /** Đã bị gỡ khỏi map; nơi đang cầm tham chiếu cũ phải lấy channel mới */
+        private boolean removed;
+    }
+
+    private final class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final Deque<UserEvent> queue = new ArrayDeque<>();
+        private boolean draining;
+        private volatile boolean closed;
+        /** Thời điểm bắt đầu lần emitter.send đang chạy, 0 khi không ghi */
+        private volatile long sendingSince;
+
+        private Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(UserEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= QUEUE_CAPACITY) {
+                    queue.pollFirst();
+                }
+                queue.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // Pool quá tải: giữ lại hàng đợi, lần offer/heartbeat sau sẽ thử lại
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            for (int sent = 0; ; sent++) {
+                UserEvent event;
+                synchronized (this) {
+                    if (queue.isEmpty() || closed) {
+                        draining = false;
+                        return;
+                    }
+                    if (sent == EVENTS_PER_TURN) {
+                        // Còn sự kiện: xếp lại cuối hàng đợi của pool để kết nối khác được ghi
+                        break;
+                    }
+                    event = queue.pollFirst();
+                }
+                sendingSince = System.currentTimeMillis();
+                try {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id))
+                                .name(event.type)
+                                .data(event.data, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    // Client đã ngắt kết nối
+                    close();
+                    emitter.completeWithError(ex);
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            schedule();
+        }
+
+        boolean stalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > stallTimeoutMs;
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            connections.decrementAndGet();
+            Channel channel = channels.get(userId);
+            if (channel != null) {
+                channel.lock.lock();
+                try {
+                    channel.subscribers.remove(this);
+                } finally {
+                    channel.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Mở kết nối SSE cho user. lastEventId (nếu có) là id sự kiện cuối client đã nhận; các sự kiện mới hơn
+     * còn trong bộ đệm được gửi bù trước khi tới sự kiện mới.
+     */
+    public SseEmitter subscribe(long userId, Long lastEventId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        Subscriber evicted = null;
+        Channel channel = lockedChannel(userId);
+        try {
+            // Giới hạn số tab/thiết bị mỗi user: bỏ kết nối cũ nhất
+            if (channel.subscribers.size() >= MAX_CONNECTIONS_PER_USER) {
+                evicted = channel.subscribers.get(0);
+            }
+            channel.subscribers.add(subscriber);
+            if (lastEventId != null) {
+                for (UserEvent event : channel.recent) {
+                    if (event.id > lastEventId) {
+                        subscriber.offer(event);
+                    }
+                }
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+        if (evicted != null) {
+            evicted.close();
+            evicted.emitter.complete();
+        }
+        // Gửi ngay một heartbeat để proxy/trình duyệt nhận header và coi kết nối đã mở
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    /** Đẩy sự kiện cho user; trả về ngay, không chờ ghi ra mạng. */
+    public void publish(long userId, String type, Map<String, ?> data) {
+        UserEvent event = new UserEvent(sequence.incrementAndGet(), type, data);
+        Channel channel = lockedChannel(userId);
+        try {
+            channel.recent.addLast(event);
+            if (channel.recent.size() > RECENT_PER_USER) {
+                channel.recent.pollFirst();
+            }
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.offer(event);
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    /** Lấy channel của user và giữ lock của nó; nơi gọi phải unlock trong finally. */
+    private Channel lockedChannel(long userId) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId, id -> new Channel());
+            channel.lock.lock();
+            if (!channel.removed) {
+                return channel;
+            }
+            channel.lock.unlock();
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    /** Heartbeat cho mọi kết nối, đồng thời dọn sự kiện quá hạn và channel không còn dùng. */
+    @Scheduled(fixedDelayString = "${realtime.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        long expireBefore = now - RECENT_TTL_MS;
+        for (Map.Entry<Long, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            List<Subscriber> targets;
+            channel.lock.lock();
+            try {
+                while (!channel.recent.isEmpty() && channel.recent.peekFirst().createdAt < expireBefore) {
+                    channel.recent.pollFirst();
+                }
+                if (channel.recent.isEmpty() && channel.subscribers.isEmpty()) {
+                    channel.removed = true;
+                    channels.remove(entry.getKey(), channel);
+                    continue;
+                }
+                targets = new ArrayList<>(channel.subscribers);
+            } finally {
+                channel.lock.unlock();
+            }
+            for (Subscriber subscriber : targets) {
+                if (subscriber.stalled(now)) {
+                    // Client không đọc nữa: đóng kết nối để giải phóng thread đang chặn trong emitter.send
+                    subscriber.close();
+                    subscriber.emitter.completeWithError(new IOException("Event stream write stalled"));
+                } else {
+                    subscriber.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mimi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Phát ra khi biến thể của sản phẩm được thêm/sửa/xóa hoặc tồn kho thay đổi do đặt/hủy đơn. */
+@Data
+@AllArgsConstructor
+public class VariantStockChangedEvent {
+    private Long productId;
+}
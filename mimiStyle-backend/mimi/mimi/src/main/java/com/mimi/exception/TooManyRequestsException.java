@@ -0,0 +1,18 @@
+package com.mimi.exception;
+
+/** Request bị từ chối do vượt giới hạn tần suất hoặc hệ thống đang quá tải; controller trả về 429. */
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
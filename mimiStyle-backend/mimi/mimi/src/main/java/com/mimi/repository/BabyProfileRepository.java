@@ -0,0 +1,12 @@
+package com.mimi.repository;
+
+import com.mimi.domain.BabyProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BabyProfileRepository extends JpaRepository<BabyProfile, Long> {
+    List<BabyProfile> findByUserId(Long userId);
+}
@@ -0,0 +1,29 @@
+package com.mimi.repository;
+
+import com.mimi.domain.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    /**
+     * Thay đổi sau since, chỉ lấy dòng mới nhất của mỗi sản phẩm (nén ngay khi đọc, không phụ thuộc lịch nén),
+     * theo thứ tự id.
+     */
+    @Query("SELECT c FROM CatalogChange c WHERE c.id > :since " +
+           "AND NOT EXISTS (SELECT 1 FROM CatalogChange n WHERE n.productId = c.productId AND n.id > c.id) " +
+           "ORDER BY c.id")
+    List<CatalogChange> findLatestAfter(@Param("since") Long since, Pageable pageable);
+
+    /** id các dòng đã có dòng mới hơn cho cùng sản phẩm, theo keyset trên id (nén nhật ký). */
+    @Query("SELECT c.id FROM CatalogChange c WHERE c.id > :afterId " +
+           "AND EXISTS (SELECT 1 FROM CatalogChange n WHERE n.productId = c.productId AND n.id > c.id) " +
+           "ORDER BY c.id")
+    List<Long> findSupersededIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
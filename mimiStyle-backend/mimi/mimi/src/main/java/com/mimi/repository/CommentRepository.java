@@ -0,0 +1,48 @@
+package com.mimi.repository;
+
+import com.mimi.domain.Comment;
+import com.mimi.dto.response.CommentResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    /** Trang đầu bình luận của bài, cũ nhất trước, kèm tên/avatar tác giả trong cùng truy vấn. */
+    @Query("SELECT new com.mimi.dto.response.CommentResponse(c.id, c.post.id, c.content, c.createdAt, " +
+           "u.id, u.username, u.fullName, u.avatarUrl) " +
+           "FROM Comment c JOIN c.user u WHERE c.post.id = :postId " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentResponse> findFirstPageByPost(@Param("postId") Long postId, Pageable pageable);
+
+    /** Trang tiếp theo sau cursor (createdAt, id). */
+    @Query("SELECT new com.mimi.dto.response.CommentResponse(c.id, c.post.id, c.content, c.createdAt, " +
+           "u.id, u.username, u.fullName, u.avatarUrl) " +
+           "FROM Comment c JOIN c.user u WHERE c.post.id = :postId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentResponse> findPageByPostAfter(@Param("postId") Long postId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    /**
+     * N bình luận mới nhất của mỗi bài trong một truy vấn (ROW_NUMBER theo từng post_id), trả về cũ nhất trước.
+     * [id, post_id, content, created_at, user_id, username, full_name, avatar_url]
+     */
+    @Query(value = "SELECT x.id, x.post_id, x.content, x.created_at, x.user_id, x.username, x.full_name, x.avatar_url " +
+                   "FROM (SELECT c.id, c.post_id, c.content, c.created_at, u.id AS user_id, u.username, " +
+                   "u.full_name, u.avatar_url, " +
+                   "ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS rn " +
+                   "FROM comments c JOIN users u ON u.id = c.user_id WHERE c.post_id IN (:postIds)) x " +
+                   "WHERE x.rn <= :perPost ORDER BY x.post_id, x.created_at, x.id",
+           nativeQuery = true)
+    List<Object[]> findLatestPerPost(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
+}
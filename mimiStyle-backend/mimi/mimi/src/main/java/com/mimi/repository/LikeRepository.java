@@ -0,0 +1,20 @@
+package com.mimi.repository;
+
+import com.mimi.domain.Like;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LikeRepository extends JpaRepository<Like, Long> {
+
+    boolean existsByPostIdAndUserId(Long postId, Long userId);
+
+    /** Những bài (trong postIds) mà user đã thích. */
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+}
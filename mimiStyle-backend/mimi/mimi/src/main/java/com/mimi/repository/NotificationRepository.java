@@ -0,0 +1,45 @@
+package com.mimi.repository;
+
+import com.mimi.domain.Notification;
+import com.mimi.dto.response.NotificationResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    /** Trang đầu thông báo của user, mới nhất trước, kèm tên/giá sản phẩm (null nếu sản phẩm đã bị xóa). */
+    @Query("SELECT new com.mimi.dto.response.NotificationResponse(n.id, n.type, n.productId, p.name, p.buyPrice, " +
+           "p.rentPrice, n.savedSearchId, n.read, n.createdAt) " +
+           "FROM Notification n LEFT JOIN Product p ON p.id = n.productId WHERE n.userId = :userId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findFirstPageByUser(@Param("userId") Long userId, Pageable pageable);
+
+    /** Trang tiếp theo sau cursor (createdAt, id). */
+    @Query("SELECT new com.mimi.dto.response.NotificationResponse(n.id, n.type, n.productId, p.name, p.buyPrice, " +
+           "p.rentPrice, n.savedSearchId, n.read, n.createdAt) " +
+           "FROM Notification n LEFT JOIN Product p ON p.id = n.productId WHERE n.userId = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findPageByUserBefore(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    long countByUserIdAndReadFalse(Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.id = :id AND n.read = false")
+    int markRead(@Param("userId") Long userId, @Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.read = false")
+    int markAllRead(@Param("userId") Long userId);
+}
@@ -1,13 +1,24 @@
 package com.mimi.repository;
 
 import com.mimi.domain.OrderItem;
+import com.mimi.dto.projection.SoldItemRow;
+import com.mimi.dto.response.TopProductResponse;
+import com.mimi.dto.response.TopSellerResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
@@ -32,4 +43,139 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
            "AND o.status IN ('PENDING', 'CONFIRMED', 'SHIPPING', 'COMPLETED') " +
            "ORDER BY o.createdAt DESC")
     List<OrderItem> findAllSoldItemsBySeller(@Param("sellerId") Long sellerId);
-}
\ No newline at end of file
+
+    /**
+     * Stream các dòng bán hàng của seller dưới dạng projection (không tạo entity), dùng cho xuất file.
+     * Fetch size = Integer.MIN_VALUE để MySQL Connector/J trả từng dòng thay vì nạp toàn bộ result set.
+     * Phải được gọi trong transaction và đóng stream sau khi dùng.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.mimi.dto.projection.SoldItemRow(" +
+           "o.id, o.createdAt, o.status, p.id, p.name, c.name, " +
+           "(SELECT pi.imageUrl FROM ProductImage pi WHERE pi.id = " +
+           "(SELECT MIN(pi2.id) FROM ProductImage pi2 WHERE pi2.product = p)), " +
+           "oi.quantity, oi.price, o.shippingName, o.shippingPhone, o.shippingAddress, o.note) " +
+           "FROM OrderItem oi " +
+           "JOIN oi.order o " +
+           "JOIN oi.product p " +
+           "LEFT JOIN p.category c " +
+           "WHERE p.seller.id = :sellerId " +
+           "AND o.status IN ('PENDING', 'CONFIRMED', 'SHIPPING', 'COMPLETED') " +
+           "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+           "AND (:category IS NULL OR LOWER(c.name) = LOWER(:category)) " +
+           "ORDER BY o.createdAt DESC, oi.id DESC")
+    Stream<SoldItemRow> streamSoldItemRowsBySeller(@Param("sellerId") Long sellerId,
+                                                   @Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate,
+                                                   @Param("category") String category);
+
+    /**
+     * Doanh thu theo bucket thời gian và danh mục trong một lần quét (MySQL).
+     * WITH ROLLUP sinh thêm dòng tổng của mỗi bucket (is_bucket_total = 1) để đếm đơn không bị trùng
+     * khi một đơn có nhiều danh mục, và dòng tổng toàn kỳ (is_grand_total = 1).
+     * Cột trả về: bucket_start, category_id, revenue, units, orders, is_bucket_total, is_grand_total.
+     */
+    @Query(value = "SELECT CASE :granularity " +
+                   "  WHEN 'WEEK' THEN DATE_SUB(DATE(o.created_at), INTERVAL WEEKDAY(o.created_at) DAY) " +
+                   "  WHEN 'MONTH' THEN DATE_SUB(DATE(o.created_at), INTERVAL DAYOFMONTH(o.created_at) - 1 DAY) " +
+                   "  ELSE DATE(o.created_at) END AS bucket_start, " +
+                   "p.category_id AS category_id, " +
+                   "SUM(oi.price * oi.quantity) AS revenue, " +
+                   "SUM(oi.quantity) AS units, " +
+                   "COUNT(DISTINCT o.id) AS orders, " +
+                   "GROUPING(p.category_id) AS is_bucket_total, " +
+                   "GROUPING(bucket_start) AS is_grand_total " +
+                   "FROM order_items oi " +
+                   "JOIN products p ON p.id = oi.product_id " +
+                   "JOIN orders o ON o.id = oi.order_id " +
+                   "WHERE p.seller_id = :sellerId " +
+                   "AND o.status IN ('PENDING', 'CONFIRMED', 'SHIPPING', 'COMPLETED') " +
+                   "AND o.created_at >= :startDate " +
+                   "AND o.created_at < :endDate " +
+                   "GROUP BY bucket_start, p.category_id WITH ROLLUP",
+           nativeQuery = true)
+    List<Object[]> aggregateRevenueBuckets(@Param("sellerId") Long sellerId,
+                                           @Param("granularity") String granularity,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT new com.mimi.dto.response.TopSellerResponse(" +
+           "s.id, s.fullName, SUM(oi.price * oi.quantity), SUM(oi.quantity)) " +
+           "FROM OrderItem oi " +
+           "JOIN oi.order o " +
+           "JOIN oi.product p " +
+           "JOIN p.seller s " +
+           "WHERE o.status <> 'CANCELLED' " +
+           "AND o.createdAt >= :startDate AND o.createdAt < :endDate " +
+           "GROUP BY s.id, s.fullName " +
+           "ORDER BY SUM(oi.price * oi.quantity) DESC")
+    List<TopSellerResponse> findTopSellers(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           Pageable pageable);
+
+    @Query("SELECT new com.mimi.dto.response.TopProductResponse(" +
+           "p.id, p.name, p.seller.id, SUM(oi.price * oi.quantity), SUM(oi.quantity)) " +
+           "FROM OrderItem oi " +
+           "JOIN oi.order o " +
+           "JOIN oi.product p " +
+           "WHERE o.status <> 'CANCELLED' " +
+           "AND o.createdAt >= :startDate AND o.createdAt < :endDate " +
+           "GROUP BY p.id, p.name, p.seller.id " +
+           "ORDER BY SUM(oi.price * oi.quantity) DESC")
+    List<TopProductResponse> findTopProducts(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             Pageable pageable);
+
+    /** Số lượng bán theo (sản phẩm, danh mục, ngày) kể từ mốc thời gian, dùng để dựng lại bảng best seller khi khởi động. */
+    @Query("SELECT p.id, p.category.id, CAST(o.createdAt AS LocalDate), SUM(oi.quantity) " +
+           "FROM OrderItem oi " +
+           "JOIN oi.order o " +
+           "JOIN oi.product p " +
+           "WHERE o.status <> 'CANCELLED' " +
+           "AND o.createdAt >= :since " +
+           "GROUP BY p.id, p.category.id, CAST(o.createdAt AS LocalDate)")
+    List<Object[]> sumUnitsByProductAndDaySince(@Param("since") LocalDateTime since);
+
+    /** [productId, tổng số lượng bán] của các đơn không bị hủy kể từ mốc thời gian. */
+    @Query("SELECT oi.product.id, SUM(oi.quantity) " +
+           "FROM OrderItem oi " +
+           "JOIN oi.order o " +
+           "WHERE o.status <> 'CANCELLED' " +
+           "AND o.createdAt >= :since " +
+           "GROUP BY oi.product.id")
+    List<Object[]> sumUnitsByProductSince(@Param("since") LocalDateTime since);
+
+    /** [productId, productId mua cùng, số đơn chứa cả hai] của các đơn không bị hủy kể từ mốc thời gian. */
+    @Query(value = "SELECT a.product_id, b.product_id, COUNT(DISTINCT a.order_id) " +
+                   "FROM order_items a " +
+                   "JOIN order_items b ON b.order_id = a.order_id AND b.product_id <> a.product_id " +
+                   "JOIN orders o ON o.id = a.order_id " +
+                   "WHERE o.status <> 'CANCELLED' AND o.created_at >= :since " +
+                   "GROUP BY a.product_id, b.product_id",
+           nativeQuery = true)
+    List<Object[]> countCoPurchasesSince(@Param("since") LocalDateTime since);
+
+    /** Các dòng của seller trong một nhóm đơn, nạp một lần cho cả trang hộp đơn. */
+    @Query("SELECT oi FROM OrderItem oi " +
+           "JOIN FETCH oi.product " +
+           "WHERE oi.order.id IN :orderIds " +
+           "AND oi.sellerId = :sellerId " +
+           "ORDER BY oi.id")
+    List<OrderItem> findSellerItemsByOrderIds(@Param("sellerId") Long sellerId,
+                                              @Param("orderIds") Collection<Long> orderIds);
+
+    /** Còn order item tạo trước khi có cột seller_id mà điền được không (dùng index seller_id, dừng ở dòng đầu). */
+    boolean existsBySellerIdIsNullAndProductSellerIsNotNull();
+
+    /** Điền seller_id cho các order item tạo trước khi có cột này. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.sellerId = " +
+           "(SELECT p.seller.id FROM Product p WHERE p = oi.product) " +
+           "WHERE oi.sellerId IS NULL AND oi.product.seller IS NOT NULL")
+    int backfillSellerIds();
+}
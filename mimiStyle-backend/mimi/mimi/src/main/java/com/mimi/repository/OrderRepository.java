@@ -2,11 +2,14 @@ package com.mimi.repository;
 
 import com.mimi.domain.Order;
 import com.mimi.domain.enums.OrderStatus;
+import com.mimi.dto.response.StatusCountResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -15,15 +18,47 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByBuyerIdOrderByCreatedAtDesc(Long buyerId);
 
+    /**
+     * Đơn hàng có chứa sản phẩm của seller, mới nhất trước, phân trang keyset theo (createdAt, id).
+     * Lọc theo order_items.seller_id (denormalized) nên không join qua products; IN subquery nên không trùng đơn.
+     * Trang đầu truyền cursorCreatedAt = null; số dòng lấy theo pageable (luôn dùng page 0).
+     */
     @Query("SELECT o FROM Order o " +
-           "JOIN o.orderItems oi " +
-           "JOIN oi.product p " +
-           "WHERE p.seller.id = :sellerId " +
-           "AND o.status = :status " +
+           "WHERE o.id IN (SELECT oi.order.id FROM OrderItem oi WHERE oi.sellerId = :sellerId) " +
+           "AND (:status IS NULL OR o.status = :status) " +
            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
-           "AND (:endDate IS NULL OR o.createdAt <= :endDate)")
+           "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+           "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+           "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
     List<Order> findOrdersBySeller(@Param("sellerId") Long sellerId,
                                   @Param("status") OrderStatus status,
                                   @Param("startDate") LocalDateTime startDate,
-                                  @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+                                  @Param("endDate") LocalDateTime endDate,
+                                  @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                  @Param("cursorId") Long cursorId,
+                                  Pageable pageable);
+
+    /** Số đơn theo trạng thái của seller (badge trên hộp đơn). */
+    @Query("SELECT new com.mimi.dto.response.StatusCountResponse(o.status, COUNT(DISTINCT o.id)) " +
+           "FROM OrderItem oi JOIN oi.order o " +
+           "WHERE oi.sellerId = :sellerId " +
+           "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+           "GROUP BY o.status")
+    List<StatusCountResponse> countSellerOrdersByStatus(@Param("sellerId") Long sellerId,
+                                                       @Param("startDate") LocalDateTime startDate,
+                                                       @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT COALESCE(SUM(o.finalAmount), 0) FROM Order o " +
+           "WHERE o.status <> 'CANCELLED' " +
+           "AND o.createdAt >= :startDate AND o.createdAt < :endDate")
+    BigDecimal sumGmv(@Param("startDate") LocalDateTime startDate,
+                      @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT new com.mimi.dto.response.StatusCountResponse(o.status, COUNT(o)) FROM Order o " +
+           "WHERE o.createdAt >= :startDate AND o.createdAt < :endDate " +
+           "GROUP BY o.status")
+    List<StatusCountResponse> countByStatus(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+}
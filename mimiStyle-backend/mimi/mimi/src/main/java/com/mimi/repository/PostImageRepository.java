@@ -0,0 +1,18 @@
+package com.mimi.repository;
+
+import com.mimi.domain.PostImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostImageRepository extends JpaRepository<PostImage, Long> {
+
+    /** [postId, imageUrl] của nhiều bài trong một truy vấn, theo thứ tự upload. */
+    @Query("SELECT i.post.id, i.imageUrl FROM PostImage i WHERE i.post.id IN :postIds ORDER BY i.id")
+    List<Object[]> findUrlsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+}
@@ -0,0 +1,51 @@
+package com.mimi.repository;
+
+import com.mimi.domain.Post;
+import com.mimi.dto.projection.PostRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PostRepository extends JpaRepository<Post, Long> {
+
+    /** Nội dung + tác giả của các bài theo id, không nạp entity (dùng để hydrate một trang feed). */
+    @Query("SELECT new com.mimi.dto.projection.PostRow(p.id, p.content, p.createdAt, p.totalLikes, p.totalComments, " +
+           "u.id, u.username, u.fullName, u.avatarUrl) " +
+           "FROM Post p JOIN p.user u WHERE p.id IN :ids")
+    List<PostRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** [id, totalLikes, totalComments] */
+    @Query("SELECT p.id, p.totalLikes, p.totalComments FROM Post p WHERE p.id IN :ids")
+    List<Object[]> findCountersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.user.id FROM Post p WHERE p.id = :id")
+    Optional<Long> findAuthorId(@Param("id") Long id);
+
+    @Query("SELECT p.totalLikes FROM Post p WHERE p.id = :id")
+    Integer findTotalLikes(@Param("id") Long id);
+
+    /** [id, createdAt, totalLikes, totalComments] của các bài đăng từ since, mới nhất trước (nạp bảng xếp hạng thịnh hành). */
+    @Query("SELECT p.id, p.createdAt, p.totalLikes, p.totalComments FROM Post p WHERE p.createdAt >= :since ORDER BY p.id DESC")
+    List<Object[]> findEngagementSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    /** Như findEngagementSince nhưng cho một bài: rỗng nếu bài không tồn tại hoặc đăng trước since. */
+    @Query("SELECT p.id, p.createdAt, p.totalLikes, p.totalComments FROM Post p WHERE p.id = :id AND p.createdAt >= :since")
+    List<Object[]> findEngagementByIdSince(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    /** Id bài mới nhất toàn sàn, trước beforeId (id tăng dần theo thời gian tạo). */
+    @Query("SELECT p.id FROM Post p WHERE p.id < :beforeId ORDER BY p.id DESC")
+    List<Long> findIdsBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    /** Id bài của chính user và những người user đang theo dõi, mới nhất trước. */
+    @Query("SELECT p.id FROM Post p WHERE p.id < :beforeId AND (p.user.id = :userId OR p.user.id IN " +
+           "(SELECT f.followee.id FROM Follow f WHERE f.follower.id = :userId)) ORDER BY p.id DESC")
+    List<Long> findFollowingIdsBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.mimi.repository;
+
+import com.mimi.domain.ProductCertificate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductCertificateRepository extends JpaRepository<ProductCertificate, Long> {
+
+    @Query("SELECT c.imageUrl FROM ProductCertificate c WHERE c.product.id = :productId ORDER BY c.id")
+    List<String> findImageUrlsByProductId(@Param("productId") Long productId);
+}
@@ -1,13 +1,38 @@
 package com.mimi.repository;
 
 import com.mimi.domain.ProductImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     List<ProductImage> findByProductId(Long productId);
     List<ProductImage> findByProductIdAndImageUrl(Long productId, String imageUrl);
+    List<ProductImage> findByProductIdInOrderByIdAsc(Collection<Long> productIds);
+
+    /** [productId, imageUrl] của ảnh đầu tiên (id nhỏ nhất) của mỗi sản phẩm. */
+    @Query("SELECT i.product.id, i.imageUrl FROM ProductImage i WHERE i.id IN " +
+           "(SELECT MIN(f.id) FROM ProductImage f WHERE f.product.id IN :productIds GROUP BY f.product.id)")
+    List<Object[]> findFirstImageUrls(@Param("productIds") Collection<Long> productIds);
+
+    /** [imageId, productId, perceptualHash] của ảnh đã có hash, theo keyset trên id (nạp chỉ mục ảnh trùng). */
+    @Query("SELECT i.id, i.product.id, i.perceptualHash FROM ProductImage i " +
+           "WHERE i.perceptualHash IS NOT NULL AND i.id > :afterId ORDER BY i.id")
+    List<Object[]> findHashRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** [imageId, productId, imageUrl] của ảnh chưa có hash, theo keyset trên id (tính bù cho ảnh cũ). */
+    @Query("SELECT i.id, i.product.id, i.imageUrl FROM ProductImage i " +
+           "WHERE i.perceptualHash IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<Object[]> findUnhashedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** [imageId, imageUrl, productId, productName, sellerId] của các ảnh thuộc sản phẩm đang bán. */
+    @Query("SELECT i.id, i.imageUrl, p.id, p.name, p.seller.id FROM ProductImage i JOIN i.product p " +
+           "WHERE i.id IN :ids AND p.status = com.mimi.domain.enums.ProductStatus.ACTIVE")
+    List<Object[]> findActiveImageInfo(@Param("ids") Collection<Long> ids);
 }
@@ -1,12 +1,69 @@
 package com.mimi.repository;
 
 import com.mimi.domain.Product;
+import com.mimi.dto.response.CategoryCountResponse;
+import com.mimi.dto.response.ProductSummaryResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findBySellerId(Long sellerId);
+
+    /** Nạp nhiều sản phẩm trong một truy vấn, kèm seller và category (quan hệ đơn trị nên không bị nhân dòng). */
+    @Query("SELECT p FROM Product p " +
+           "LEFT JOIN FETCH p.seller " +
+           "LEFT JOIN FETCH p.category " +
+           "WHERE p.id IN :ids")
+    List<Product> findAllWithSellerAndCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Bản rút gọn của nhiều sản phẩm kèm tên người bán trong một truy vấn; thumbnailUrl để trống. */
+    @Query("SELECT new com.mimi.dto.response.ProductSummaryResponse(p.id, p.name, p.tradeType, p.buyPrice, " +
+           "p.rentPrice, p.rentUnit, p.status, s.id, s.fullName, NULL) " +
+           "FROM Product p LEFT JOIN p.seller s WHERE p.id IN :ids")
+    List<ProductSummaryResponse> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** [id, categoryId, featured, isNew, createdAt] của sản phẩm đang bán, theo keyset trên id (dựng chỉ mục gợi ý). */
+    @Query("SELECT p.id, p.category.id, p.featured, p.isNew, p.createdAt FROM Product p " +
+           "WHERE p.status = com.mimi.domain.enums.ProductStatus.ACTIVE AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActiveRankingRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** [id, categoryId, tradeType, buyPrice, rentPrice, conditionPercentage] của sản phẩm đang bán, theo keyset trên id. */
+    @Query("SELECT p.id, p.category.id, p.tradeType, p.buyPrice, p.rentPrice, p.conditionPercentage FROM Product p " +
+           "WHERE p.status = com.mimi.domain.enums.ProductStatus.ACTIVE AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActiveSimilarityRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Như findActiveSimilarityRowsAfter cho một sản phẩm; rỗng nếu không còn tồn tại hoặc không còn bán. */
+    @Query("SELECT p.id, p.category.id, p.tradeType, p.buyPrice, p.rentPrice, p.conditionPercentage FROM Product p " +
+           "WHERE p.status = com.mimi.domain.enums.ProductStatus.ACTIVE AND p.id = :id")
+    List<Object[]> findActiveSimilarityRow(@Param("id") Long id);
+
+    /**
+     * [id, sellerId, categoryId, name, tradeType, buyPrice, rentPrice, conditionPercentage] của một sản phẩm đang bán,
+     * dùng để so với tìm kiếm đã lưu; rỗng nếu không còn tồn tại hoặc không còn bán.
+     */
+    @Query("SELECT p.id, p.seller.id, p.category.id, p.name, p.tradeType, p.buyPrice, p.rentPrice, " +
+           "p.conditionPercentage FROM Product p " +
+           "WHERE p.status = com.mimi.domain.enums.ProductStatus.ACTIVE AND p.id = :id")
+    List<Object[]> findActiveAlertRow(@Param("id") Long id);
+
+    /** [id, name, categoryId, featured] của sản phẩm đang bán, theo keyset trên id (dựng chỉ mục gợi ý tìm kiếm). */
+    @Query("SELECT p.id, p.name, p.category.id, p.featured FROM Product p " +
+           "WHERE p.status = com.mimi.domain.enums.ProductStatus.ACTIVE AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActiveNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.mimi.dto.response.CategoryCountResponse(c.id, c.name, COUNT(p)) FROM Product p " +
+           "JOIN p.category c " +
+           "WHERE p.createdAt >= :startDate AND p.createdAt < :endDate " +
+           "GROUP BY c.id, c.name " +
+           "ORDER BY COUNT(p) DESC")
+    List<CategoryCountResponse> countNewListingsByCategory(@Param("startDate") LocalDateTime startDate,
+                                                           @Param("endDate") LocalDateTime endDate);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.mimi.repository;
+
+import com.mimi.domain.ProductVariant;
+import com.mimi.dto.response.VariantResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
+
+    /** Toàn bộ biến thể (size × màu) của một sản phẩm trong một truy vấn, cho trang chi tiết. */
+    @Query("SELECT new com.mimi.dto.response.VariantResponse(v.id, v.size, v.color, v.stockQuantity) " +
+           "FROM ProductVariant v WHERE v.product.id = :productId ORDER BY v.size, v.color, v.id")
+    List<VariantResponse> findResponsesByProductId(@Param("productId") Long productId);
+
+    /** [size, color] của các biến thể còn hàng của một sản phẩm. */
+    @Query("SELECT v.size, v.color FROM ProductVariant v WHERE v.product.id = :productId AND v.stockQuantity > 0")
+    List<Object[]> findInStockKeys(@Param("productId") Long productId);
+
+    /** [variantId, productId, size, color] của biến thể còn hàng, theo keyset trên id (nạp chỉ mục tồn kho). */
+    @Query("SELECT v.id, v.product.id, v.size, v.color FROM ProductVariant v " +
+           "WHERE v.stockQuantity > 0 AND v.id > :afterId ORDER BY v.id")
+    List<Object[]> findInStockRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Trừ tồn kho nếu còn đủ; trả về 0 khi không đủ hàng (không bao giờ âm). */
+    @Modifying
+    @Query("UPDATE ProductVariant v SET v.stockQuantity = v.stockQuantity - :quantity " +
+           "WHERE v.id = :id AND v.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductVariant v SET v.stockQuantity = v.stockQuantity + :quantity WHERE v.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,33 @@
+package com.mimi.repository;
+
+import com.mimi.domain.ProductViewDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductViewDailyRepository extends JpaRepository<ProductViewDaily, Long> {
+
+    /**
+     * [productId, tên sản phẩm, tên danh mục, tổng lượt xem] của sản phẩm thuộc seller trong khoảng ngày
+     * [startDate, endDate]; category null thì lấy mọi danh mục.
+     */
+    @Query("SELECT p.id, p.name, c.name, SUM(v.views) FROM ProductViewDaily v, Product p " +
+           "LEFT JOIN p.category c " +
+           "WHERE p.id = v.productId AND p.seller.id = :sellerId " +
+           "AND v.viewDate >= :startDate AND v.viewDate <= :endDate " +
+           "AND (:category IS NULL OR LOWER(c.name) = LOWER(:category)) " +
+           "GROUP BY p.id, p.name, c.name")
+    List<Object[]> sumViewsBySellerBetween(@Param("sellerId") Long sellerId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("category") String category);
+
+    /** [productId, tổng lượt xem] của mọi sản phẩm kể từ ngày since (dùng cho xếp hạng). */
+    @Query("SELECT v.productId, SUM(v.views) FROM ProductViewDaily v WHERE v.viewDate >= :since GROUP BY v.productId")
+    List<Object[]> sumViewsByProductSince(@Param("since") LocalDate since);
+}
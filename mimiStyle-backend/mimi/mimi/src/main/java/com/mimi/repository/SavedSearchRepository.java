@@ -0,0 +1,18 @@
+package com.mimi.repository;
+
+import com.mimi.domain.SavedSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    long countByUserId(Long userId);
+
+    /** Theo keyset trên id, để nạp chỉ mục ngược lúc khởi động. */
+    List<SavedSearch> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
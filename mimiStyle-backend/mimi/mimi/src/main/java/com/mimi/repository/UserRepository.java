@@ -1,20 +1,50 @@
 package com.mimi.repository;
 
 import com.mimi.domain.User;
+import com.mimi.dto.response.SellerProfileResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
+    /** Username/email đang trùng với một trong hai giá trị (một truy vấn cho cả hai kiểm tra). */
+    @Query("SELECT u.username, u.email FROM User u WHERE u.username = :username OR u.email = :email")
+    List<Object[]> findIdentifierConflicts(@Param("username") String username, @Param("email") String email);
+
+    /** [id, username, email] theo thứ tự id, dùng để nạp bloom filter theo lô. */
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findIdentifiersAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Hồ sơ người bán của một sản phẩm kèm số tin đang bán, trong một truy vấn (trang chi tiết sản phẩm). */
+    @Query("SELECT new com.mimi.dto.response.SellerProfileResponse(u.id, u.username, u.fullName, u.avatarUrl, " +
+           "u.createdAt, (SELECT COUNT(p2) FROM Product p2 WHERE p2.seller = u " +
+           "AND p2.status = com.mimi.domain.enums.ProductStatus.ACTIVE)) " +
+           "FROM Product p JOIN p.seller u WHERE p.id = :productId")
+    Optional<SellerProfileResponse> findSellerProfileByProductId(@Param("productId") Long productId);
+
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
-}
 
+    long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(LocalDateTime start, LocalDateTime end);
+
+    /** Chỉ ghi hash mới nếu mật khẩu chưa bị đổi trong lúc băm lại. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+}
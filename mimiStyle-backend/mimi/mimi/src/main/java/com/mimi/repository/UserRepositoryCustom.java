@@ -0,0 +1,15 @@
+package com.mimi.repository;
+
+import com.mimi.dto.request.UserSearchRequest;
+import com.mimi.dto.response.UserResponse;
+
+import java.util.List;
+
+/** Truy vấn user dạng projection (chỉ các cột của UserResponse, không nạp entity). */
+public interface UserRepositoryCustom {
+
+    /** Trang keyset theo bộ lọc; trả về tối đa limit dòng sau cursor trong filter. */
+    List<UserResponse> searchUserResponses(UserSearchRequest filter, int limit);
+
+    List<UserResponse> findAllUserResponses();
+}
@@ -0,0 +1,128 @@
+package com.mimi.repository;
+
+import com.mimi.domain.User;
+import com.mimi.domain.enums.Role;
+import com.mimi.dto.request.UserSearchRequest;
+import com.mimi.dto.response.UserResponse;
+import com.mimi.util.Cursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> searchUserResponses(UserSearchRequest filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        selectResponseColumns(cb, query, user);
+
+        boolean byUsername = "username".equalsIgnoreCase(filter.getSort());
+        boolean ascending = "asc".equalsIgnoreCase(filter.getDirection());
+        List<Predicate> where = new ArrayList<>();
+
+        if (filter.getQ() != null && !filter.getQ().isBlank()) {
+            String prefix = escapeLike(filter.getQ().trim()) + "%";
+            where.add(cb.or(cb.like(user.get("username"), prefix, '\\'), cb.like(user.get("email"), prefix, '\\')));
+        }
+        if (filter.getRole() != null) {
+            where.add(cb.equal(user.<Role>get("role"), filter.getRole()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(user.get("createdAt"), filter.getCreatedFrom().atStartOfDay()));
+        }
+        if (filter.getCreatedTo() != null) {
+            LocalDate end = filter.getCreatedTo().plusDays(1);
+            where.add(cb.lessThan(user.get("createdAt"), end.atStartOfDay()));
+        }
+
+        Path<Long> id = user.get("id");
+        if (byUsername) {
+            Path<String> username = user.get("username");
+            Cursor cursor = Cursor.decodeKey(filter.getCursor());
+            if (cursor != null) {
+                where.add(ascending
+                        ? cb.or(cb.greaterThan(username, cursor.getKey()),
+                                cb.and(cb.equal(username, cursor.getKey()), cb.greaterThan(id, cursor.getId())))
+                        : cb.or(cb.lessThan(username, cursor.getKey()),
+                                cb.and(cb.equal(username, cursor.getKey()), cb.lessThan(id, cursor.getId()))));
+            }
+            query.orderBy(ascending ? cb.asc(username) : cb.desc(username), ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            Path<LocalDateTime> createdAt = user.get("createdAt");
+            Cursor cursor = Cursor.decode(filter.getCursor());
+            if (cursor != null) {
+                where.add(ascending
+                        ? cb.or(cb.greaterThan(createdAt, cursor.getCreatedAt()),
+                                cb.and(cb.equal(createdAt, cursor.getCreatedAt()), cb.greaterThan(id, cursor.getId())))
+                        : cb.or(cb.lessThan(createdAt, cursor.getCreatedAt()),
+                                cb.and(cb.equal(createdAt, cursor.getCreatedAt()), cb.lessThan(id, cursor.getId()))));
+            }
+            query.orderBy(ascending ? cb.asc(createdAt) : cb.desc(createdAt), ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        query.where(where.toArray(new Predicate[0]));
+        return toResponses(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+    }
+
+    @Override
+    public List<UserResponse> findAllUserResponses() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        selectResponseColumns(cb, query, user);
+        query.orderBy(cb.asc(user.get("id")));
+        return toResponses(entityManager.createQuery(query).getResultList());
+    }
+
+    private static void selectResponseColumns(CriteriaBuilder cb, CriteriaQuery<Tuple> query, Root<User> user) {
+        query.select(cb.tuple(
+                user.get("id").alias("id"),
+                user.get("username").alias("username"),
+                user.get("email").alias("email"),
+                user.get("fullName").alias("fullName"),
+                user.get("birthday").alias("birthday"),
+                user.get("phoneNumber").alias("phoneNumber"),
+                user.get("address").alias("address"),
+                user.get("avatarUrl").alias("avatarUrl"),
+                user.get("role").alias("role"),
+                user.get("createdAt").alias("createdAt")));
+    }
+
+    private static List<UserResponse> toResponses(List<Tuple> rows) {
+        List<UserResponse> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            result.add(UserResponse.builder()
+                    .id(row.get("id", Long.class))
+                    .username(row.get("username", String.class))
+                    .email(row.get("email", String.class))
+                    .fullName(row.get("fullName", String.class))
+                    .birthday(row.get("birthday", LocalDate.class))
+                    .phoneNumber(row.get("phoneNumber", String.class))
+                    .address(row.get("address", String.class))
+                    .avatarUrl(row.get("avatarUrl", String.class))
+                    .role(row.get("role", Role.class))
+                    .createdAt(row.get("createdAt", LocalDateTime.class))
+                    .build());
+        }
+        return result;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,94 @@
+package com.mimi.security;
+
+import com.mimi.repository.UserRepository;
+import com.mimi.util.BloomFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bloom filter trên toàn bộ username và email (chữ thường, vì collation MySQL không phân biệt hoa thường).
+ * Trả lời "chắc chắn chưa có" mà không cần hỏi DB; "có thể đã có" thì nơi gọi phải xác nhận bằng truy vấn.
+ * Trước khi nạp xong (lúc khởi động) mọi câu hỏi đều trả về "có thể đã có".
+ */
+@Component
+public class AccountIdentifierFilter {
+
+    private static final int MIN_CAPACITY = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int LOAD_BATCH = 10_000;
+
+    private final UserRepository userRepository;
+    private final AtomicInteger insertions = new AtomicInteger();
+    private volatile BloomFilter filter;
+    /** Filter đang được nạp; các đăng ký mới trong lúc nạp được ghi vào cả hai */
+    private volatile BloomFilter building;
+
+    public AccountIdentifierFilter(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long users = userRepository.count();
+        BloomFilter fresh = new BloomFilter((int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CAPACITY, users * 4)),
+                FALSE_POSITIVE_RATE);
+        building = fresh;
+        int added = 0;
+        long lastId = 0;
+        while (true) {
+            // Duyệt theo khóa chính từng lô, chỉ lấy hai cột cần thiết
+            List<Object[]> rows = userRepository.findIdentifiersAfterId(lastId, PageRequest.of(0, LOAD_BATCH));
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                fresh.add(normalize((String) row[1]));
+                fresh.add(normalize((String) row[2]));
+                added += 2;
+            }
+            if (rows.size() < LOAD_BATCH) {
+                break;
+            }
+        }
+        insertions.set(added);
+        filter = fresh;
+        building = null;
+    }
+
+    /** Xây lại khi số phần tử vượt dung lượng thiết kế (tỉ lệ dương tính giả tăng dần). */
+    @Scheduled(fixedDelay = 3_600_000)
+    public void rebuildIfSaturated() {
+        BloomFilter current = filter;
+        if (current != null && insertions.get() > current.getExpectedInsertions()) {
+            rebuild();
+        }
+    }
+
+    public void add(String username, String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(normalize(username));
+            current.add(normalize(email));
+            insertions.addAndGet(2);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(normalize(username));
+            next.add(normalize(email));
+        }
+    }
+
+    public boolean mightExist(String identifier) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(normalize(identifier));
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mimi.security;
+
+import com.mimi.exception.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Giới hạn tần suất login/register theo IP và theo tài khoản, chặn trước khi tới BCrypt
+ * để một đợt credential stuffing không chiếm hết CPU của cả API.
+ */
+@Component
+public class AuthAdmissionControl {
+
+    private static final int MAX_TRACKED_KEYS = 100_000;
+    private static final long IDLE_MILLIS = 10 * 60_000L;
+
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter accountLimiter;
+
+    public AuthAdmissionControl(@Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+                                @Value("${auth.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                                @Value("${auth.rate-limit.account.capacity:5}") int accountCapacity,
+                                @Value("${auth.rate-limit.account.refill-per-minute:5}") int accountRefillPerMinute) {
+        this.ipLimiter = new TokenBucketLimiter(ipCapacity, ipRefillPerMinute, MAX_TRACKED_KEYS, IDLE_MILLIS);
+        this.accountLimiter = new TokenBucketLimiter(accountCapacity, accountRefillPerMinute, MAX_TRACKED_KEYS, IDLE_MILLIS);
+    }
+
+    public void checkLogin(HttpServletRequest request, String email) {
+        check(ipLimiter, "ip:" + clientIp(request));
+        if (email != null) {
+            check(accountLimiter, "login:" + email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void checkRegister(HttpServletRequest request) {
+        check(ipLimiter, "ip:" + clientIp(request));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        ipLimiter.evictIdle();
+        accountLimiter.evictIdle();
+    }
+
+    private void check(TokenBucketLimiter limiter, String key) {
+        long retryAfter = limiter.tryAcquire(key);
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many attempts, please try again later", retryAfter);
+        }
+    }
+
+    /**
+     * IP của client theo container. Không đọc X-Forwarded-For trực tiếp vì client tự đặt được header đó;
+     * sau nginx, Tomcat (server.forward-headers-strategy=native) thay remoteAddr bằng hop cuối cùng không thuộc
+     * server.tomcat.remoteip.internal-proxies, tức là địa chỉ do chính proxy của mình ghi vào.
+     */
+    public static String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
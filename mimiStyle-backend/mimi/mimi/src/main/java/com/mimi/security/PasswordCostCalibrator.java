@@ -0,0 +1,65 @@
+package com.mimi.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Đo thời gian băm BCrypt trên máy hiện tại và chọn cost (log rounds) lớn nhất mà một lần băm
+ * vẫn không vượt quá độ trễ mục tiêu.
+ * <p>
+ * Chạy tay khi đổi phần cứng:
+ * {@code java -cp mimi.jar -Dloader.main=com.mimi.security.PasswordCostCalibrator org.springframework.boot.loader.launch.PropertiesLauncher 250}
+ * rồi đặt kết quả vào {@code security.password.bcrypt-strength}. Đặt strength = 0 để tự đo lúc khởi động.
+ */
+public final class PasswordCostCalibrator {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private PasswordCostCalibrator() {
+    }
+
+    /** Cost lớn nhất có thời gian băm (trung vị) không quá targetMillis; không thấp hơn MIN_STRENGTH. */
+    public static int recommendStrength(long targetMillis) {
+        int best = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            long millis = measureMillis(strength);
+            if (millis > targetMillis) {
+                break;
+            }
+            best = strength;
+            // Mỗi bậc cost gấp đôi thời gian, không cần đo tiếp nếu bậc sau chắc chắn vượt mục tiêu
+            if (millis * 2 > targetMillis) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /** Thời gian trung vị (ms) của một lần băm với cost cho trước. */
+    public static long measureMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        java.util.Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    public static void main(String[] args) {
+        long target = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            long millis = measureMillis(strength);
+            System.out.printf("bcrypt cost %2d: %5d ms%n", strength, millis);
+            if (millis > target * 4) {
+                break;
+            }
+        }
+        System.out.println("Recommended security.password.bcrypt-strength=" + recommendStrength(target)
+                + " (target " + target + " ms)");
+    }
+}
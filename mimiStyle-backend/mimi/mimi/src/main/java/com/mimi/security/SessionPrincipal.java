@@ -0,0 +1,13 @@
+package com.mimi.security;
+
+import com.mimi.domain.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Người dùng đã xác thực bằng session token; lấy trong controller qua @AuthenticationPrincipal. */
+@Data
+@AllArgsConstructor
+public class SessionPrincipal {
+    private Long userId;
+    private Role role;
+}
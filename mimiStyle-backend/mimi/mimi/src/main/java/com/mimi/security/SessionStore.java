@@ -0,0 +1,220 @@
+package com.mimi.security;
+
+import com.mimi.domain.UserSession;
+import com.mimi.domain.enums.Role;
+import com.mimi.repository.UserSessionRepository;
+import com.mimi.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kho session trong bộ nhớ, chia shard theo hash của token. Token là chuỗi ngẫu nhiên opaque,
+ * chỉ hash SHA-256 của token được dùng làm key (trong bộ nhớ lẫn DB).
+ * Hết hạn kiểu trượt: khi còn dưới một nửa TTL thì được gia hạn thêm một TTL.
+ * Khi bật auth.session.persistent, session được ghi vào bảng user_sessions và nạp lại khi miss
+ * nên vẫn dùng được sau khi khởi động lại. Token không đúng định dạng bị loại ngay; token không có trong DB được
+ * nhớ ngắn hạn để cùng một token rác gửi lặp lại không truy vấn DB mỗi request.
+ */
+@Component
+public class SessionStore {
+
+    private static final int SHARD_COUNT = 16;
+    private static final int TOKEN_LENGTH = 43;
+    private static final long UNKNOWN_TOKEN_TTL_MS = 30_000;
+    private static final int MAX_UNKNOWN_TOKENS = 50_000;
+
+    private final UserSessionRepository userSessionRepository;
+    private final long ttlMillis;
+    private final boolean persistent;
+    private final SecureRandom random = new SecureRandom();
+    private final List<ConcurrentHashMap<String, Session>> shards = new ArrayList<>(SHARD_COUNT);
+    /** Hash của token đã tra DB mà không thấy. */
+    private final TtlCache<String, Boolean> unknownTokens = new TtlCache<>(UNKNOWN_TOKEN_TTL_MS, MAX_UNKNOWN_TOKENS);
+
+    public SessionStore(UserSessionRepository userSessionRepository,
+                        @Value("${auth.session.ttl-minutes:10080}") long ttlMinutes,
+                        @Value("${auth.session.persistent:true}") boolean persistent) {
+        this.userSessionRepository = userSessionRepository;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.persistent = persistent;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /** Session đã cấp, trả về cho client cùng thời điểm hết hạn. */
+    public static final class IssuedToken {
+        private final String token;
+        private final LocalDateTime expiresAt;
+
+        private IssuedToken(String token, LocalDateTime expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private static final class Session {
+        private final Long userId;
+        private final Role role;
+        private volatile long expiresAt;
+
+        private Session(Long userId, Role role, long expiresAt) {
+            this.userId = userId;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public IssuedToken create(Long userId, Role role) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = hash(token);
+        long now = System.currentTimeMillis();
+        Session session = new Session(userId, role, now + ttlMillis);
+        shard(hash).put(hash, session);
+
+        if (persistent) {
+            UserSession entity = new UserSession();
+            entity.setTokenHash(hash);
+            entity.setUserId(userId);
+            entity.setRole(role);
+            entity.setCreatedAt(toDateTime(now));
+            entity.setExpiresAt(toDateTime(session.expiresAt));
+            userSessionRepository.save(entity);
+        }
+        return new IssuedToken(token, toDateTime(session.expiresAt));
+    }
+
+    /** Trả về principal nếu token hợp lệ và còn hạn, đồng thời gia hạn trượt; ngược lại null. */
+    public SessionPrincipal validate(String token) {
+        if (!isWellFormed(token)) {
+            return null;
+        }
+        String hash = hash(token);
+        ConcurrentHashMap<String, Session> shard = shard(hash);
+        Session session = shard.get(hash);
+        if (session == null && persistent && unknownTokens.getIfPresent(hash) == null) {
+            session = loadPersisted(hash);
+            if (session == null) {
+                unknownTokens.put(hash, Boolean.TRUE);
+            }
+        }
+        if (session == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (session.expiresAt <= now) {
+            shard.remove(hash, session);
+            if (persistent) {
+                userSessionRepository.deleteByTokenHash(hash);
+            }
+            return null;
+        }
+        if (session.expiresAt - now < ttlMillis / 2) {
+            session.expiresAt = now + ttlMillis;
+            if (persistent) {
+                userSessionRepository.updateExpiresAt(hash, toDateTime(session.expiresAt));
+            }
+        }
+        return new SessionPrincipal(session.userId, session.role);
+    }
+
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        String hash = hash(token);
+        shard(hash).remove(hash);
+        if (persistent) {
+            userSessionRepository.deleteByTokenHash(hash);
+        }
+    }
+
+    /** Thu hồi mọi session của user (đổi mật khẩu, khóa tài khoản...). */
+    public void revokeAll(Long userId) {
+        for (ConcurrentHashMap<String, Session> shard : shards) {
+            shard.values().removeIf(s -> s.userId.equals(userId));
+        }
+        if (persistent) {
+            userSessionRepository.deleteByUserId(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.session.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (ConcurrentHashMap<String, Session> shard : shards) {
+            shard.values().removeIf(s -> s.expiresAt <= now);
+        }
+        if (persistent) {
+            userSessionRepository.deleteExpired(toDateTime(now));
+        }
+    }
+
+    private Session loadPersisted(String hash) {
+        UserSession entity = userSessionRepository.findByTokenHash(hash).orElse(null);
+        if (entity == null) {
+            return null;
+        }
+        long expiresAt = entity.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Session session = new Session(entity.getUserId(), entity.getRole(), expiresAt);
+        Session existing = shard(hash).putIfAbsent(hash, session);
+        return existing != null ? existing : session;
+    }
+
+    private ConcurrentHashMap<String, Session> shard(String hash) {
+        return shards.get((hash.hashCode() & 0x7fffffff) % SHARD_COUNT);
+    }
+
+    /** Token do create() cấp: 32 byte ngẫu nhiên dạng base64url không padding. */
+    private static boolean isWellFormed(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mimi.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket theo key (IP, email...), không dùng lock: trạng thái mỗi bucket gói trong một AtomicLong
+ * (thời điểm refill gần nhất | số milli-token) và cập nhật bằng CAS.
+ * Map chia stripe, mỗi stripe có giới hạn số key; stripe đầy thì dọn key nhàn rỗi, vẫn đầy thì các key mới
+ * dùng chung một bucket "tràn" của stripe đó, nên bộ nhớ có chặn trên kể cả khi bị dội từ rất nhiều IP.
+ */
+public class TokenBucketLimiter {
+
+    private static final int STRIPES = 16;
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    private final long capacityMilli;
+    private final double refillMilliPerMs;
+    private final int maxKeysPerStripe;
+    private final long idleMillis;
+    private final long epoch = System.currentTimeMillis();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param capacity        số request tối đa dồn một lúc (tối đa 1000)
+     * @param refillPerMinute số token được nạp lại mỗi phút
+     * @param maxKeys         tổng số key được theo dõi riêng
+     * @param idleMillis      key không dùng quá thời gian này thì bị dọn
+     */
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int maxKeys, long idleMillis) {
+        if (capacity <= 0 || capacity * MILLI > TOKEN_MASK) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + (TOKEN_MASK / MILLI));
+        }
+        this.capacityMilli = capacity * MILLI;
+        this.refillMilliPerMs = refillPerMinute * MILLI / 60_000.0;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.idleMillis = idleMillis;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(new AtomicLong(pack(now(), capacityMilli)));
+        }
+    }
+
+    /**
+     * Lấy một token cho key. Trả về 0 nếu được phép, ngược lại số giây nên chờ trước khi thử lại.
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            if (stripe.buckets.size() >= maxKeysPerStripe) {
+                evictIdle(stripe.buckets, now());
+            }
+            bucket = stripe.buckets.size() < maxKeysPerStripe
+                    ? stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now(), capacityMilli)))
+                    : stripe.overflow;
+        }
+        return consume(bucket);
+    }
+
+    /** Dọn các bucket nhàn rỗi; gọi định kỳ. */
+    public void evictIdle() {
+        long now = now();
+        for (Stripe stripe : stripes) {
+            evictIdle(stripe.buckets, now);
+        }
+    }
+
+    public int trackedKeys() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.buckets.size();
+        }
+        return total;
+    }
+
+    /**
+     * Thời điểm lưu trong bucket chỉ tiến thêm đúng phần thời gian đã đổi thành milli-token; phần lẻ còn lại
+     * được cộng dồn ở lần sau, nên refill chậm (dưới 1 milli-token/ms) không bị mất khi client gọi dồn dập.
+     * Request bị từ chối không ghi lại gì.
+     */
+    private long consume(AtomicLong bucket) {
+        while (true) {
+            long state = bucket.get();
+            long now = now();
+            long last = state >>> TOKEN_BITS;
+            long elapsed = Math.max(0, now - last);
+            long refill = (long) (elapsed * refillMilliPerMs);
+            long tokens = (state & TOKEN_MASK) + refill;
+            long refilledAt;
+            if (tokens >= capacityMilli) {
+                tokens = capacityMilli;
+                refilledAt = now;
+            } else {
+                refilledAt = last + Math.min(elapsed, (long) (refill / refillMilliPerMs));
+            }
+            if (tokens < MILLI) {
+                double waitMs = (MILLI - tokens) / Math.max(refillMilliPerMs, 1e-9) - (now - refilledAt);
+                return Math.max(1, (long) Math.ceil(waitMs / 1000.0));
+            }
+            if (bucket.compareAndSet(state, pack(refilledAt, tokens - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    private void evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(b -> now - (b.get() >>> TOKEN_BITS) > idleMillis);
+    }
+
+    private long now() {
+        return System.currentTimeMillis() - epoch;
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+
+    private static final class Stripe {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        /** Bucket dùng chung cho key mới khi stripe đã đủ số key theo dõi riêng. */
+        final AtomicLong overflow;
+
+        Stripe(AtomicLong overflow) {
+            this.overflow = overflow;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.AdminDashboardResponse;
+
+import java.time.LocalDate;
+
+public interface AdminAnalyticsService {
+    AdminDashboardResponse getDashboard(LocalDate startDate, LocalDate endDate);
+}
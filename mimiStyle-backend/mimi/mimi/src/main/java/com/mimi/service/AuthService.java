@@ -2,6 +2,7 @@ package com.mimi.service;
 
 import com.mimi.dto.request.LoginRequest;
 import com.mimi.dto.request.RegisterRequest;
+import com.mimi.dto.response.AvailabilityResponse;
 import com.mimi.dto.response.UserResponse;
 
 public interface AuthService {
@@ -9,5 +10,11 @@ public interface AuthService {
     UserResponse register(RegisterRequest request);
 
     UserResponse login(LoginRequest request);
+
+    void logout(String token);
+
+    UserResponse getCurrentUser(Long userId);
+
+    AvailabilityResponse checkAvailability(String username, String email);
 }
 
@@ -0,0 +1,9 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.BestSellerResponse;
+
+import java.util.List;
+
+public interface BestSellerService {
+    List<BestSellerResponse> getBestSellers(int days, Long categoryId, int limit);
+}
@@ -0,0 +1,12 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.CatalogChangesResponse;
+
+public interface CatalogChangeService {
+
+    /** Ghi một thay đổi vào nhật ký; gọi trong transaction của thao tác thay đổi sản phẩm. */
+    void record(Long productId, boolean deleted);
+
+    /** Các thay đổi sau since (0 = toàn bộ catalog), đã nén theo sản phẩm, tối đa limit sản phẩm mỗi trang. */
+    CatalogChangesResponse getChanges(long since, int limit);
+}
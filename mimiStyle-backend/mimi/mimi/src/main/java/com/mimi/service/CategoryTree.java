@@ -0,0 +1,132 @@
+package com.mimi.service;
+
+import com.mimi.domain.Category;
+import com.mimi.dto.response.CategoryPathItemResponse;
+import com.mimi.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cây danh mục giữ trong bộ nhớ (cha, con, tên), dùng chung cho so khớp tìm kiếm đã lưu, lọc biến thể theo danh mục
+ * và đường dẫn danh mục của trang chi tiết. Bảng danh mục nhỏ và ít đổi nên nạp nguyên bảng: khi bản đang giữ quá
+ * MAX_AGE_MS, hoặc khi gặp id chưa biết. Id không có trong DB (client gửi sai, danh mục đã xóa) lần nào cũng trượt,
+ * nên lần nạp vì id chưa biết cách lần nạp trước ít nhất UNKNOWN_RELOAD_INTERVAL_MS.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTree {
+
+    private static final long MAX_AGE_MS = 5 * 60_000L;
+    private static final long UNKNOWN_RELOAD_INTERVAL_MS = 10_000;
+    private static final int MAX_DEPTH = 8;
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Snapshot snapshot;
+
+    /** Nạp lại ngay (lúc khởi động các index phụ thuộc danh mục). */
+    public void reload() {
+        load();
+    }
+
+    /** true nếu danh mục có trong DB; id chưa biết thì nạp lại (có giới hạn tần suất) trước khi trả lời. */
+    public boolean contains(long categoryId) {
+        return snapshotFor(categoryId).parents.containsKey(categoryId);
+    }
+
+    /** Danh mục cùng các danh mục cha, từ chính nó lên gốc. Id không biết thì coi là gốc. */
+    public long[] selfAndAncestors(long categoryId) {
+        Snapshot current = snapshotFor(categoryId);
+        long[] path = new long[MAX_DEPTH];
+        int n = 0;
+        for (Long id = categoryId; id != null && n < MAX_DEPTH; id = current.parents.get(id)) {
+            path[n++] = id;
+        }
+        return n == path.length ? path : Arrays.copyOf(path, n);
+    }
+
+    /** Danh mục cùng mọi danh mục con cháu. Id không biết thì coi là không có con. */
+    public List<Long> selfAndDescendants(long categoryId) {
+        Snapshot current = snapshotFor(categoryId);
+        Set<Long> result = new LinkedHashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(categoryId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            if (result.add(id)) {
+                queue.addAll(current.children.getOrDefault(id, List.of()));
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /** Đường dẫn từ gốc xuống danh mục, kèm tên; rỗng nếu id không biết. */
+    public List<CategoryPathItemResponse> pathFromRoot(long categoryId) {
+        Snapshot current = snapshotFor(categoryId);
+        List<CategoryPathItemResponse> path = new ArrayList<>();
+        for (Long id = categoryId; id != null && current.names.containsKey(id) && path.size() < MAX_DEPTH;
+             id = current.parents.get(id)) {
+            path.add(new CategoryPathItemResponse(id, current.names.get(id)));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private Snapshot snapshotFor(long categoryId) {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.loadedAt >= MAX_AGE_MS
+                || (!current.parents.containsKey(categoryId) && now - current.loadedAt >= UNKNOWN_RELOAD_INTERVAL_MS)) {
+            return reloadIfStale(current);
+        }
+        return current;
+    }
+
+    /** Nhiều luồng cùng thấy bản cũ thì chỉ luồng đầu tiên nạp, các luồng sau dùng luôn bản vừa nạp. */
+    private synchronized Snapshot reloadIfStale(Snapshot seen) {
+        Snapshot current = snapshot;
+        return current != seen ? current : load();
+    }
+
+    private synchronized Snapshot load() {
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            parents.put(category.getId(), category.getParentId());
+            names.put(category.getId(), category.getName());
+            if (category.getParentId() != null) {
+                children.computeIfAbsent(category.getParentId(), id -> new ArrayList<>()).add(category.getId());
+            }
+        }
+        Snapshot loaded = new Snapshot(parents, names, children, System.currentTimeMillis());
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private static final class Snapshot {
+        /** categoryId → parentId (null nếu là gốc) */
+        final Map<Long, Long> parents;
+        final Map<Long, String> names;
+        final Map<Long, List<Long>> children;
+        final long loadedAt;
+
+        Snapshot(Map<Long, Long> parents, Map<Long, String> names, Map<Long, List<Long>> children, long loadedAt) {
+            this.parents = parents;
+            this.names = names;
+            this.children = children;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -10,11 +10,13 @@ import com.mimi.domain.enums.RentUnit;
 import com.mimi.domain.enums.Role;
 import com.mimi.domain.enums.TradeType;
 import com.mimi.repository.CategoryRepository;
+import com.mimi.repository.OrderItemRepository;
 import com.mimi.repository.ProductRepository;
 import com.mimi.repository.UserRepository;
 import com.mimi.repository.VoucherRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -22,6 +24,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DataInitializationService {
@@ -30,6 +33,7 @@ public class DataInitializationService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final VoucherRepository voucherRepository;
+    private final OrderItemRepository orderItemRepository;
 
     @PostConstruct
     public void initializeData() {
@@ -39,6 +43,7 @@ public class DataInitializationService {
             defaultUser.setUsername("admin");
             defaultUser.setFullName("Admin User");
             defaultUser.setEmail("admin@mimi.com");
+            // Hash BCrypt cũ (không có tiền tố {bcrypt}); được băm lại theo cấu hình hiện tại ở lần đăng nhập đầu
             defaultUser.setPassword("$2a$10$WtfQ7DJDfsVo7Xeg3cdIr.3pm4XXfdZXut5bQ91KKY/UOzWvZA8sW");
             defaultUser.setRole(Role.ADMIN);
             userRepository.save(defaultUser);
@@ -220,5 +225,12 @@ public class DataInitializationService {
             v3.setExpirationDate(LocalDateTime.now().plusMonths(6));
             voucherRepository.save(v3);
         }
+
+        // Order items cũ chưa có seller_id (cột denormalized cho hộp đơn của seller); đơn mới luôn có seller_id
+        // nên sau lần điền đầu tiên chỉ còn một truy vấn kiểm tra rẻ, không UPDATE cả bảng mỗi lần khởi động
+        if (orderItemRepository.existsBySellerIdIsNullAndProductSellerIsNotNull()) {
+            int backfilled = orderItemRepository.backfillSellerIds();
+            log.info("Backfilled seller_id for {} order items", backfilled);
+        }
     }
 }
\ No newline at end of file
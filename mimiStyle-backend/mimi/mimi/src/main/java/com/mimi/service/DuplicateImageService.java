@@ -0,0 +1,22 @@
+package com.mimi.service;
+
+import com.mimi.domain.ProductImage;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.DuplicateImagePairResponse;
+import com.mimi.dto.response.DuplicateImageResponse;
+
+import java.util.List;
+
+public interface DuplicateImageService {
+    /** Hash của file đã tải lên thư mục upload (có cache theo tên file); null nếu không phải ảnh. */
+    Long hashUploadedFile(String filename);
+
+    /** Đưa các ảnh vừa lưu (đã gán perceptualHash) vào chỉ mục. */
+    void indexImages(List<ProductImage> images);
+
+    void removeImages(List<ProductImage> images);
+
+    List<DuplicateImageResponse> checkDuplicates(List<String> filenames, Long excludeProductId, Integer maxDistance);
+
+    CursorPageResponse<DuplicateImagePairResponse> getDuplicateReport(String cursor, Integer limit, Integer maxDistance);
+}
@@ -0,0 +1,14 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.PostResponse;
+
+public interface FeedService {
+    CursorPageResponse<PostResponse> getGlobalFeed(Long viewerId, String cursor, Integer limit, int commentPreview);
+
+    CursorPageResponse<PostResponse> getFollowingFeed(Long userId, String cursor, Integer limit, int commentPreview);
+
+    void follow(Long followerId, Long followeeId);
+
+    void unfollow(Long followerId, Long followeeId);
+}
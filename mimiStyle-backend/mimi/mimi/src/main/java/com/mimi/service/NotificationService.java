@@ -0,0 +1,16 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.NotificationResponse;
+
+public interface NotificationService {
+    CursorPageResponse<NotificationResponse> getNotifications(Long userId, String cursor, Integer limit);
+
+    long countUnread(Long userId);
+
+    /** notificationId null: đánh dấu tất cả. Trả về số thông báo vừa được đánh dấu. */
+    int markRead(Long userId, Long notificationId);
+
+    /** Xếp hàng thông báo "tin đăng khớp tìm kiếm đã lưu"; được ghi xuống DB theo lô. */
+    void enqueueListingMatch(Long userId, Long productId, String productName, Long savedSearchId);
+}
@@ -1,10 +1,13 @@
 package com.mimi.service;
 
 import com.mimi.domain.Order;
+import com.mimi.domain.enums.OrderStatus;
 import com.mimi.dto.request.CreateOrderRequest;
 import com.mimi.dto.request.UpdateOrderStatusRequest;
 import com.mimi.dto.response.OrderResponse;
+import com.mimi.dto.response.SellerOrderInboxResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface OrderService {
@@ -12,4 +15,6 @@ public interface OrderService {
     Order updateOrderStatus(Long orderId, UpdateOrderStatusRequest request);
     List<Order> getOrdersByBuyer(Long buyerId);
     List<OrderResponse> getOrderResponsesByBuyer(Long buyerId);
+    SellerOrderInboxResponse getSellerInbox(Long sellerId, OrderStatus status, LocalDate startDate, LocalDate endDate,
+                                            String cursor, int size);
 }
@@ -0,0 +1,30 @@
+package com.mimi.service;
+
+import com.mimi.dto.request.CreateCommentRequest;
+import com.mimi.dto.response.CommentResponse;
+import com.mimi.dto.response.LikeResponse;
+
+public interface PostEngagementService {
+    LikeResponse like(Long postId, Long userId);
+
+    LikeResponse unlike(Long postId, Long userId);
+
+    CommentResponse addComment(Long postId, Long userId, CreateCommentRequest request);
+
+    void deleteComment(Long postId, Long commentId, Long userId);
+
+    /** Phần thay đổi số like chưa ghi xuống bảng posts. */
+    long pendingLikeDelta(Long postId);
+
+    /** Phần thay đổi số bình luận chưa ghi xuống bảng posts. */
+    long pendingCommentDelta(Long postId);
+
+    /**
+     * Tăng lên mỗi khi job flush bắt đầu và kết thúc (số lẻ = đang flush). Nơi đọc cột đếm trong posts rồi cộng
+     * phần đang chờ dùng giá trị này để phát hiện flush chạy xen giữa hai lần đọc.
+     */
+    long counterVersion();
+
+    /** Trạng thái like chưa ghi xuống DB của user với bài; null nếu không có thay đổi đang chờ. */
+    Boolean pendingLikeState(Long postId, Long userId);
+}
@@ -0,0 +1,23 @@
+package com.mimi.service;
+
+import com.mimi.dto.request.CreatePostRequest;
+import com.mimi.dto.response.CommentResponse;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.PostResponse;
+
+import java.util.List;
+
+public interface PostService {
+    PostResponse createPost(Long authorId, CreatePostRequest request);
+
+    PostResponse getPost(Long postId, Long viewerId);
+
+    /** Hydrate theo đúng thứ tự ids bằng vài truy vấn theo lô; id không còn tồn tại bị bỏ qua. */
+    List<PostResponse> getPostResponsesByIds(List<Long> ids, Long viewerId);
+
+    /** Bình luận của bài, cũ nhất trước, phân trang bằng cursor (createdAt, id). */
+    CursorPageResponse<CommentResponse> getComments(Long postId, String cursor, Integer limit);
+
+    /** Gắn perPost bình luận mới nhất vào từng bài, bằng một truy vấn cho cả trang. */
+    void attachCommentPreviews(List<PostResponse> posts, int perPost);
+}
@@ -0,0 +1,13 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.ProductBatchResponse;
+
+import java.util.List;
+
+public interface ProductBatchService {
+
+    int MAX_IDS = 200;
+
+    /** Ném IllegalArgumentException nếu danh sách rỗng hoặc quá MAX_IDS id. */
+    ProductBatchResponse getProducts(List<Long> ids);
+}
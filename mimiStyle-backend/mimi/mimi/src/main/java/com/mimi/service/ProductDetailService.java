@@ -0,0 +1,26 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.ProductResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+public interface ProductDetailService {
+
+    /** Tài liệu JSON đã dựng sẵn của trang chi tiết cùng ETag của nó. */
+    @Getter
+    @AllArgsConstructor
+    final class Document {
+        private final byte[] json;
+        private final String etag;
+        /** Phần sản phẩm của tài liệu (không serialize lại), cho các nơi đọc lại từ cache. */
+        private final ProductResponse product;
+    }
+
+    /** Ném IllegalArgumentException nếu sản phẩm không tồn tại. */
+    Document getDetail(Long productId);
+
+    /** Sản phẩm trong tài liệu đang được cache, null nếu chưa có; không truy vấn DB. */
+    ProductResponse getCachedProduct(Long productId);
+
+    void evict(Long productId);
+}
@@ -1,6 +1,8 @@
 package com.mimi.service;
 
 import com.mimi.domain.Product;
+import com.mimi.dto.response.ProductResponse;
+
 import java.util.List;
 
 public interface ProductService {
@@ -10,4 +12,7 @@ public interface ProductService {
     Product updateProduct(Long id, Product product);
     void deleteProduct(Long id);
     Product getProductById(Long id);
+    List<ProductResponse> getProductResponsesByIds(List<Long> ids);
+    /** Map sang ProductResponse, nạp ảnh của cả danh sách bằng một truy vấn. */
+    List<ProductResponse> toProductResponses(List<Product> products);
 }
\ No newline at end of file
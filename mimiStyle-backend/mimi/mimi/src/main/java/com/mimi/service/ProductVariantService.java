@@ -0,0 +1,22 @@
+package com.mimi.service;
+
+import com.mimi.dto.request.VariantRequest;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.dto.response.VariantMatrixResponse;
+import com.mimi.dto.response.VariantResponse;
+
+public interface ProductVariantService {
+    /** null nếu sản phẩm không có biến thể. */
+    VariantMatrixResponse getVariantMatrix(Long productId);
+
+    VariantResponse addVariant(Long productId, VariantRequest request);
+
+    VariantResponse updateVariant(Long productId, Long variantId, VariantRequest request);
+
+    void deleteVariant(Long productId, Long variantId);
+
+    /** Sản phẩm đang bán còn hàng ở size và/hoặc màu đã cho, lọc thêm theo danh mục (gồm danh mục con). */
+    CursorPageResponse<ProductResponse> findAvailable(String size, String color, Long categoryId,
+                                                      String cursor, Integer limit);
+}
@@ -0,0 +1,5 @@
+package com.mimi.service;
+
+public interface ProductViewService {
+    void recordView(Long productId);
+}
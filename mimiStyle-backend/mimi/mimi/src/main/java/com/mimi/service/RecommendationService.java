@@ -0,0 +1,7 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.BabyRecommendationResponse;
+
+public interface RecommendationService {
+    BabyRecommendationResponse getBabyRecommendations(Long userId, int limit);
+}
@@ -1,12 +1,20 @@
 package com.mimi.service;
 
+import com.mimi.domain.enums.TimeGranularity;
+import com.mimi.dto.response.ProductPerformanceResponse;
 import com.mimi.dto.response.RevenueResponse;
+import com.mimi.dto.response.RevenueTimeSeriesResponse;
 import com.mimi.dto.response.SoldProductResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface RevenueService {
     RevenueResponse getRevenueSummary(Long userId, LocalDate startDate, LocalDate endDate, String category);
+    List<ProductPerformanceResponse> getProductPerformance(Long userId, LocalDate startDate, LocalDate endDate, String category);
     List<SoldProductResponse> getSoldProducts(Long userId, LocalDate startDate, LocalDate endDate, String category);
+    RevenueTimeSeriesResponse getRevenueTimeSeries(Long userId, TimeGranularity granularity, LocalDate startDate, LocalDate endDate);
+    void exportSoldProductsCsv(Long userId, LocalDate startDate, LocalDate endDate, String category, OutputStream out) throws IOException;
 }
\ No newline at end of file
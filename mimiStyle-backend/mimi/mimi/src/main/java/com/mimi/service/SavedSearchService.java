@@ -0,0 +1,14 @@
+package com.mimi.service;
+
+import com.mimi.dto.request.CreateSavedSearchRequest;
+import com.mimi.dto.response.SavedSearchResponse;
+
+import java.util.List;
+
+public interface SavedSearchService {
+    SavedSearchResponse createSavedSearch(Long userId, CreateSavedSearchRequest request);
+
+    List<SavedSearchResponse> getSavedSearches(Long userId);
+
+    void deleteSavedSearch(Long userId, Long savedSearchId);
+}
@@ -0,0 +1,9 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.SuggestionResponse;
+
+import java.util.List;
+
+public interface SearchSuggestService {
+    List<SuggestionResponse> suggest(String query, int limit);
+}
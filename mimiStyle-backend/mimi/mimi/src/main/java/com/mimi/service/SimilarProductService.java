@@ -0,0 +1,9 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.ProductResponse;
+
+import java.util.List;
+
+public interface SimilarProductService {
+    List<ProductResponse> getSimilarProducts(Long productId, int limit);
+}
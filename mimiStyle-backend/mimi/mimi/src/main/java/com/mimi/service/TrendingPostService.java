@@ -0,0 +1,8 @@
+package com.mimi.service;
+
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.PostResponse;
+
+public interface TrendingPostService {
+    CursorPageResponse<PostResponse> getTrending(Long viewerId, String cursor, Integer limit, int commentPreview);
+}
@@ -0,0 +1,13 @@
+package com.mimi.service;
+
+import com.mimi.dto.request.UserSearchRequest;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.UserResponse;
+
+import java.util.List;
+
+public interface UserService {
+    CursorPageResponse<UserResponse> searchUsers(UserSearchRequest filter);
+
+    List<UserResponse> listAllUsers();
+}
@@ -0,0 +1,152 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.enums.OrderStatus;
+import com.mimi.dto.response.AdminDashboardResponse;
+import com.mimi.dto.response.CategoryCountResponse;
+import com.mimi.dto.response.StatusCountResponse;
+import com.mimi.dto.response.TopProductResponse;
+import com.mimi.dto.response.TopSellerResponse;
+import com.mimi.repository.OrderItemRepository;
+import com.mimi.repository.OrderRepository;
+import com.mimi.repository.ProductRepository;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.AdminAnalyticsService;
+import com.mimi.util.TtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard tổng hợp cho admin. Các mục thống kê độc lập nhau nên chạy song song trên analyticsExecutor,
+ * mỗi mục có timeout riêng: mục nào chậm/lỗi thì trả null và ghi tên vào unavailableSections. Timeout cũng được
+ * đặt làm query timeout của JDBC (qua timeout của transaction chỉ đọc) để truy vấn chậm bị DB hủy thật chứ
+ * không chỉ bị bỏ chờ. Chỉ dashboard đủ mọi mục mới được cache ngắn hạn theo khoảng ngày (nhiều admin cùng
+ * refresh không nhân tải lên DB); bản thiếu mục không cache để lần refresh sau thử lại.
+ */
+@Slf4j
+@Service
+public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
+
+    private static final int TOP_LIMIT = 10;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final ThreadPoolTaskExecutor analyticsExecutor;
+    private final long sectionTimeoutMs;
+    private final TransactionTemplate sectionTransaction;
+    private final TtlCache<String, AdminDashboardResponse> cache;
+
+    public AdminAnalyticsServiceImpl(OrderRepository orderRepository,
+                                     OrderItemRepository orderItemRepository,
+                                     UserRepository userRepository,
+                                     ProductRepository productRepository,
+                                     @Qualifier("analyticsExecutor") ThreadPoolTaskExecutor analyticsExecutor,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${admin.dashboard.section-timeout-ms:3000}") long sectionTimeoutMs,
+                                     @Value("${admin.dashboard.cache-ttl-seconds:30}") long cacheTtlSeconds) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.analyticsExecutor = analyticsExecutor;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        this.sectionTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs + 999)));
+        this.cache = new TtlCache<>(TimeUnit.SECONDS.toMillis(cacheTtlSeconds), 64);
+    }
+
+    @Override
+    public AdminDashboardResponse getDashboard(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        String key = start + "_" + end;
+        AdminDashboardResponse dashboard = cache.get(key, k -> buildDashboard(start, end));
+        if (!dashboard.getUnavailableSections().isEmpty()) {
+            cache.invalidate(key);
+        }
+        return dashboard;
+    }
+
+    private AdminDashboardResponse buildDashboard(LocalDate start, LocalDate end) {
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = end.plusDays(1).atStartOfDay();
+        PageRequest top = PageRequest.of(0, TOP_LIMIT);
+
+        CompletableFuture<BigDecimal> gmv = section(() -> orderRepository.sumGmv(from, to));
+        CompletableFuture<List<StatusCountResponse>> byStatus = section(() -> orderRepository.countByStatus(from, to));
+        CompletableFuture<Long> newUsers = section(
+            () -> userRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(from, to));
+        CompletableFuture<List<CategoryCountResponse>> listings = section(
+            () -> productRepository.countNewListingsByCategory(from, to));
+        CompletableFuture<List<TopSellerResponse>> topSellers = section(
+            () -> orderItemRepository.findTopSellers(from, to, top));
+        CompletableFuture<List<TopProductResponse>> topProducts = section(
+            () -> orderItemRepository.findTopProducts(from, to, top));
+
+        List<String> unavailable = new ArrayList<>();
+        AdminDashboardResponse response = new AdminDashboardResponse();
+        response.setStartDate(start);
+        response.setEndDate(end);
+        response.setGmv(await(gmv, "gmv", unavailable));
+        List<StatusCountResponse> statusCounts = await(byStatus, "ordersByStatus", unavailable);
+        if (statusCounts != null) {
+            Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : OrderStatus.values()) {
+                counts.put(status, 0L);
+            }
+            statusCounts.forEach(c -> counts.put(c.getStatus(), c.getCount()));
+            response.setOrdersByStatus(counts);
+        }
+        response.setNewUsers(await(newUsers, "newUsers", unavailable));
+        response.setNewListingsByCategory(await(listings, "newListingsByCategory", unavailable));
+        response.setTopSellers(await(topSellers, "topSellers", unavailable));
+        response.setTopProducts(await(topProducts, "topProducts", unavailable));
+        response.setUnavailableSections(unavailable.isEmpty() ? Collections.emptyList() : unavailable);
+        response.setGeneratedAt(LocalDateTime.now());
+        return response;
+    }
+
+    private <T> CompletableFuture<T> section(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(() -> sectionTransaction.execute(status -> query.get()),
+                    analyticsExecutor)
+                .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException rejected) {
+            // Pool đầy: coi như mục này không có dữ liệu thay vì chặn cả dashboard
+            return CompletableFuture.failedFuture(rejected);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, String name, List<String> unavailable) {
+        try {
+            return future.join();
+        } catch (RuntimeException ex) {
+            log.warn("Admin dashboard section '{}' unavailable: {}", name, ex.getMessage());
+            unavailable.add(name);
+            return null;
+        }
+    }
+}
@@ -4,36 +4,58 @@ import com.mimi.domain.User;
 import com.mimi.domain.enums.Role;
 import com.mimi.dto.request.LoginRequest;
 import com.mimi.dto.request.RegisterRequest;
+import com.mimi.dto.response.AvailabilityResponse;
 import com.mimi.dto.response.UserResponse;
 import com.mimi.repository.UserRepository;
+import com.mimi.security.AccountIdentifierFilter;
+import com.mimi.security.PasswordHasher;
+import com.mimi.security.SessionStore;
 import com.mimi.service.AuthService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final SessionStore sessionStore;
+    private final ThreadPoolTaskExecutor rehashExecutor;
+    private final AccountIdentifierFilter identifierFilter;
+
+    public AuthServiceImpl(UserRepository userRepository,
+                           PasswordHasher passwordHasher,
+                           SessionStore sessionStore,
+                           @Qualifier("passwordRehashExecutor") ThreadPoolTaskExecutor rehashExecutor,
+                           AccountIdentifierFilter identifierFilter) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.sessionStore = sessionStore;
+        this.rehashExecutor = rehashExecutor;
+        this.identifierFilter = identifierFilter;
+    }
 
     @Override
     @Transactional
     public UserResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        List<Object[]> conflicts = userRepository.findIdentifierConflicts(request.getUsername(), request.getEmail());
+        if (matchesAny(conflicts, 0, request.getUsername())) {
             throw new IllegalArgumentException("Username already exists");
         }
-
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (matchesAny(conflicts, 1, request.getEmail())) {
             throw new IllegalArgumentException("Email already exists");
         }
 
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setFullName(request.getFullName());
         user.setBirthday(request.getBirthday());
         user.setPhoneNumber(request.getPhoneNumber());
@@ -41,6 +63,7 @@ public class AuthServiceImpl implements AuthService {
         user.setRole(Role.USER);
 
         User saved = userRepository.save(user);
+        identifierFilter.add(saved.getUsername(), saved.getEmail());
 
         return UserResponse.builder()
                 .id(saved.getId())
@@ -60,10 +83,17 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Invalid email or password");
         }
 
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehashInBackground(user.getId(), request.getPassword(), user.getPassword());
+        }
+
+        // Cấp session token để client không phải đăng nhập lại (và chạy lại BCrypt) cho mỗi phiên làm việc
+        SessionStore.IssuedToken issued = sessionStore.create(user.getId(), user.getRole());
+
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -74,7 +104,82 @@ public class AuthServiceImpl implements AuthService {
                 .address(user.getAddress())
                        .avatarUrl(user.getAvatarUrl())
                 .role(user.getRole())
+                .token(issued.getToken())
+                .tokenExpiresAt(issued.getExpiresAt())
                 .build();
     }
-}
 
+    @Override
+    public void logout(String token) {
+        sessionStore.revoke(token);
+    }
+
+    @Override
+    public UserResponse getCurrentUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        return UserResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .birthday(user.getBirthday())
+                .phoneNumber(user.getPhoneNumber())
+                .address(user.getAddress())
+                .avatarUrl(user.getAvatarUrl())
+                .role(user.getRole())
+                .build();
+    }
+
+    /**
+     * Kiểm tra nhanh cho form đăng ký. Bloom filter trả lời "chưa có" mà không chạm DB;
+     * chỉ các giá trị có thể đã tồn tại mới được xác nhận bằng một truy vấn chung cho cả hai.
+     */
+    @Override
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        boolean hasUsername = username != null && !username.isBlank();
+        boolean hasEmail = email != null && !email.isBlank();
+        if (!hasUsername && !hasEmail) {
+            throw new IllegalArgumentException("username or email is required");
+        }
+        boolean checkUsername = hasUsername && identifierFilter.mightExist(username);
+        boolean checkEmail = hasEmail && identifierFilter.mightExist(email);
+
+        List<Object[]> conflicts = checkUsername || checkEmail
+                ? userRepository.findIdentifierConflicts(checkUsername ? username.trim() : null,
+                        checkEmail ? email.trim() : null)
+                : List.of();
+
+        return new AvailabilityResponse(
+                hasUsername ? !matchesAny(conflicts, 0, username) : null,
+                hasEmail ? !matchesAny(conflicts, 1, email) : null);
+    }
+
+    private static boolean matchesAny(List<Object[]> rows, int column, String value) {
+        if (value == null) {
+            return false;
+        }
+        String expected = value.trim();
+        for (Object[] row : rows) {
+            if (expected.equalsIgnoreCase((String) row[column])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Băm lại mật khẩu theo tham số hiện tại, ngoài luồng request. Ghi có điều kiện theo hash cũ
+     * nên không đè lên mật khẩu vừa được đổi; lỗi hoặc pool bận chỉ làm việc nâng cấp bị lùi lại.
+     */
+    private void rehashInBackground(Long userId, String rawPassword, String oldHash) {
+        rehashExecutor.execute(() -> {
+            try {
+                userRepository.updatePasswordIfUnchanged(userId, oldHash, passwordHasher.encode(rawPassword));
+            } catch (RuntimeException ex) {
+                log.warn("Password rehash failed for user {}", userId, ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.enums.OrderStatus;
+import com.mimi.dto.response.BestSellerResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.event.OrderCreatedEvent;
+import com.mimi.event.OrderItemSnapshot;
+import com.mimi.event.OrderStatusChangedEvent;
+import com.mimi.repository.OrderItemRepository;
+import com.mimi.service.BestSellerService;
+import com.mimi.service.ProductService;
+import com.mimi.util.LongLongHashMap;
+import com.mimi.util.TopKHeap;
+import com.mimi.util.TtlCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best seller theo cửa sổ trượt 7 / 30 ngày, duy trì tăng dần từ sự kiện đơn hàng thay vì GROUP BY order_items
+ * mỗi lần xem trang. Số lượng bán được giữ theo từng ngày (vòng 30 bucket) cộng với tổng chạy của mỗi cửa sổ;
+ * sang ngày mới thì trừ bucket vừa rơi khỏi cửa sổ. Top-K lấy bằng min-heap giới hạn trên tổng chạy.
+ * Dựng lại từ order_items khi khởi động.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BestSellerServiceImpl implements BestSellerService {
+
+    private static final int SHORT_WINDOW_DAYS = 7;
+    private static final int LONG_WINDOW_DAYS = 30;
+    private static final int MAX_LIMIT = 50;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductService productService;
+
+    private final LongLongHashMap[] dayBuckets = newBuckets();
+    private final long[] bucketDay = new long[LONG_WINDOW_DAYS];
+    private final LongLongHashMap shortWindow = new LongLongHashMap(256);
+    private final LongLongHashMap longWindow = new LongLongHashMap(1024);
+    private final LongLongHashMap productCategory = new LongLongHashMap(1024);
+    private long currentDay = Long.MIN_VALUE;
+
+    /** Kết quả top-K đã hydrate, giữ vài giây để các lượt xem liên tiếp không phải dựng lại */
+    private final TtlCache<String, List<BestSellerResponse>> cache = new TtlCache<>(5_000, 256);
+
+    @Override
+    public List<BestSellerResponse> getBestSellers(int days, Long categoryId, int limit) {
+        if (days != SHORT_WINDOW_DAYS && days != LONG_WINDOW_DAYS) {
+            throw new IllegalArgumentException("days must be " + SHORT_WINDOW_DAYS + " or " + LONG_WINDOW_DAYS);
+        }
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return cache.get(days + "_" + categoryId + "_" + k, key -> computeBestSellers(days, categoryId, k));
+    }
+
+    /**
+     * Truy vấn chạy trong lock: sự kiện đơn hàng tới trong lúc dựng lại phải chờ rồi cộng lên kết quả mới,
+     * thay vì được cộng vào trạng thái cũ rồi bị xóa khi thay bằng kết quả truy vấn.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int rowCount;
+        synchronized (this) {
+            LocalDate today = LocalDate.now();
+            List<Object[]> rows = orderItemRepository.sumUnitsByProductAndDaySince(
+                today.minusDays(LONG_WINDOW_DAYS - 1).atStartOfDay());
+            for (LongLongHashMap bucket : dayBuckets) {
+                bucket.clear();
+            }
+            shortWindow.clear();
+            longWindow.clear();
+            productCategory.clear();
+            currentDay = Long.MIN_VALUE;
+            advanceTo(today.toEpochDay());
+            for (Object[] row : rows) {
+                Long categoryId = row[1] != null ? ((Number) row[1]).longValue() : null;
+                LocalDate day = (LocalDate) row[2];
+                record(day.toEpochDay(), ((Number) row[0]).longValue(), categoryId, ((Number) row[3]).longValue());
+            }
+            rowCount = rows.size();
+        }
+        cache.invalidateAll();
+        log.info("Best sellers rebuilt from {} product/day rows", rowCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        apply(event.getCreatedAt() != null ? event.getCreatedAt().toLocalDate() : LocalDate.now(), event.getItems(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasCancelled = event.getOldStatus() == OrderStatus.CANCELLED;
+        boolean isCancelled = event.getNewStatus() == OrderStatus.CANCELLED;
+        if (wasCancelled == isCancelled || event.getCreatedAt() == null) {
+            return;
+        }
+        apply(event.getCreatedAt().toLocalDate(), event.getItems(), isCancelled ? -1 : 1);
+    }
+
+    private void apply(LocalDate orderDay, List<OrderItemSnapshot> items, int sign) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            advanceTo(LocalDate.now().toEpochDay());
+            for (OrderItemSnapshot item : items) {
+                if (item.getProductId() != null && item.getQuantity() != null) {
+                    record(orderDay.toEpochDay(), item.getProductId(), item.getCategoryId(),
+                        (long) sign * item.getQuantity());
+                }
+            }
+        }
+    }
+
+    private List<BestSellerResponse> computeBestSellers(int days, Long categoryId, int k) {
+        long[] ids;
+        double[] units;
+        synchronized (this) {
+            advanceTo(LocalDate.now().toEpochDay());
+            LongLongHashMap totals = days == SHORT_WINDOW_DAYS ? shortWindow : longWindow;
+            TopKHeap heap = new TopKHeap(k);
+            totals.forEach((productId, sold) -> {
+                if (sold > 0 && (categoryId == null
+                        || (productCategory.containsKey(productId) && productCategory.get(productId) == categoryId))) {
+                    heap.offer(productId, sold);
+                }
+            });
+            ids = new long[heap.size()];
+            units = new double[heap.size()];
+            heap.drainDescending(ids, units);
+        }
+
+        List<Long> idList = new ArrayList<>(ids.length);
+        Map<Long, Long> unitsById = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            idList.add(ids[i]);
+            unitsById.put(ids[i], (long) units[i]);
+        }
+        List<BestSellerResponse> result = new ArrayList<>(ids.length);
+        int rank = 1;
+        for (ProductResponse product : productService.getProductResponsesByIds(idList)) {
+            result.add(new BestSellerResponse(rank++, unitsById.get(product.getId()), product));
+        }
+        return result;
+    }
+
+    /** Gọi khi đang giữ lock và đã advanceTo(hôm nay). */
+    private void record(long epochDay, long productId, Long categoryId, long delta) {
+        long age = currentDay - epochDay;
+        if (age < 0 || age >= LONG_WINDOW_DAYS || delta == 0) {
+            return;
+        }
+        if (categoryId != null) {
+            productCategory.put(productId, categoryId);
+        }
+        addOrRemove(dayBuckets[slot(epochDay)], productId, delta);
+        addToLongWindow(productId, delta);
+        if (age < SHORT_WINDOW_DAYS) {
+            addOrRemove(shortWindow, productId, delta);
+        }
+    }
+
+    /** Đẩy cửa sổ tới ngày hôm nay: trừ các bucket vừa rơi khỏi cửa sổ 7 và 30 ngày. */
+    private void advanceTo(long today) {
+        if (currentDay != Long.MIN_VALUE && today <= currentDay) {
+            return;
+        }
+        if (currentDay == Long.MIN_VALUE || today - currentDay >= LONG_WINDOW_DAYS) {
+            for (LongLongHashMap bucket : dayBuckets) {
+                bucket.clear();
+            }
+            shortWindow.clear();
+            longWindow.clear();
+            productCategory.clear();
+            for (long d = today - LONG_WINDOW_DAYS + 1; d <= today; d++) {
+                bucketDay[slot(d)] = d;
+            }
+            currentDay = today;
+            return;
+        }
+        for (long d = currentDay + 1; d <= today; d++) {
+            long leavingShort = d - SHORT_WINDOW_DAYS;
+            if (bucketDay[slot(leavingShort)] == leavingShort) {
+                subtract(shortWindow, dayBuckets[slot(leavingShort)]);
+            }
+            // Bucket của ngày d - 30 được tái sử dụng cho ngày d
+            int slot = slot(d);
+            dayBuckets[slot].forEach((productId, sold) -> addToLongWindow(productId, -sold));
+            dayBuckets[slot].clear();
+            bucketDay[slot] = d;
+        }
+        currentDay = today;
+    }
+
+    /** Sản phẩm không còn bán được gì trong cửa sổ 30 ngày thì bỏ luôn danh mục đã nhớ của nó. */
+    private void addToLongWindow(long productId, long delta) {
+        addOrRemove(longWindow, productId, delta);
+        if (!longWindow.containsKey(productId)) {
+            productCategory.remove(productId);
+        }
+    }
+
+    private static void subtract(LongLongHashMap totals, LongLongHashMap bucket) {
+        bucket.forEach((productId, sold) -> addOrRemove(totals, productId, -sold));
+    }
+
+    private static void addOrRemove(LongLongHashMap map, long key, long delta) {
+        if (map.addTo(key, delta) == 0) {
+            map.remove(key);
+        }
+    }
+
+    private static int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) LONG_WINDOW_DAYS);
+    }
+
+    private static LongLongHashMap[] newBuckets() {
+        LongLongHashMap[] buckets = new LongLongHashMap[LONG_WINDOW_DAYS];
+        Arrays.setAll(buckets, i -> new LongLongHashMap(64));
+        return buckets;
+    }
+}
@@ -0,0 +1,178 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.CatalogChange;
+import com.mimi.dto.response.CatalogChangesResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.event.ProductImagesChangedEvent;
+import com.mimi.repository.CatalogChangeRepository;
+import com.mimi.service.CatalogChangeService;
+import com.mimi.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nguồn đồng bộ tăng dần cho bản catalog lưu ở client. Mỗi thao tác trên sản phẩm/ảnh ghi một dòng catalog_changes
+ * trong cùng transaction, nên id của dòng là số thứ tự thay đổi; client gửi since = nextSince của lần trước và chỉ
+ * nhận các sản phẩm đã đổi (upsert, nạp theo lô) cùng id đã xóa (tombstone), chi phí theo số thay đổi chứ không
+ * theo kích thước catalog. id lấy từ bộ đếm catalog_sequence bằng UPDATE, khóa dòng đếm được giữ tới lúc commit nên
+ * các transaction ghi nhật ký commit đúng thứ tự số: khi thấy dòng N thì mọi số nhỏ hơn đã commit hoặc rollback,
+ * client không bao giờ nhảy qua một thay đổi commit muộn. Đổi lại, các thao tác ghi catalog xếp hàng nhau từ lúc
+ * ghi nhật ký (cuối transaction) tới lúc commit.
+ * Nhật ký được nén định kỳ (mỗi sản phẩm giữ dòng mới nhất, kể cả tombstone) nên since = 0 cũng là một lần tải
+ * đầy đủ catalog.
+ */
+@Slf4j
+@Service
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+    private static final int MAX_LIMIT = 1_000;
+    private static final int COMPACT_BATCH = 1_000;
+    private static final String INCREMENT_SEQUENCE = "UPDATE catalog_sequence SET seq_value = seq_value + 1 WHERE id = 1";
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogChangeServiceImpl(CatalogChangeRepository catalogChangeRepository,
+                                    ProductService productService,
+                                    JdbcTemplate jdbcTemplate) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.productService = productService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void record(Long productId, boolean deleted) {
+        if (productId == null) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO catalog_changes (id, product_id, deleted, changed_at) VALUES (?, ?, ?, ?)",
+                nextSequence(), productId, deleted, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /** Chạy đồng bộ ngay lúc ProductServiceImpl phát sự kiện, tức là trong transaction của thao tác đó. */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        record(event.getProductId(), event.isDeleted());
+    }
+
+    /** Thêm/xóa ảnh: ghi nhật ký trong transaction của ProductController. */
+    @EventListener
+    public void onProductImagesChanged(ProductImagesChangedEvent event) {
+        record(event.getProductId(), false);
+    }
+
+    /** Tăng bộ đếm và giữ khóa dòng của nó tới hết transaction hiện tại. */
+    private long nextSequence() {
+        if (jdbcTemplate.update(INCREMENT_SEQUENCE) == 0) {
+            initSequence();
+            jdbcTemplate.update(INCREMENT_SEQUENCE);
+        }
+        return jdbcTemplate.queryForObject("SELECT seq_value FROM catalog_sequence WHERE id = 1", Long.class);
+    }
+
+    /** Tạo dòng đếm nếu chưa có, bắt đầu từ id lớn nhất đang có trong nhật ký. */
+    private void initSequence() {
+        try {
+            jdbcTemplate.update("INSERT INTO catalog_sequence (id, seq_value) " +
+                    "SELECT 1, COALESCE(MAX(id), 0) FROM catalog_changes " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM catalog_sequence WHERE id = 1)");
+        } catch (DuplicateKeyException ex) {
+            // Transaction khác vừa tạo
+        }
+    }
+
+    @Override
+    public CatalogChangesResponse getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must be >= 0");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<CatalogChange> changes = catalogChangeRepository.findLatestAfter(since, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        long nextSince = since;
+        for (CatalogChange change : changes) {
+            (Boolean.TRUE.equals(change.getDeleted()) ? deletedIds : upsertIds).add(change.getProductId());
+            nextSince = change.getId();
+        }
+        List<ProductResponse> upserts = productService.getProductResponsesByIds(upsertIds);
+        if (upserts.size() < upsertIds.size()) {
+            // Bị xóa sau khi đọc nhật ký: trả luôn tombstone, dòng xóa tương ứng sẽ đến ở lần sau
+            Set<Long> found = new HashSet<>();
+            for (ProductResponse product : upserts) {
+                found.add(product.getId());
+            }
+            for (Long id : upsertIds) {
+                if (!found.contains(id)) {
+                    deletedIds.add(id);
+                }
+            }
+        }
+        return new CatalogChangesResponse(upserts, deletedIds, nextSince, hasMore);
+    }
+
+    /**
+     * Nhật ký rỗng (lần đầu bật tính năng): ghi một dòng cho mỗi sản phẩm hiện có (số thứ tự = id sản phẩm) để
+     * since = 0 là bản đầy đủ. Giữ khóa dòng đếm trong lúc nạp nên không xen với record().
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedIfEmpty() {
+        initSequence();
+        jdbcTemplate.update("UPDATE catalog_sequence SET seq_value = seq_value WHERE id = 1");
+        if (catalogChangeRepository.count() > 0) {
+            return;
+        }
+        int seeded = jdbcTemplate.update(
+                "INSERT INTO catalog_changes (id, product_id, deleted, changed_at) SELECT id, id, FALSE, ? FROM products",
+                Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update("UPDATE catalog_sequence SET seq_value = (SELECT COALESCE(MAX(id), 0) FROM catalog_changes) " +
+                "WHERE id = 1");
+        log.info("Catalog change log seeded with {} products", seeded);
+    }
+
+    /** Xóa các dòng đã có dòng mới hơn cho cùng sản phẩm, theo lô nhỏ. */
+    @Scheduled(fixedDelayString = "${catalog.changes.compact-interval-ms:600000}",
+               initialDelayString = "${catalog.changes.compact-interval-ms:600000}")
+    public void compact() {
+        long afterId = 0;
+        int removed = 0;
+        while (true) {
+            List<Long> ids = catalogChangeRepository.findSupersededIdsAfter(afterId, PageRequest.of(0, COMPACT_BATCH));
+            if (ids.isEmpty()) {
+                break;
+            }
+            catalogChangeRepository.deleteAllByIdInBatch(ids);
+            removed += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < COMPACT_BATCH) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Catalog change log compacted: {} superseded entries removed", removed);
+        }
+    }
+}
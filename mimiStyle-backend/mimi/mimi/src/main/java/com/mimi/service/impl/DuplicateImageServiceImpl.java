@@ -0,0 +1,307 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.ProductImage;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.DuplicateImagePairResponse;
+import com.mimi.dto.response.DuplicateImageResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.event.ProductImagesChangedEvent;
+import com.mimi.repository.ProductImageRepository;
+import com.mimi.service.DuplicateImageService;
+import com.mimi.util.Cursor;
+import com.mimi.util.HammingIndex;
+import com.mimi.util.PerceptualHash;
+import com.mimi.util.TtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phát hiện ảnh đăng lại (cùng ảnh, đổi tên file, nén lại/thu nhỏ). Mỗi ảnh tải lên được tính dHash 64 bit
+ * (PerceptualHash), lưu ở product_images.perceptual_hash và đưa vào HammingIndex trong bộ nhớ, nên tìm các ảnh
+ * lệch ≤ vài bit chỉ ghé vài chục bucket thay vì so với toàn bộ ảnh. Ảnh cũ chưa có hash được tính bù dần
+ * theo lô. Hash 0 và toàn bit 1 (ảnh một màu, không có chi tiết) không được dùng để so.
+ */
+@Slf4j
+@Service
+public class DuplicateImageServiceImpl implements DuplicateImageService {
+
+    private static final int DEFAULT_DISTANCE = 6;
+    private static final int MAX_MATCHES_PER_FILE = 10;
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    private static final int LOAD_BATCH = 5_000;
+    private static final int BACKFILL_BATCH = 200;
+    private static final int REPORT_PAGE = 500;
+    /** Số ảnh tối đa quét trong một lần gọi báo cáo; chưa đủ cặp thì trả nextCursor để gọi tiếp */
+    private static final int REPORT_SCAN_BUDGET = 20_000;
+
+    private final ProductImageRepository productImageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Path uploadPath;
+
+    private final HammingIndex index = new HammingIndex();
+    /** Hash của file vừa tải lên, để lúc gắn ảnh vào sản phẩm hay kiểm tra trùng không phải giải mã lại */
+    private final TtlCache<String, OptionalLong> uploadHashes = new TtlCache<>(TimeUnit.HOURS.toMillis(1), 10_000);
+    private volatile long backfillAfterId;
+    private volatile boolean backfillDone;
+
+    public DuplicateImageServiceImpl(ProductImageRepository productImageRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Value("${file.upload-dir}") String uploadDir) {
+        this.productImageRepository = productImageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public Long hashUploadedFile(String filename) {
+        if (filename == null || filename.isBlank() || filename.contains("..") || filename.contains("/")) {
+            return null;
+        }
+        OptionalLong hash = uploadHashes.get(filename.trim(), name -> {
+            Long value = PerceptualHash.dHash(uploadPath.resolve(name));
+            return value == null ? OptionalLong.empty() : OptionalLong.of(value);
+        });
+        return hash.isPresent() ? hash.getAsLong() : null;
+    }
+
+    @Override
+    public void indexImages(List<ProductImage> images) {
+        for (ProductImage image : images) {
+            Long hash = image.getPerceptualHash();
+            if (image.getId() != null && hash != null && isInformative(hash)) {
+                index.put(image.getId(), image.getProduct().getId(), hash);
+            }
+        }
+    }
+
+    @Override
+    public void removeImages(List<ProductImage> images) {
+        for (ProductImage image : images) {
+            if (image.getId() != null) {
+                index.remove(image.getId());
+            }
+        }
+    }
+
+    @Override
+    public List<DuplicateImageResponse> checkDuplicates(List<String> filenames, Long excludeProductId,
+                                                        Integer maxDistance) {
+        int distance = resolveDistance(maxDistance);
+        long excluded = excludeProductId == null ? 0 : excludeProductId;
+        Map<String, List<long[]>> matchesByFile = new HashMap<>();
+        Set<Long> imageIds = new HashSet<>();
+        for (String filename : filenames) {
+            Long hash = hashUploadedFile(filename);
+            if (hash == null || !isInformative(hash) || matchesByFile.containsKey(filename)) {
+                continue;
+            }
+            List<long[]> matches = new ArrayList<>();
+            index.search(hash, distance, (imageId, productId, d) -> {
+                if (productId != excluded) {
+                    matches.add(new long[]{imageId, d});
+                }
+            });
+            matches.sort(Comparator.comparingLong(m -> m[1]));
+            List<long[]> kept = matches.size() > MAX_MATCHES_PER_FILE ? matches.subList(0, MAX_MATCHES_PER_FILE) : matches;
+            matchesByFile.put(filename, kept);
+            for (long[] match : kept) {
+                imageIds.add(match[0]);
+            }
+        }
+        if (imageIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Object[]> info = activeImageInfo(imageIds);
+        List<DuplicateImageResponse> result = new ArrayList<>();
+        for (String filename : filenames) {
+            for (long[] match : matchesByFile.getOrDefault(filename, List.of())) {
+                Object[] row = info.get(match[0]);
+                if (row != null) {
+                    result.add(new DuplicateImageResponse(filename, match[0], (String) row[1],
+                            ((Number) row[2]).longValue(), (String) row[3], ((Number) row[4]).longValue(),
+                            (int) match[1]));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CursorPageResponse<DuplicateImagePairResponse> getDuplicateReport(String cursor, Integer limit,
+                                                                            Integer maxDistance) {
+        int distance = resolveDistance(maxDistance);
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor after = Cursor.decodeKey(cursor);
+        long afterId = after == null ? 0 : after.getId();
+
+        // Mỗi cặp (a, b) chỉ báo một lần, khi quét tới ảnh có id nhỏ hơn
+        List<long[]> pairs = new ArrayList<>();
+        int scanned = 0;
+        boolean exhausted = false;
+        while (true) {
+            List<Object[]> rows = productImageRepository.findHashRowsAfter(afterId, PageRequest.of(0, REPORT_PAGE));
+            boolean stopped = false;
+            for (Object[] row : rows) {
+                long imageId = ((Number) row[0]).longValue();
+                long productId = ((Number) row[1]).longValue();
+                long hash = ((Number) row[2]).longValue();
+                afterId = imageId;
+                scanned++;
+                if (isInformative(hash)) {
+                    index.search(hash, distance, (otherId, otherProductId, d) -> {
+                        if (otherId > imageId && otherProductId != productId) {
+                            pairs.add(new long[]{imageId, otherId, d});
+                        }
+                    });
+                }
+                if (pairs.size() >= size || scanned >= REPORT_SCAN_BUDGET) {
+                    stopped = true;
+                    break;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            if (rows.size() < REPORT_PAGE) {
+                exhausted = true;
+                break;
+            }
+        }
+
+        Set<Long> imageIds = new HashSet<>();
+        for (long[] pair : pairs) {
+            imageIds.add(pair[0]);
+            imageIds.add(pair[1]);
+        }
+        Map<Long, Object[]> info = imageIds.isEmpty() ? Map.of() : activeImageInfo(imageIds);
+        List<DuplicateImagePairResponse> items = new ArrayList<>();
+        for (long[] pair : pairs) {
+            Object[] a = info.get(pair[0]);
+            Object[] b = info.get(pair[1]);
+            if (a == null || b == null) {
+                continue;
+            }
+            long sellerA = ((Number) a[4]).longValue();
+            long sellerB = ((Number) b[4]).longValue();
+            items.add(new DuplicateImagePairResponse(pair[0], (String) a[1], ((Number) a[2]).longValue(),
+                    (String) a[3], sellerA, pair[1], (String) b[1], ((Number) b[2]).longValue(), (String) b[3],
+                    sellerB, (int) pair[2], sellerA == sellerB));
+        }
+        return new CursorPageResponse<>(items, exhausted ? null : Cursor.encodeKey("phash", afterId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long startedAt = System.nanoTime();
+        long afterId = 0;
+        while (true) {
+            List<Object[]> rows = productImageRepository.findHashRowsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (Object[] row : rows) {
+                afterId = ((Number) row[0]).longValue();
+                long hash = ((Number) row[2]).longValue();
+                if (isInformative(hash)) {
+                    index.put(afterId, ((Number) row[1]).longValue(), hash);
+                }
+            }
+            if (rows.size() < LOAD_BATCH) {
+                break;
+            }
+        }
+        log.info("Image hash index loaded: {} images in {} ms", index.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /** Tính bù hash cho ảnh đã lưu trước khi có tính năng này, mỗi lần một lô nhỏ cho tới khi hết. */
+    @Scheduled(fixedDelayString = "${catalog.image-hash.backfill-interval-ms:60000}",
+               initialDelayString = "${catalog.image-hash.backfill-interval-ms:60000}")
+    public void backfill() {
+        if (backfillDone) {
+            return;
+        }
+        List<Object[]> rows = productImageRepository.findUnhashedAfter(backfillAfterId, PageRequest.of(0, BACKFILL_BATCH));
+        List<Object[]> updates = new ArrayList<>();
+        List<long[]> indexed = new ArrayList<>();
+        for (Object[] row : rows) {
+            long imageId = ((Number) row[0]).longValue();
+            backfillAfterId = imageId;
+            String filename = (String) row[2];
+            if (filename == null || filename.contains("..") || filename.contains("/")) {
+                continue;
+            }
+            Long hash = PerceptualHash.dHash(uploadPath.resolve(filename));
+            if (hash != null) {
+                updates.add(new Object[]{hash, imageId});
+                indexed.add(new long[]{imageId, ((Number) row[1]).longValue(), hash});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE product_images SET perceptual_hash = ? WHERE id = ?", updates);
+            for (long[] image : indexed) {
+                if (isInformative(image[2])) {
+                    index.put(image[0], image[1], image[2]);
+                }
+            }
+        }
+        if (rows.size() < BACKFILL_BATCH) {
+            backfillDone = true;
+        }
+    }
+
+    /** Ảnh mới được đưa vào chỉ mục, ảnh đã xóa bị gỡ ra, chỉ khi transaction thêm/xóa ảnh đã commit. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductImagesChanged(ProductImagesChangedEvent event) {
+        removeImages(event.getRemoved());
+        indexImages(event.getAdded());
+    }
+
+    /** Ảnh của sản phẩm bị xóa không còn được báo trùng. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted() && event.getProductId() != null) {
+            index.removeGroup(event.getProductId());
+        }
+    }
+
+    private Map<Long, Object[]> activeImageInfo(Set<Long> imageIds) {
+        Map<Long, Object[]> info = new HashMap<>();
+        for (Object[] row : productImageRepository.findActiveImageInfo(imageIds)) {
+            info.put(((Number) row[0]).longValue(), row);
+        }
+        return info;
+    }
+
+    private static int resolveDistance(Integer maxDistance) {
+        if (maxDistance == null) {
+            return DEFAULT_DISTANCE;
+        }
+        if (maxDistance < 0 || maxDistance > HammingIndex.MAX_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + HammingIndex.MAX_DISTANCE);
+        }
+        return maxDistance;
+    }
+
+    private static boolean isInformative(long hash) {
+        return hash != 0 && hash != -1L;
+    }
+}
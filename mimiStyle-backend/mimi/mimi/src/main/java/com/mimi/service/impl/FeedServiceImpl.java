@@ -0,0 +1,213 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.Follow;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.PostResponse;
+import com.mimi.event.FollowChangedEvent;
+import com.mimi.event.PostCreatedEvent;
+import com.mimi.repository.FollowRepository;
+import com.mimi.repository.PostRepository;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.FeedService;
+import com.mimi.service.PostService;
+import com.mimi.util.LongRingBuffer;
+import com.mimi.util.TtlCache;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Feed cộng đồng dạng fan-out-on-write. Mỗi timeline là vòng đệm id bài (mới nhất ở cuối) giữ trong bộ nhớ:
+ * một timeline toàn sàn và timeline "following" cho từng user đang hoạt động (nạp từ DB khi miss, hết hạn
+ * TIMELINE_TTL_MS sau lần nạp rồi nạp lại ở lần đọc kế tiếp). Khi có bài mới, id được đẩy vào timeline của tác giả
+ * và của những follower đang có timeline trong bộ nhớ, kể cả timeline đang nạp dở (đẩy vào khi nạp xong). Đọc một trang chỉ cắt page-size id từ vòng đệm rồi hydrate theo lô;
+ * chỉ khi cuộn quá phần vòng đệm giữ mới hỏi DB theo keyset trên id.
+ */
+@Service
+public class FeedServiceImpl implements FeedService {
+
+    private static final int GLOBAL_CAPACITY = 1000;
+    private static final int USER_CAPACITY = 500;
+    private static final int MAX_CACHED_TIMELINES = 10_000;
+    private static final long TIMELINE_TTL_MS = 30 * 60_000L;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+
+    private final PostRepository postRepository;
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final PostService postService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final LongRingBuffer globalTimeline = new LongRingBuffer(GLOBAL_CAPACITY);
+    private volatile boolean globalLoaded;
+    private final TtlCache<Long, LongRingBuffer> userTimelines = new TtlCache<>(TIMELINE_TTL_MS, MAX_CACHED_TIMELINES);
+
+    public FeedServiceImpl(PostRepository postRepository,
+                           FollowRepository followRepository,
+                           UserRepository userRepository,
+                           PostService postService,
+                           ApplicationEventPublisher eventPublisher) {
+        this.postRepository = postRepository;
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.postService = postService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGlobalTimeline() {
+        List<Long> ids = postRepository.findIdsBefore(Long.MAX_VALUE, PageRequest.of(0, GLOBAL_CAPACITY));
+        for (Long id : ids) {
+            globalTimeline.add(id);
+        }
+        if (ids.size() >= GLOBAL_CAPACITY) {
+            globalTimeline.markTruncated();
+        }
+        globalLoaded = true;
+    }
+
+    @Override
+    public CursorPageResponse<PostResponse> getGlobalFeed(Long viewerId, String cursor, Integer limit, int commentPreview) {
+        int size = clampLimit(limit);
+        List<Long> ids = page(globalLoaded ? globalTimeline : null, parseCursor(cursor), size + 1,
+                (before, count) -> postRepository.findIdsBefore(before, PageRequest.of(0, count)));
+        return hydrate(ids, size, viewerId, commentPreview);
+    }
+
+    @Override
+    public CursorPageResponse<PostResponse> getFollowingFeed(Long userId, String cursor, Integer limit, int commentPreview) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        int size = clampLimit(limit);
+        LongRingBuffer timeline = userTimelines.get(userId, this::loadUserTimeline);
+        List<Long> ids = page(timeline, parseCursor(cursor), size + 1,
+                (before, count) -> postRepository.findFollowingIdsBefore(userId, before, PageRequest.of(0, count)));
+        return hydrate(ids, size, userId, commentPreview);
+    }
+
+    @Override
+    @Transactional
+    public void follow(Long followerId, Long followeeId) {
+        if (followerId == null || followeeId == null) {
+            throw new IllegalArgumentException("followerId and followeeId are required");
+        }
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Cannot follow yourself");
+        }
+        if (!userRepository.existsById(followerId) || !userRepository.existsById(followeeId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId)) {
+            return;
+        }
+        Follow follow = new Follow();
+        follow.setFollower(userRepository.getReferenceById(followerId));
+        follow.setFollowee(userRepository.getReferenceById(followeeId));
+        followRepository.save(follow);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId, true));
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        if (followerId == null || followeeId == null) {
+            throw new IllegalArgumentException("followerId and followeeId are required");
+        }
+        if (followRepository.deleteByFollowerAndFollowee(followerId, followeeId) > 0) {
+            eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId, false));
+        }
+    }
+
+    /**
+     * Fan-out sau commit: chỉ đẩy vào các timeline đang nằm trong bộ nhớ, timeline khác sẽ nạp lại từ DB khi đọc.
+     * Timeline đang nạp có thể đã chụp DB trước khi bài này commit, nên id được thêm vào ngay khi nạp xong
+     * (vòng đệm bỏ qua id trùng nếu lần nạp đã thấy bài).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        long postId = event.getPostId();
+        globalTimeline.add(postId);
+        userTimelines.whenLoaded(event.getAuthorId(), timeline -> timeline.add(postId));
+        for (Long followerId : followRepository.findFollowerIds(event.getAuthorId())) {
+            userTimelines.whenLoaded(followerId, timeline -> timeline.add(postId));
+        }
+    }
+
+    /** Danh sách người theo dõi thay đổi: bỏ timeline cũ, lần đọc sau nạp lại từ DB. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        userTimelines.invalidate(event.getFollowerId());
+    }
+
+    private LongRingBuffer loadUserTimeline(Long userId) {
+        List<Long> ids = postRepository.findFollowingIdsBefore(userId, Long.MAX_VALUE, PageRequest.of(0, USER_CAPACITY));
+        LongRingBuffer timeline = new LongRingBuffer(USER_CAPACITY);
+        for (Long id : ids) {
+            timeline.add(id);
+        }
+        if (ids.size() >= USER_CAPACITY) {
+            timeline.markTruncated();
+        }
+        return timeline;
+    }
+
+    /**
+     * Lấy tối đa count id cũ hơn before: trước hết từ vòng đệm, phần còn thiếu (khi vòng đệm không giữ
+     * toàn bộ lịch sử) lấy tiếp từ DB bắt đầu ngay sau id cuối cùng đã lấy.
+     */
+    private static List<Long> page(LongRingBuffer timeline, long before, int count,
+                                   BiFunction<Long, Integer, List<Long>> fromDb) {
+        List<Long> ids = new ArrayList<>(count);
+        if (timeline != null) {
+            for (long id : timeline.pageBefore(before, count)) {
+                ids.add(id);
+            }
+            if (ids.size() == count || !timeline.isTruncated()) {
+                return ids;
+            }
+        }
+        long dbBefore = ids.isEmpty() ? (before > 0 ? before : Long.MAX_VALUE) : ids.get(ids.size() - 1);
+        ids.addAll(fromDb.apply(dbBefore, count - ids.size()));
+        return ids;
+    }
+
+    private CursorPageResponse<PostResponse> hydrate(List<Long> ids, int limit, Long viewerId, int commentPreview) {
+        String nextCursor = null;
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+            nextCursor = String.valueOf(ids.get(limit - 1));
+        }
+        List<PostResponse> posts = postService.getPostResponsesByIds(ids, viewerId);
+        postService.attachCommentPreviews(posts, commentPreview);
+        return new CursorPageResponse<>(posts, nextCursor);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            long id = Long.parseLong(cursor);
+            if (id <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return id;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static int clampLimit(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,162 @@
+package com.mimi.service.impl;
+
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.NotificationResponse;
+import com.mimi.event.UserEventBus;
+import com.mimi.repository.NotificationRepository;
+import com.mimi.service.NotificationService;
+import com.mimi.util.Cursor;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Thông báo trong ứng dụng. Thông báo sinh tự động (tin đăng khớp tìm kiếm đã lưu) không ghi ngay mà xếp hàng
+ * rồi được ghi định kỳ bằng một batch INSERT IGNORE; bản ghi trùng (cùng tìm kiếm, cùng sản phẩm) bị bỏ qua và
+ * chỉ bản ghi mới được đẩy tiếp qua SSE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationServiceImpl implements NotificationService {
+
+    public static final String TYPE_LISTING_MATCH = "LISTING_MATCH";
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+    private static final int BATCH_SIZE = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserEventBus eventBus;
+
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final Object flushLock = new Object();
+
+    @Override
+    public CursorPageResponse<NotificationResponse> getNotifications(Long userId, String cursor, Integer limit) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor before = Cursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<NotificationResponse> items = before == null
+                ? notificationRepository.findFirstPageByUser(userId, page)
+                : notificationRepository.findPageByUserBefore(userId, before.getCreatedAt(), before.getId(), page);
+
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            NotificationResponse last = items.get(size - 1);
+            nextCursor = Cursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public long countUnread(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        return notificationRepository.countByUserIdAndReadFalse(userId);
+    }
+
+    @Override
+    @Transactional
+    public int markRead(Long userId, Long notificationId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        return notificationId == null
+                ? notificationRepository.markAllRead(userId)
+                : notificationRepository.markRead(userId, notificationId);
+    }
+
+    @Override
+    public void enqueueListingMatch(Long userId, Long productId, String productName, Long savedSearchId) {
+        pending.add(new Pending(userId, productId, productName, savedSearchId, LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.flush-interval-ms:2000}")
+    public void flush() {
+        synchronized (flushLock) {
+            while (!pending.isEmpty()) {
+                List<Pending> batch = new ArrayList<>(Math.min(BATCH_SIZE, pending.size()));
+                for (Pending next; batch.size() < BATCH_SIZE && (next = pending.poll()) != null; ) {
+                    batch.add(next);
+                }
+                if (!writeBatch(batch)) {
+                    // Giữ lại để chu kỳ sau ghi lại
+                    pending.addAll(batch);
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean writeBatch(List<Pending> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            rows.add(new Object[]{p.userId, TYPE_LISTING_MATCH, p.productId, p.savedSearchId,
+                    Timestamp.valueOf(p.createdAt)});
+        }
+        int[] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(
+                    "INSERT IGNORE INTO notifications (user_id, type, product_id, saved_search_id, is_read, created_at) " +
+                    "VALUES (?, ?, ?, ?, false, ?)", rows);
+        } catch (RuntimeException ex) {
+            log.warn("Notification flush failed", ex);
+            return false;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            // 0 = đã có thông báo cho cặp (tìm kiếm, sản phẩm) này; SUCCESS_NO_INFO coi như ghi mới
+            if (i < counts.length && counts[i] == 0) {
+                continue;
+            }
+            Pending p = batch.get(i);
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("productId", p.productId);
+            data.put("productName", p.productName);
+            data.put("savedSearchId", p.savedSearchId);
+            eventBus.publish(p.userId, "listing.matched", data);
+        }
+        return true;
+    }
+
+    private static final class Pending {
+        final Long userId;
+        final Long productId;
+        final String productName;
+        final Long savedSearchId;
+        final LocalDateTime createdAt;
+
+        Pending(Long userId, Long productId, String productName, Long savedSearchId, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.productId = productId;
+            this.productName = productName;
+            this.savedSearchId = savedSearchId;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -4,33 +4,58 @@ import com.mimi.domain.Order;
 import com.mimi.domain.OrderItem;
 import com.mimi.domain.Product;
 import com.mimi.domain.ProductImage;
+import com.mimi.domain.ProductVariant;
 import com.mimi.domain.User;
+import com.mimi.domain.enums.OrderStatus;
 import com.mimi.domain.enums.OrderType;
 import com.mimi.dto.request.CreateOrderRequest;
 import com.mimi.dto.request.UpdateOrderStatusRequest;
 import com.mimi.dto.response.OrderItemResponse;
 import com.mimi.dto.response.OrderResponse;
+import com.mimi.dto.response.SellerOrderInboxResponse;
+import com.mimi.dto.response.SellerOrderResponse;
+import com.mimi.event.OrderCreatedEvent;
+import com.mimi.event.OrderItemSnapshot;
+import com.mimi.event.OrderStatusChangedEvent;
+import com.mimi.event.VariantStockChangedEvent;
+import com.mimi.repository.OrderItemRepository;
 import com.mimi.repository.OrderRepository;
 import com.mimi.repository.ProductImageRepository;
 import com.mimi.repository.ProductRepository;
+import com.mimi.repository.ProductVariantRepository;
 import com.mimi.repository.UserRepository;
 import com.mimi.service.OrderService;
+import com.mimi.util.Cursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final ProductImageRepository productImageRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -43,6 +68,7 @@ public class OrderServiceImpl implements OrderService {
 
         BigDecimal totalAmount = BigDecimal.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
+        Set<Long> stockChanged = new LinkedHashSet<>();
 
         for (CreateOrderRequest.OrderItemRequest itemReq : request.getItems()) {
             Product product = productRepository.findById(itemReq.getProductId())
@@ -57,7 +83,11 @@ public class OrderServiceImpl implements OrderService {
             oi.setQuantity(qty);
             oi.setPrice(price);
             oi.setOrderType(OrderType.BUY);
-            oi.setVariant(null);
+            oi.setVariant(reserveVariant(product, itemReq.getVariantId(), qty));
+            if (oi.getVariant() != null) {
+                stockChanged.add(product.getId());
+            }
+            oi.setSellerId(product.getSeller() != null ? product.getSeller().getId() : null);
             orderItems.add(oi);
         }
 
@@ -85,7 +115,27 @@ public class OrderServiceImpl implements OrderService {
             oi.setOrder(order);
         }
         order.setOrderItems(orderItems);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderCreatedEvent(
+            saved.getId(), buyer.getId(), saved.getCreatedAt(), snapshotItems(orderItems)));
+        for (Long productId : stockChanged) {
+            eventPublisher.publishEvent(new VariantStockChangedEvent(productId));
+        }
+        return saved;
+    }
+
+    /** Trừ tồn kho của biến thể đã chọn (điều kiện trong câu UPDATE nên hai đơn cùng lúc không bán lố). */
+    private ProductVariant reserveVariant(Product product, Long variantId, int qty) {
+        if (variantId == null) {
+            return null;
+        }
+        ProductVariant variant = productVariantRepository.findById(variantId)
+                .filter(v -> v.getProduct().getId().equals(product.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("Variant not found: " + variantId));
+        if (productVariantRepository.decrementStock(variantId, qty) == 0) {
+            throw new IllegalArgumentException("Out of stock: variant " + variantId);
+        }
+        return variant;
     }
 
     @Override
@@ -93,10 +143,53 @@ public class OrderServiceImpl implements OrderService {
     public Order updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        com.mimi.domain.enums.OrderStatus oldStatus = order.getStatus();
         if (request.getStatus() != null) {
             order.setStatus(request.getStatus());
         }
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        if (saved.getStatus() == OrderStatus.CANCELLED && oldStatus != OrderStatus.CANCELLED) {
+            releaseVariants(saved.getOrderItems());
+        } else if (oldStatus == OrderStatus.CANCELLED && saved.getStatus() != OrderStatus.CANCELLED) {
+            reserveVariantsAgain(saved.getOrderItems());
+        }
+        if (saved.getStatus() != oldStatus) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                saved.getId(), saved.getBuyer().getId(), saved.getCreatedAt(), oldStatus, saved.getStatus(),
+                snapshotItems(saved.getOrderItems())));
+        }
+        return saved;
+    }
+
+    /** Đơn bị hủy: trả lại tồn kho cho các biến thể đã trừ lúc đặt. */
+    private void releaseVariants(List<OrderItem> items) {
+        Set<Long> stockChanged = new LinkedHashSet<>();
+        for (OrderItem item : items) {
+            if (item.getVariant() != null) {
+                productVariantRepository.incrementStock(item.getVariant().getId(), item.getQuantity());
+                stockChanged.add(item.getProduct().getId());
+            }
+        }
+        for (Long productId : stockChanged) {
+            eventPublisher.publishEvent(new VariantStockChangedEvent(productId));
+        }
+    }
+
+    /** Mở lại đơn đã hủy: trừ lại tồn kho đã trả lúc hủy; biến thể nào không đủ hàng thì lỗi và cả giao dịch rollback. */
+    private void reserveVariantsAgain(List<OrderItem> items) {
+        Set<Long> stockChanged = new LinkedHashSet<>();
+        for (OrderItem item : items) {
+            if (item.getVariant() != null) {
+                Long variantId = item.getVariant().getId();
+                if (productVariantRepository.decrementStock(variantId, item.getQuantity()) == 0) {
+                    throw new IllegalArgumentException("Out of stock: variant " + variantId);
+                }
+                stockChanged.add(item.getProduct().getId());
+            }
+        }
+        for (Long productId : stockChanged) {
+            eventPublisher.publishEvent(new VariantStockChangedEvent(productId));
+        }
     }
 
     @Override
@@ -111,6 +204,86 @@ public class OrderServiceImpl implements OrderService {
         return orders.stream().map(this::toOrderResponse).collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * Hộp đơn của seller: một truy vấn lấy trang đơn (keyset), một truy vấn lấy các dòng của seller trong trang,
+     * một truy vấn lấy ảnh, một truy vấn đếm badge theo trạng thái.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SellerOrderInboxResponse getSellerInbox(Long sellerId, OrderStatus status, LocalDate startDate,
+                                                   LocalDate endDate, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE));
+        Cursor after = Cursor.decode(cursor);
+        LocalDateTime from = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime to = endDate != null ? endDate.atTime(23, 59, 59) : null;
+
+        List<Order> orders = orderRepository.findOrdersBySeller(sellerId, status, from, to,
+            after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null,
+            PageRequest.of(0, pageSize + 1));
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        Map<Long, String> thumbnails = new HashMap<>();
+        if (!orders.isEmpty()) {
+            List<Long> orderIds = orders.stream().map(Order::getId).collect(java.util.stream.Collectors.toList());
+            List<OrderItem> items = orderItemRepository.findSellerItemsByOrderIds(sellerId, orderIds);
+            List<Long> productIds = new ArrayList<>();
+            for (OrderItem oi : items) {
+                itemsByOrder.computeIfAbsent(oi.getOrder().getId(), k -> new ArrayList<>()).add(oi);
+                productIds.add(oi.getProduct().getId());
+            }
+            for (ProductImage img : productImageRepository.findByProductIdInOrderByIdAsc(productIds)) {
+                thumbnails.putIfAbsent(img.getProduct().getId(), img.getImageUrl());
+            }
+        }
+
+        List<SellerOrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            List<OrderItemResponse> lines = new ArrayList<>();
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (OrderItem oi : itemsByOrder.getOrDefault(order.getId(), List.of())) {
+                BigDecimal lineTotal = oi.getPrice().multiply(BigDecimal.valueOf(oi.getQuantity()));
+                subtotal = subtotal.add(lineTotal);
+                lines.add(new OrderItemResponse(oi.getProduct().getId(), oi.getProduct().getName(),
+                    thumbnails.get(oi.getProduct().getId()), oi.getQuantity(), oi.getPrice(), lineTotal));
+            }
+            responses.add(new SellerOrderResponse(order.getId(), order.getCreatedAt(), order.getStatus(),
+                order.getShippingName(), order.getShippingPhone(), order.getShippingAddress(), subtotal, lines));
+        }
+
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus s : OrderStatus.values()) {
+            counts.put(s, 0L);
+        }
+        orderRepository.countSellerOrdersByStatus(sellerId, from, to)
+            .forEach(c -> counts.put(c.getStatus(), c.getCount()));
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = Cursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new SellerOrderInboxResponse(responses, nextCursor, counts);
+    }
+
+    private List<OrderItemSnapshot> snapshotItems(List<OrderItem> items) {
+        if (items == null) return List.of();
+        List<OrderItemSnapshot> snapshots = new ArrayList<>(items.size());
+        for (OrderItem oi : items) {
+            Product p = oi.getProduct();
+            snapshots.add(new OrderItemSnapshot(
+                p.getId(),
+                p.getCategory() != null ? p.getCategory().getId() : null,
+                p.getSeller() != null ? p.getSeller().getId() : null,
+                oi.getQuantity(),
+                oi.getPrice()));
+        }
+        return snapshots;
+    }
+
     private OrderResponse toOrderResponse(Order order) {
         List<OrderItemResponse> itemResponses = order.getOrderItems() == null ? List.of() :
             order.getOrderItems().stream().map(oi -> {
@@ -0,0 +1,464 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.Comment;
+import com.mimi.domain.Post;
+import com.mimi.domain.User;
+import com.mimi.domain.enums.EngagementType;
+import com.mimi.dto.request.CreateCommentRequest;
+import com.mimi.dto.response.CommentResponse;
+import com.mimi.dto.response.LikeResponse;
+import com.mimi.event.PostEngagementEvent;
+import com.mimi.repository.CommentRepository;
+import com.mimi.repository.LikeRepository;
+import com.mimi.repository.PostRepository;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.PostEngagementService;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Like / bình luận với bộ đếm gom ghi. Mỗi bài có một LongAdder cho phần chênh lệch số like và số bình luận;
+ * dòng likes cần thêm/xóa nằm trong map thao tác đang chờ (thao tác sau cùng của mỗi cặp post/user thắng).
+ * Job flush định kỳ ghi tất cả xuống DB trong một transaction bằng batch statement, nên một bài đang hot
+ * chỉ bị UPDATE một lần mỗi chu kỳ thay vì một lần mỗi like. total_likes chỉ được cộng/trừ cho những dòng likes
+ * thực sự được thêm/xóa (theo số dòng batch trả về). Đọc = giá trị trong posts + phần đang chờ.
+ * Trong lúc flush, phần đang ghi được giữ ở map "inflight" tới khi commit để đọc không bị hụt.
+ */
+@Slf4j
+@Service
+public class PostEngagementServiceImpl implements PostEngagementService {
+
+    private static final int MAX_COMMENT_LENGTH = 2000;
+    private static final int RECONCILE_BATCH = 500;
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** true = cần INSERT dòng like, false = cần DELETE */
+    private final ConcurrentHashMap<LikeKey, Boolean> pendingLikes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LikeKey, Boolean> inflightLikes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> likeDeltas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> commentDeltas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> inflightLikeDeltas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> inflightCommentDeltas = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicLong counterVersion = new AtomicLong();
+
+    public PostEngagementServiceImpl(PostRepository postRepository,
+                                     LikeRepository likeRepository,
+                                     CommentRepository commentRepository,
+                                     UserRepository userRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class LikeKey {
+        private final long postId;
+        private final long userId;
+    }
+
+    @Override
+    public LikeResponse like(Long postId, Long userId) {
+        return setLiked(postId, userId, true);
+    }
+
+    @Override
+    public LikeResponse unlike(Long postId, Long userId) {
+        return setLiked(postId, userId, false);
+    }
+
+    private LikeResponse setLiked(Long postId, Long userId, boolean liked) {
+        Long authorId = validate(postId, userId);
+        LikeKey key = new LikeKey(postId, userId);
+        boolean[] changed = new boolean[1];
+        boolean[] stale = new boolean[1];
+        while (true) {
+            long version = counterVersion.get();
+            if ((version & 1) != 0) {
+                // Flush đang ghi: đọc DB lúc này có thể thấy trạng thái trước commit
+                awaitFlush();
+                continue;
+            }
+            // Đọc DB ngoài compute: compute giữ khóa bin của map, chờ JDBC trong đó làm kẹt các key khác cùng bin
+            Boolean persisted = pendingLikes.containsKey(key) ? null : persistedLiked(key);
+            stale[0] = false;
+            // compute giữ khóa theo key: like/unlike cùng cặp post/user và flush cùng key không chen nhau
+            pendingLikes.compute(key, (k, op) -> {
+                Boolean inflight = op == null ? inflightLikes.get(k) : null;
+                boolean current;
+                if (op != null) {
+                    current = op;
+                } else if (inflight != null) {
+                    current = inflight;
+                } else if (persisted != null && version == counterVersion.get()) {
+                    current = persisted;
+                } else {
+                    // Có flush chen vào giữa lúc đọc DB và lúc vào compute: đọc lại
+                    stale[0] = true;
+                    return null;
+                }
+                if (current == liked) {
+                    return op;
+                }
+                changed[0] = true;
+                likeDeltas.computeIfAbsent(k.postId, id -> new LongAdder()).add(liked ? 1 : -1);
+                // Thao tác đang chờ ngược chiều thì hai thao tác triệt tiêu, DB đã đúng trạng thái
+                return op != null ? null : liked;
+            });
+            if (!stale[0]) {
+                break;
+            }
+        }
+        if (changed[0]) {
+            eventPublisher.publishEvent(new PostEngagementEvent(postId, authorId, userId,
+                    liked ? EngagementType.LIKED : EngagementType.UNLIKED));
+        }
+        return new LikeResponse(postId, liked, currentLikes(postId));
+    }
+
+    @Override
+    @Transactional
+    public CommentResponse addComment(Long postId, Long userId, CreateCommentRequest request) {
+        if (postId == null || userId == null) {
+            throw new IllegalArgumentException("postId and userId are required");
+        }
+        String content = request.getContent() == null ? "" : request.getContent().trim();
+        if (content.isEmpty()) {
+            throw new IllegalArgumentException("Comment content is required");
+        }
+        if (content.length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("Comment is too long");
+        }
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found"));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setContent(content);
+        Comment saved = commentRepository.save(comment);
+        addCommentDeltaAfterCommit(postId, 1);
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, post.getUser().getId(), userId, EngagementType.COMMENTED));
+
+        return new CommentResponse(saved.getId(), postId, saved.getContent(), saved.getCreatedAt(),
+                user.getId(), user.getUsername(), user.getFullName(), user.getAvatarUrl());
+    }
+
+    @Override
+    @Transactional
+    public void deleteComment(Long postId, Long commentId, Long userId) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new IllegalArgumentException("Comment not found"));
+        if (!comment.getPost().getId().equals(postId)) {
+            throw new IllegalArgumentException("Comment not found");
+        }
+        if (userId == null || !comment.getUser().getId().equals(userId)) {
+            throw new IllegalArgumentException("Only the author can delete this comment");
+        }
+        Long authorId = comment.getPost().getUser().getId();
+        commentRepository.delete(comment);
+        addCommentDeltaAfterCommit(postId, -1);
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, authorId, userId, EngagementType.COMMENT_DELETED));
+    }
+
+    @Override
+    public long pendingLikeDelta(Long postId) {
+        return pendingDelta(likeDeltas, inflightLikeDeltas, postId);
+    }
+
+    @Override
+    public long pendingCommentDelta(Long postId) {
+        return pendingDelta(commentDeltas, inflightCommentDeltas, postId);
+    }
+
+    @Override
+    public long counterVersion() {
+        return counterVersion.get();
+    }
+
+    @Override
+    public Boolean pendingLikeState(Long postId, Long userId) {
+        LikeKey key = new LikeKey(postId, userId);
+        Boolean op = pendingLikes.get(key);
+        return op != null ? op : inflightLikes.get(key);
+    }
+
+    /** Ghi các thao tác like và phần chênh lệch bộ đếm xuống DB trong một transaction. */
+    @Scheduled(fixedDelayString = "${community.counters.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (pendingLikes.isEmpty() && likeDeltas.isEmpty() && commentDeltas.isEmpty()) {
+                return;
+            }
+            counterVersion.incrementAndGet();
+            try {
+                flushPending();
+            } finally {
+                counterVersion.incrementAndGet();
+            }
+        }
+    }
+
+    private void flushPending() {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        // Phần chênh lệch like đi cùng thao tác của nó: chuyển thao tác sang inflight thì chuyển luôn +1/-1
+        for (LikeKey key : pendingLikes.keySet()) {
+            pendingLikes.computeIfPresent(key, (k, op) -> {
+                long delta = op ? 1 : -1;
+                inflightLikes.put(k, op);
+                inflightLikeDeltas.merge(k.postId, delta, Long::sum);
+                likeDeltas.computeIfAbsent(k.postId, id -> new LongAdder()).add(-delta);
+                (op ? inserts : deletes).add(new Object[]{k.postId, k.userId});
+                return null;
+            });
+        }
+        pruneZero(likeDeltas);
+        Map<Long, Long> comments = drain(commentDeltas, inflightCommentDeltas);
+        if (inserts.isEmpty() && deletes.isEmpty() && comments.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Long> likes = new HashMap<>();
+                if (!inserts.isEmpty()) {
+                    int[] counts = jdbcTemplate.batchUpdate("INSERT IGNORE INTO likes (post_id, user_id) VALUES (?, ?)", inserts);
+                    addApplied(likes, inserts, counts, 1);
+                }
+                if (!deletes.isEmpty()) {
+                    int[] counts = jdbcTemplate.batchUpdate("DELETE FROM likes WHERE post_id = ? AND user_id = ?", deletes);
+                    addApplied(likes, deletes, counts, -1);
+                }
+                likes.values().removeIf(delta -> delta == 0);
+                if (!likes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE posts SET total_likes = GREATEST(0, COALESCE(total_likes, 0) + ?) WHERE id = ?",
+                            toArgs(likes));
+                }
+                if (!comments.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE posts SET total_comments = GREATEST(0, COALESCE(total_comments, 0) + ?) WHERE id = ?",
+                            toArgs(comments));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Trả lại vào hàng chờ để chu kỳ sau ghi lại; thao tác mới hơn của cùng cặp post/user thì giữ thao tác mới
+            log.warn("Post counter flush failed", ex);
+            requeue(inserts, true);
+            requeue(deletes, false);
+            comments.forEach((postId, delta) -> commentDeltas.computeIfAbsent(postId, id -> new LongAdder()).add(delta));
+        } finally {
+            for (Object[] row : inserts) {
+                inflightLikes.remove(new LikeKey((Long) row[0], (Long) row[1]));
+            }
+            for (Object[] row : deletes) {
+                inflightLikes.remove(new LikeKey((Long) row[0], (Long) row[1]));
+            }
+            inflightLikeDeltas.clear();
+            comments.keySet().forEach(inflightCommentDeltas::remove);
+        }
+    }
+
+    private void requeue(List<Object[]> rows, boolean liked) {
+        for (Object[] row : rows) {
+            pendingLikes.compute(new LikeKey((Long) row[0], (Long) row[1]), (k, op) -> {
+                if (op != null) {
+                    return op;
+                }
+                likeDeltas.computeIfAbsent(k.postId, id -> new LongAdder()).add(liked ? 1 : -1);
+                return liked;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Tính lại total_likes / total_comments từ bảng likes / comments để sửa sai lệch (vd. phần đang chờ bị mất
+     * khi tiến trình chết). Bỏ qua các bài đang có thay đổi chờ ghi; chạy theo lô id để không khóa cả bảng.
+     */
+    @Scheduled(cron = "${community.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM posts WHERE id > ? ORDER BY id LIMIT " + RECONCILE_BATCH, Long.class, lastId);
+            if (ids.isEmpty()) {
+                return;
+            }
+            lastId = ids.get(ids.size() - 1);
+            synchronized (flushLock) {
+                List<Object[]> args = new ArrayList<>();
+                for (Long id : ids) {
+                    if (pendingLikeDelta(id) == 0 && pendingCommentDelta(id) == 0) {
+                        args.add(new Object[]{id});
+                    }
+                }
+                if (!args.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE posts p SET " +
+                            "total_likes = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id), " +
+                            "total_comments = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+                            "WHERE p.id = ?", args);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bình luận được ghi trong transaction của request; chỉ cộng vào bộ đếm khi transaction commit,
+     * nếu rollback thì total_comments không bị lệch so với bảng comments.
+     */
+    private void addCommentDeltaAfterCommit(Long postId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commentDeltas.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                commentDeltas.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+            }
+        });
+    }
+
+    private void awaitFlush() {
+        synchronized (flushLock) {
+            // Chỉ để chờ lượt flush đang chạy kết thúc
+        }
+    }
+
+    private boolean persistedLiked(LikeKey key) {
+        Boolean inflight = inflightLikes.get(key);
+        return inflight != null ? inflight : likeRepository.existsByPostIdAndUserId(key.postId, key.userId);
+    }
+
+    private long currentLikes(Long postId) {
+        long total = 0;
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long version = counterVersion.get();
+            Integer persisted = postRepository.findTotalLikes(postId);
+            total = Math.max(0, (persisted == null ? 0 : persisted) + pendingLikeDelta(postId));
+            if ((version & 1) == 0 && version == counterVersion.get()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /** Trả về id tác giả của bài. */
+    private Long validate(Long postId, Long userId) {
+        if (postId == null || userId == null) {
+            throw new IllegalArgumentException("postId and userId are required");
+        }
+        Long authorId = postRepository.findAuthorId(postId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return authorId;
+    }
+
+    private static long pendingDelta(ConcurrentHashMap<Long, LongAdder> deltas, ConcurrentHashMap<Long, Long> inflight,
+                                     Long postId) {
+        LongAdder adder = deltas.get(postId);
+        Long writing = inflight.get(postId);
+        return (adder == null ? 0 : adder.sum()) + (writing == null ? 0 : writing);
+    }
+
+    /**
+     * Chuyển phần chênh lệch của mọi bài sang inflight. Adder về 0 thì bị bỏ khỏi map để map
+     * không phình theo số bài từng được tương tác.
+     */
+    private static Map<Long, Long> drain(ConcurrentHashMap<Long, LongAdder> deltas, ConcurrentHashMap<Long, Long> inflight) {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : deltas.entrySet()) {
+            Long postId = entry.getKey();
+            LongAdder adder = entry.getValue();
+            long delta = adder.sum();
+            if (delta == 0) {
+                removeIfZero(deltas, postId, adder);
+                continue;
+            }
+            // Ghi sang inflight trước rồi mới trừ khỏi adder, để đọc đồng thời không bị hụt
+            inflight.merge(postId, delta, Long::sum);
+            adder.add(-delta);
+            drained.put(postId, delta);
+        }
+        return drained;
+    }
+
+    private static void pruneZero(ConcurrentHashMap<Long, LongAdder> deltas) {
+        for (Map.Entry<Long, LongAdder> entry : deltas.entrySet()) {
+            if (entry.getValue().sum() == 0) {
+                removeIfZero(deltas, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /** Bỏ adder khỏi map; phần cộng vào muộn sau khi bỏ được chuyển sang adder mới. */
+    private static void removeIfZero(ConcurrentHashMap<Long, LongAdder> deltas, Long postId, LongAdder adder) {
+        if (deltas.remove(postId, adder)) {
+            long late = adder.sumThenReset();
+            if (late != 0) {
+                deltas.computeIfAbsent(postId, id -> new LongAdder()).add(late);
+            }
+        }
+    }
+
+    /** Cộng sign vào bài của những dòng batch thực sự thay đổi (0 = INSERT IGNORE trùng / DELETE không khớp). */
+    private static void addApplied(Map<Long, Long> deltas, List<Object[]> rows, int[] counts, long sign) {
+        for (int i = 0; i < rows.size(); i++) {
+            // SUCCESS_NO_INFO (driver không báo số dòng) coi như đã thay đổi
+            if (i < counts.length && counts[i] == 0) {
+                continue;
+            }
+            deltas.merge((Long) rows.get(i)[0], sign, Long::sum);
+        }
+    }
+
+    private static List<Object[]> toArgs(Map<Long, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> args.add(new Object[]{delta, postId}));
+        return args;
+    }
+}
@@ -0,0 +1,222 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.Post;
+import com.mimi.domain.PostImage;
+import com.mimi.domain.User;
+import com.mimi.dto.projection.PostRow;
+import com.mimi.dto.request.CreatePostRequest;
+import com.mimi.dto.response.CommentResponse;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.PostResponse;
+import com.mimi.event.PostCreatedEvent;
+import com.mimi.repository.CommentRepository;
+import com.mimi.repository.LikeRepository;
+import com.mimi.repository.PostImageRepository;
+import com.mimi.repository.PostRepository;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.PostEngagementService;
+import com.mimi.service.PostService;
+import com.mimi.util.Cursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class PostServiceImpl implements PostService {
+
+    private static final int MAX_CONTENT_LENGTH = 5000;
+    private static final int MAX_IMAGES = 10;
+    private static final int COUNTER_READ_ATTEMPTS = 3;
+    private static final int DEFAULT_COMMENT_LIMIT = 20;
+    private static final int MAX_COMMENT_LIMIT = 100;
+    private static final int MAX_COMMENT_PREVIEW = 5;
+
+    private final PostRepository postRepository;
+    private final PostImageRepository postImageRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final PostEngagementService engagementService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public PostResponse createPost(Long authorId, CreatePostRequest request) {
+        if (authorId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        String content = request.getContent() == null ? "" : request.getContent().trim();
+        List<String> imageUrls = request.getImageUrls() == null ? List.of() : request.getImageUrls();
+        if (content.isEmpty() && imageUrls.isEmpty()) {
+            throw new IllegalArgumentException("Post must have content or images");
+        }
+        if (content.length() > MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("Content is too long");
+        }
+        if (imageUrls.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("Too many images");
+        }
+        User author = userRepository.findById(authorId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        Post post = new Post();
+        post.setUser(author);
+        post.setContent(content);
+        List<PostImage> images = new ArrayList<>();
+        for (String url : imageUrls) {
+            if (url != null && !url.isBlank()) {
+                images.add(new PostImage(null, post, url));
+            }
+        }
+        post.setImages(images);
+        Post saved = postRepository.save(post);
+
+        eventPublisher.publishEvent(new PostCreatedEvent(saved.getId(), author.getId(), saved.getCreatedAt()));
+
+        List<String> urls = new ArrayList<>();
+        for (PostImage image : images) {
+            urls.add(image.getImageUrl());
+        }
+        return new PostResponse(saved.getId(), saved.getContent(), saved.getCreatedAt(), author.getId(),
+                author.getUsername(), author.getFullName(), author.getAvatarUrl(), urls, 0L, 0L, false, null);
+    }
+
+    @Override
+    public PostResponse getPost(Long postId, Long viewerId) {
+        List<PostResponse> result = getPostResponsesByIds(List.of(postId), viewerId);
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("Post not found");
+        }
+        return result.get(0);
+    }
+
+    /**
+     * Không chạy trong transaction: nếu job flush bộ đếm chạy xen giữa lúc đọc cột đếm và lúc đọc phần đang chờ
+     * thì đọc lại cột đếm, và lần đọc lại phải thấy dữ liệu vừa commit (snapshot mới).
+     */
+    @Override
+    public List<PostResponse> getPostResponsesByIds(List<Long> ids, Long viewerId) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        long version = engagementService.counterVersion();
+        Map<Long, PostRow> rows = new HashMap<>();
+        for (PostRow row : postRepository.findRowsByIdIn(ids)) {
+            rows.put(row.getId(), row);
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> images = new HashMap<>();
+        for (Object[] row : postImageRepository.findUrlsByPostIdIn(rows.keySet())) {
+            images.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        Set<Long> liked = viewerId == null ? Set.of() : new HashSet<>(likeRepository.findLikedPostIds(viewerId, ids));
+
+        // Bộ đếm = giá trị đã ghi trong posts + phần like/bình luận đang chờ flush
+        Map<Long, long[]> counters = new HashMap<>();
+        for (PostRow row : rows.values()) {
+            counters.put(row.getId(), new long[]{nullToZero(row.getTotalLikes()), nullToZero(row.getTotalComments())});
+        }
+        for (int attempt = 0; attempt < COUNTER_READ_ATTEMPTS; attempt++) {
+            Map<Long, long[]> pending = new HashMap<>();
+            for (Long id : rows.keySet()) {
+                pending.put(id, new long[]{engagementService.pendingLikeDelta(id), engagementService.pendingCommentDelta(id)});
+            }
+            long after = engagementService.counterVersion();
+            if ((version & 1) == 0 && version == after || attempt == COUNTER_READ_ATTEMPTS - 1) {
+                pending.forEach((id, delta) -> {
+                    long[] c = counters.get(id);
+                    c[0] = Math.max(0, c[0] + delta[0]);
+                    c[1] = Math.max(0, c[1] + delta[1]);
+                });
+                break;
+            }
+            version = after;
+            for (Object[] row : postRepository.findCountersByIdIn(rows.keySet())) {
+                counters.put((Long) row[0], new long[]{nullToZero((Integer) row[1]), nullToZero((Integer) row[2])});
+            }
+        }
+
+        List<PostResponse> result = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            PostRow row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            Boolean likedByMe = null;
+            if (viewerId != null) {
+                Boolean pending = engagementService.pendingLikeState(id, viewerId);
+                likedByMe = pending != null ? pending : liked.contains(id);
+            }
+            long[] c = counters.get(id);
+            result.add(new PostResponse(row.getId(), row.getContent(), row.getCreatedAt(), row.getAuthorId(),
+                    row.getAuthorUsername(), row.getAuthorFullName(), row.getAuthorAvatarUrl(),
+                    images.getOrDefault(id, List.of()), c[0], c[1], likedByMe, null));
+        }
+        return result;
+    }
+
+    @Override
+    public CursorPageResponse<CommentResponse> getComments(Long postId, String cursor, Integer limit) {
+        if (!postRepository.existsById(postId)) {
+            throw new IllegalArgumentException("Post not found");
+        }
+        int size = limit == null ? DEFAULT_COMMENT_LIMIT : Math.max(1, Math.min(limit, MAX_COMMENT_LIMIT));
+        Cursor after = Cursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<CommentResponse> comments = after == null
+                ? commentRepository.findFirstPageByPost(postId, page)
+                : commentRepository.findPageByPostAfter(postId, after.getCreatedAt(), after.getId(), page);
+
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            CommentResponse last = comments.get(size - 1);
+            nextCursor = Cursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageResponse<>(comments, nextCursor);
+    }
+
+    @Override
+    public void attachCommentPreviews(List<PostResponse> posts, int perPost) {
+        if (posts.isEmpty() || perPost <= 0) {
+            return;
+        }
+        Map<Long, List<CommentResponse>> byPost = new HashMap<>();
+        for (PostResponse post : posts) {
+            byPost.put(post.getId(), new ArrayList<>());
+        }
+        for (Object[] row : commentRepository.findLatestPerPost(byPost.keySet(), Math.min(perPost, MAX_COMMENT_PREVIEW))) {
+            Long postId = ((Number) row[1]).longValue();
+            byPost.get(postId).add(new CommentResponse(((Number) row[0]).longValue(), postId, (String) row[2],
+                    toLocalDateTime(row[3]), ((Number) row[4]).longValue(), (String) row[5], (String) row[6],
+                    (String) row[7]));
+        }
+        for (PostResponse post : posts) {
+            post.setCommentPreview(byPost.get(post.getId()));
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime) return (LocalDateTime) value;
+        if (value instanceof Timestamp) return ((Timestamp) value).toLocalDateTime();
+        return null;
+    }
+
+    private static long nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mimi.service.impl;
+
+import com.mimi.dto.response.ProductBatchResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.dto.response.ProductSummaryResponse;
+import com.mimi.repository.ProductImageRepository;
+import com.mimi.repository.ProductRepository;
+import com.mimi.service.ProductBatchService;
+import com.mimi.service.ProductDetailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lấy nhiều sản phẩm một lần cho giỏ hàng / tóm tắt đơn. Sản phẩm đã có trong cache trang chi tiết được dùng
+ * luôn; phần còn lại nạp bằng hai truy vấn IN (sản phẩm kèm tên người bán, rồi ảnh đầu tiên của mỗi sản phẩm)
+ * bất kể bao nhiêu id.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductBatchServiceImpl implements ProductBatchService {
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final ProductDetailService productDetailService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductBatchResponse getProducts(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids is required");
+        }
+        LinkedHashSet<Long> uniqueIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                uniqueIds.add(id);
+            }
+        }
+        if (uniqueIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+
+        Map<Long, ProductSummaryResponse> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            ProductResponse cached = productDetailService.getCachedProduct(id);
+            if (cached != null) {
+                found.put(id, toSummary(cached));
+            } else {
+                toLoad.add(id);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            for (ProductSummaryResponse summary : productRepository.findSummariesByIdIn(toLoad)) {
+                found.put(summary.getId(), summary);
+            }
+            for (Object[] row : productImageRepository.findFirstImageUrls(toLoad)) {
+                ProductSummaryResponse summary = found.get(((Number) row[0]).longValue());
+                if (summary != null) {
+                    summary.setThumbnailUrl((String) row[1]);
+                }
+            }
+        }
+
+        List<ProductSummaryResponse> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            ProductSummaryResponse summary = found.get(id);
+            if (summary != null) {
+                items.add(summary);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ProductBatchResponse(items, missingIds);
+    }
+
+    private static ProductSummaryResponse toSummary(ProductResponse product) {
+        List<String> images = product.getImages();
+        return new ProductSummaryResponse(product.getId(), product.getName(), product.getTradeType(),
+                product.getBuyPrice(), product.getRentPrice(), product.getRentUnit(), product.getStatus(),
+                product.getSellerId(), product.getSellerName(),
+                images != null && !images.isEmpty() ? images.get(0) : null);
+    }
+}
@@ -0,0 +1,159 @@
+package com.mimi.service.impl;
+
+import com.mimi.dto.response.CategoryPathItemResponse;
+import com.mimi.dto.response.ProductDetailResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.dto.response.SellerProfileResponse;
+import com.mimi.dto.response.VariantMatrixResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.event.ProductImagesChangedEvent;
+import com.mimi.event.VariantStockChangedEvent;
+import com.mimi.repository.ProductCertificateRepository;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.CategoryTree;
+import com.mimi.service.ProductDetailService;
+import com.mimi.service.ProductService;
+import com.mimi.service.ProductVariantService;
+import com.mimi.util.TtlCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Dựng tài liệu trang chi tiết sản phẩm. Mỗi tập con (sản phẩm kèm seller/danh mục rồi ảnh, biến thể,
+ * giấy tờ, hồ sơ người bán) là một truy vấn projection riêng theo productId, không fetch-join nhiều collection
+ * cùng lúc (tránh tích Descartes ảnh × biến thể × giấy tờ), và vì không phụ thuộc nhau nên chạy song song trên
+ * productDetailExecutor, mỗi luồng một persistence context riêng. Đường dẫn danh mục lấy từ CategoryTree
+ * dùng chung. Kết quả được serialize một lần và cache dạng byte kèm ETag (MD5 của nội dung, không tính
+ * generatedAt); sản phẩm, biến thể, tồn kho hay ảnh thay đổi thì bản cache bị bỏ sau khi transaction commit.
+ */
+@Service
+public class ProductDetailServiceImpl implements ProductDetailService {
+
+    private final ProductService productService;
+    private final ProductVariantService productVariantService;
+    private final ProductCertificateRepository certificateRepository;
+    private final UserRepository userRepository;
+    private final CategoryTree categoryTree;
+    private final ThreadPoolTaskExecutor productDetailExecutor;
+    private final JsonMapper jsonMapper;
+    private final TtlCache<Long, Document> cache;
+
+    public ProductDetailServiceImpl(ProductService productService,
+                                    ProductVariantService productVariantService,
+                                    ProductCertificateRepository certificateRepository,
+                                    UserRepository userRepository,
+                                    CategoryTree categoryTree,
+                                    @Qualifier("productDetailExecutor") ThreadPoolTaskExecutor productDetailExecutor,
+                                    JsonMapper jsonMapper,
+                                    @Value("${catalog.product-detail.cache-ttl-seconds:30}") long cacheTtlSeconds) {
+        this.productService = productService;
+        this.productVariantService = productVariantService;
+        this.certificateRepository = certificateRepository;
+        this.userRepository = userRepository;
+        this.categoryTree = categoryTree;
+        this.productDetailExecutor = productDetailExecutor;
+        this.jsonMapper = jsonMapper;
+        this.cache = new TtlCache<>(TimeUnit.SECONDS.toMillis(cacheTtlSeconds), 10_000);
+    }
+
+    @Override
+    public Document getDetail(Long productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product not found");
+        }
+        return cache.get(productId, this::build);
+    }
+
+    @Override
+    public ProductResponse getCachedProduct(Long productId) {
+        Document document = productId != null ? cache.getIfPresent(productId) : null;
+        return document != null ? document.getProduct() : null;
+    }
+
+    @Override
+    public void evict(Long productId) {
+        if (productId != null) {
+            cache.invalidate(productId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVariantStockChanged(VariantStockChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductImagesChanged(ProductImagesChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    private Document build(Long productId) {
+        CompletableFuture<List<ProductResponse>> product = load(
+                () -> productService.getProductResponsesByIds(List.of(productId)));
+        CompletableFuture<VariantMatrixResponse> variants = load(() -> productVariantService.getVariantMatrix(productId));
+        CompletableFuture<List<String>> certificates = load(
+                () -> certificateRepository.findImageUrlsByProductId(productId));
+        CompletableFuture<SellerProfileResponse> seller = load(
+                () -> userRepository.findSellerProfileByProductId(productId).orElse(null));
+
+        List<ProductResponse> found = join(product);
+        if (found.isEmpty()) {
+            throw new IllegalArgumentException("Product not found");
+        }
+        ProductResponse root = found.get(0);
+        ProductDetailResponse detail = new ProductDetailResponse();
+        detail.setProduct(root);
+        detail.setVariants(join(variants));
+        detail.setCertificates(join(certificates));
+        detail.setSeller(join(seller));
+        detail.setCategoryPath(categoryPath(root.getCategoryId()));
+
+        // ETag chỉ theo nội dung: dựng lại mà không có gì đổi thì client vẫn nhận 304
+        String etag = "\"" + DigestUtils.md5DigestAsHex(jsonMapper.writeValueAsBytes(detail)) + "\"";
+        detail.setGeneratedAt(LocalDateTime.now());
+        return new Document(jsonMapper.writeValueAsBytes(detail), etag, root);
+    }
+
+    private <T> CompletableFuture<T> load(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, productDetailExecutor);
+        } catch (RejectedExecutionException rejected) {
+            // Executor đã dừng (đang tắt ứng dụng): chạy ngay trên luồng hiện tại
+            return CompletableFuture.completedFuture(query.get());
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private List<CategoryPathItemResponse> categoryPath(Long categoryId) {
+        return categoryId == null ? Collections.emptyList() : categoryTree.pathFromRoot(categoryId);
+    }
+}
@@ -2,15 +2,25 @@ package com.mimi.service.impl;
 
 import com.mimi.domain.Category;
 import com.mimi.domain.Product;
+import com.mimi.domain.ProductImage;
 import com.mimi.domain.User;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.event.ProductChangedEvent;
 import com.mimi.repository.CategoryRepository;
+import com.mimi.repository.ProductImageRepository;
 import com.mimi.repository.ProductRepository;
 import com.mimi.repository.UserRepository;
 import com.mimi.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +29,8 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductImageRepository productImageRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Product> getAllProducts() {
@@ -31,6 +43,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public Product saveProduct(Product product) {
         // Nếu request gửi seller.id thì dùng user đó làm người bán; nếu không mới dùng user đầu tiên (mặc định)
         if (product.getSeller() != null && product.getSeller().getId() != null) {
@@ -50,10 +63,13 @@ public class ProductServiceImpl implements ProductService {
             product.setCategory(defaultCategory);
         }
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), false));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Product updateProduct(Long id, Product product) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -66,12 +82,16 @@ public class ProductServiceImpl implements ProductService {
         existingProduct.setStatus(product.getStatus());
         existingProduct.setTradeType(product.getTradeType());
         
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), false));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, true));
     }
 
     @Override
@@ -79,4 +99,76 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Nạp danh sách sản phẩm theo id trong 2 truy vấn (sản phẩm kèm seller/category, rồi toàn bộ ảnh),
+     * giữ đúng thứ tự id truyền vào và bỏ qua id không tồn tại.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductResponsesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        LinkedHashSet<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, Product> products = new HashMap<>();
+        for (Product p : productRepository.findAllWithSellerAndCategoryByIdIn(uniqueIds)) {
+            products.put(p.getId(), p);
+        }
+        List<Product> ordered = new ArrayList<>(products.size());
+        for (Long id : uniqueIds) {
+            Product product = products.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return toProductResponses(ordered);
+    }
+
+    @Override
+    public List<ProductResponse> toProductResponses(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        Map<Long, List<String>> images = new HashMap<>();
+        for (ProductImage img : productImageRepository.findByProductIdInOrderByIdAsc(ids)) {
+            images.computeIfAbsent(img.getProduct().getId(), k -> new ArrayList<>()).add(img.getImageUrl());
+        }
+        List<ProductResponse> responses = new ArrayList<>(products.size());
+        for (Product product : products) {
+            responses.add(toResponse(product, images.get(product.getId())));
+        }
+        return responses;
+    }
+
+    private ProductResponse toResponse(Product product, List<String> images) {
+        ProductResponse response = new ProductResponse();
+        response.setId(product.getId());
+        response.setName(product.getName());
+        response.setDescription(product.getDescription());
+        response.setConditionPercentage(product.getConditionPercentage());
+        response.setTradeType(product.getTradeType());
+        response.setBuyPrice(product.getBuyPrice());
+        response.setRentPrice(product.getRentPrice());
+        response.setRentUnit(product.getRentUnit());
+        response.setStatus(product.getStatus());
+        response.setAddressContact(product.getAddressContact());
+        response.setFeatured(product.getFeatured());
+        response.setIsNew(product.getIsNew());
+        response.setCreatedAt(product.getCreatedAt());
+        if (product.getSeller() != null) {
+            response.setSellerId(product.getSeller().getId());
+            response.setSellerName(product.getSeller().getFullName());
+        }
+        if (product.getCategory() != null) {
+            response.setCategoryId(product.getCategory().getId());
+            response.setCategoryName(product.getCategory().getName());
+        }
+        response.setImages(images);
+        return response;
+    }
+}
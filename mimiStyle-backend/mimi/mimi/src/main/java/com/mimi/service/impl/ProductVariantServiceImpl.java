@@ -0,0 +1,384 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.Product;
+import com.mimi.domain.ProductVariant;
+import com.mimi.dto.request.VariantRequest;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.dto.response.VariantMatrixResponse;
+import com.mimi.dto.response.VariantResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.event.VariantStockChangedEvent;
+import com.mimi.repository.ProductRepository;
+import com.mimi.repository.ProductVariantRepository;
+import com.mimi.service.CategoryTree;
+import com.mimi.service.ProductService;
+import com.mimi.service.ProductVariantService;
+import com.mimi.util.Cursor;
+import com.mimi.util.LongLongHashMap;
+import com.mimi.util.TextFolding;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Biến thể (size × màu) của sản phẩm và chỉ mục "còn hàng" để lọc tin theo size/màu.
+ * Mỗi sản phẩm đang bán có một số thứ tự (ordinal); chỉ mục giữ một BitSet trên các ordinal cho mỗi size,
+ * mỗi màu, mỗi cặp size+màu còn hàng và mỗi danh mục, nên "size X, màu Y, còn hàng, trong danh mục C" là
+ * phép AND vài BitSet. Size/màu được bỏ dấu, chữ thường ("Đỏ" = "do"). Khi biến thể, tồn kho hay sản phẩm thay
+ * đổi, bit của riêng sản phẩm đó được tính lại sau commit. Ordinal chỉ có ý nghĩa trong một lần chạy nên
+ * cursor phân trang gắn với thời điểm dựng chỉ mục.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductVariantServiceImpl implements ProductVariantService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+    private static final int LOAD_BATCH = 5_000;
+    private static final String SIZE = "s:";
+    private static final String COLOR = "c:";
+    private static final String PAIR = "p:";
+
+    private final ProductVariantRepository variantRepository;
+    private final ProductRepository productRepository;
+    private final CategoryTree categoryTree;
+    private final ProductService productService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Truy vấn giữ read lock, cập nhật/nạp lại giữ write lock. */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    /** ordinal → productId */
+    private long[] productIds = new long[1024];
+    private int ordinalCount;
+    /** productId → ordinal + 1 */
+    private final LongLongHashMap ordinals = new LongLongHashMap(1024);
+    /** Khóa size/màu/cặp → các ordinal còn hàng */
+    private final Map<String, BitSet> stock = new HashMap<>();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    /** ordinal → khóa và danh mục đang bật, để xóa đúng bit khi tính lại */
+    private final Map<Integer, String[]> keysOf = new HashMap<>();
+    private final Map<Integer, Long> categoryOf = new HashMap<>();
+    private final Object[] refreshStripes = newStripes(16);
+
+    @Override
+    public VariantMatrixResponse getVariantMatrix(Long productId) {
+        List<VariantResponse> variants = variantRepository.findResponsesByProductId(productId);
+        if (variants.isEmpty()) {
+            return null;
+        }
+        Set<String> sizes = new LinkedHashSet<>();
+        Set<String> colors = new LinkedHashSet<>();
+        for (VariantResponse variant : variants) {
+            if (variant.getSize() != null) {
+                sizes.add(variant.getSize());
+            }
+            if (variant.getColor() != null) {
+                colors.add(variant.getColor());
+            }
+        }
+        return new VariantMatrixResponse(new ArrayList<>(sizes), new ArrayList<>(colors), variants);
+    }
+
+    @Override
+    @Transactional
+    public VariantResponse addVariant(Long productId, VariantRequest request) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        ProductVariant variant = new ProductVariant();
+        variant.setProduct(product);
+        apply(variant, request);
+        ProductVariant saved = variantRepository.save(variant);
+        eventPublisher.publishEvent(new VariantStockChangedEvent(productId));
+        return toResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    public VariantResponse updateVariant(Long productId, Long variantId, VariantRequest request) {
+        ProductVariant variant = findVariant(productId, variantId);
+        apply(variant, request);
+        ProductVariant saved = variantRepository.save(variant);
+        eventPublisher.publishEvent(new VariantStockChangedEvent(productId));
+        return toResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    public void deleteVariant(Long productId, Long variantId) {
+        variantRepository.delete(findVariant(productId, variantId));
+        eventPublisher.publishEvent(new VariantStockChangedEvent(productId));
+    }
+
+    @Override
+    public CursorPageResponse<ProductResponse> findAvailable(String size, String color, Long categoryId,
+                                                             String cursor, Integer limit) {
+        String sizeKey = TextFolding.fold(size);
+        String colorKey = TextFolding.fold(color);
+        if (sizeKey.isEmpty() && colorKey.isEmpty()) {
+            throw new IllegalArgumentException("size or color is required");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        int before = decodeCursor(cursor);
+        List<Long> categories = categoryId == null ? null : categoryTree.selfAndDescendants(categoryId);
+
+        List<Long> ids = new ArrayList<>(pageSize + 1);
+        int lastOrdinal = -1;
+        lock.readLock().lock();
+        try {
+            BitSet base = stock.get(!sizeKey.isEmpty() && !colorKey.isEmpty() ? PAIR + sizeKey + "|" + colorKey
+                    : !sizeKey.isEmpty() ? SIZE + sizeKey : COLOR + colorKey);
+            if (base != null) {
+                BitSet matches = (BitSet) base.clone();
+                if (categories != null) {
+                    BitSet inCategory = new BitSet();
+                    for (Long id : categories) {
+                        BitSet bits = byCategory.get(id);
+                        if (bits != null) {
+                            inCategory.or(bits);
+                        }
+                    }
+                    matches.and(inCategory);
+                }
+                // Ordinal lớn trước (sản phẩm mới trước)
+                for (int i = matches.previousSetBit(Math.min(before, ordinalCount) - 1);
+                     i >= 0 && ids.size() <= pageSize; i = matches.previousSetBit(i - 1)) {
+                    ids.add(productIds[i]);
+                    lastOrdinal = i;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = Cursor.encodeKey(epoch, (long) lastOrdinal + 1);
+        }
+        return new CursorPageResponse<>(productService.getProductResponsesByIds(ids), nextCursor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long startedAt = System.nanoTime();
+        categoryTree.reload();
+        lock.writeLock().lock();
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Object[]> rows = productRepository.findActiveRankingRowsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+                for (Object[] row : rows) {
+                    afterId = ((Number) row[0]).longValue();
+                    if (!ordinals.containsKey(afterId)) {
+                        setCategoryLocked(ordinalFor(afterId), row[1] == null ? null : ((Number) row[1]).longValue());
+                    }
+                }
+                if (rows.size() < LOAD_BATCH) {
+                    break;
+                }
+            }
+
+            Map<Integer, Set<String>> keys = new HashMap<>();
+            long afterVariantId = 0;
+            while (true) {
+                List<Object[]> rows = variantRepository.findInStockRowsAfter(afterVariantId, PageRequest.of(0, LOAD_BATCH));
+                for (Object[] row : rows) {
+                    afterVariantId = ((Number) row[0]).longValue();
+                    long ordinal = ordinals.get(((Number) row[1]).longValue());
+                    if (ordinal != 0) {
+                        addKeys(keys.computeIfAbsent((int) ordinal - 1, o -> new LinkedHashSet<>()),
+                                (String) row[2], (String) row[3]);
+                    }
+                }
+                if (rows.size() < LOAD_BATCH) {
+                    break;
+                }
+            }
+            for (Map.Entry<Integer, Set<String>> entry : keys.entrySet()) {
+                setKeysLocked(entry.getKey(), entry.getValue().toArray(new String[0]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Variant availability index loaded: {} products, {} size/color keys in {} ms", ordinalCount,
+                stock.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVariantStockChanged(VariantStockChangedEvent event) {
+        refresh(event.getProductId(), false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.getProductId(), event.isDeleted());
+    }
+
+    /**
+     * Tính lại bit của một sản phẩm từ DB (trạng thái, danh mục, biến thể còn hàng). Các lần tính lại cùng
+     * sản phẩm nối tiếp nhau (khóa theo stripe) để kết quả đọc sau không bị kết quả đọc trước ghi đè.
+     */
+    private void refresh(Long productId, boolean deleted) {
+        if (productId == null) {
+            return;
+        }
+        synchronized (refreshStripes[(int) (productId & (refreshStripes.length - 1))]) {
+            refreshStripe(productId, deleted);
+        }
+    }
+
+    private void refreshStripe(Long productId, boolean deleted) {
+        List<Object[]> product = deleted ? List.of() : productRepository.findActiveSimilarityRow(productId);
+        Set<String> keys = new LinkedHashSet<>();
+        Long categoryId = null;
+        if (!product.isEmpty()) {
+            Object[] row = product.get(0);
+            categoryId = row[1] == null ? null : ((Number) row[1]).longValue();
+            for (Object[] variant : variantRepository.findInStockKeys(productId)) {
+                addKeys(keys, (String) variant[0], (String) variant[1]);
+            }
+            if (categoryId != null) {
+                // Danh mục mới tạo: nạp lại cây ngoài write lock để lần lọc theo danh mục cha sau thấy nó
+                categoryTree.contains(categoryId);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            long existing = ordinals.get(productId);
+            if (product.isEmpty()) {
+                // Không còn bán: xóa mọi bit, giữ ordinal để cursor đang dùng không bị lệch
+                if (existing != 0) {
+                    setKeysLocked((int) existing - 1, new String[0]);
+                    setCategoryLocked((int) existing - 1, null);
+                }
+                return;
+            }
+            int ordinal = existing != 0 ? (int) existing - 1 : ordinalFor(productId);
+            setCategoryLocked(ordinal, categoryId);
+            setKeysLocked(ordinal, keys.toArray(new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int ordinalFor(long productId) {
+        if (ordinalCount == productIds.length) {
+            productIds = Arrays.copyOf(productIds, ordinalCount * 2);
+        }
+        int ordinal = ordinalCount++;
+        productIds[ordinal] = productId;
+        ordinals.put(productId, ordinal + 1L);
+        return ordinal;
+    }
+
+    private void setKeysLocked(int ordinal, String[] keys) {
+        String[] previous = keysOf.remove(ordinal);
+        if (previous != null) {
+            for (String key : previous) {
+                BitSet bits = stock.get(key);
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    stock.remove(key);
+                }
+            }
+        }
+        for (String key : keys) {
+            stock.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+        }
+        if (keys.length > 0) {
+            keysOf.put(ordinal, keys);
+        }
+    }
+
+    private void setCategoryLocked(int ordinal, Long categoryId) {
+        Long previous = categoryId == null ? categoryOf.remove(ordinal) : categoryOf.put(ordinal, categoryId);
+        if (previous != null) {
+            byCategory.get(previous).clear(ordinal);
+        }
+        if (categoryId != null) {
+            byCategory.computeIfAbsent(categoryId, c -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static Object[] newStripes(int count) {
+        Object[] stripes = new Object[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Object();
+        }
+        return stripes;
+    }
+
+    private static void addKeys(Set<String> keys, String size, String color) {
+        String sizeKey = TextFolding.fold(size);
+        String colorKey = TextFolding.fold(color);
+        if (!sizeKey.isEmpty()) {
+            keys.add(SIZE + sizeKey);
+        }
+        if (!colorKey.isEmpty()) {
+            keys.add(COLOR + colorKey);
+        }
+        if (!sizeKey.isEmpty() && !colorKey.isEmpty()) {
+            keys.add(PAIR + sizeKey + "|" + colorKey);
+        }
+    }
+
+    /** Ordinal bắt đầu (không gồm) của trang; cursor của lần dựng chỉ mục trước thì không dùng được nữa. */
+    private int decodeCursor(String cursor) {
+        Cursor decoded = Cursor.decodeKey(cursor);
+        if (decoded == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (!epoch.equals(decoded.getKey())) {
+            throw new IllegalArgumentException("Cursor expired");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, decoded.getId());
+    }
+
+    private ProductVariant findVariant(Long productId, Long variantId) {
+        return variantRepository.findById(variantId)
+                .filter(v -> v.getProduct().getId().equals(productId))
+                .orElseThrow(() -> new IllegalArgumentException("Variant not found"));
+    }
+
+    private static void apply(ProductVariant variant, VariantRequest request) {
+        if (request.getStockQuantity() != null && request.getStockQuantity() < 0) {
+            throw new IllegalArgumentException("stockQuantity must not be negative");
+        }
+        if (request.getSize() != null) {
+            variant.setSize(request.getSize().isBlank() ? null : request.getSize().trim());
+        }
+        if (request.getColor() != null) {
+            variant.setColor(request.getColor().isBlank() ? null : request.getColor().trim());
+        }
+        if (request.getStockQuantity() != null) {
+            variant.setStockQuantity(request.getStockQuantity());
+        }
+        if (variant.getSize() == null && variant.getColor() == null) {
+            throw new IllegalArgumentException("size or color is required");
+        }
+    }
+
+    private static VariantResponse toResponse(ProductVariant variant) {
+        return new VariantResponse(variant.getId(), variant.getSize(), variant.getColor(), variant.getStockQuantity());
+    }
+}
@@ -0,0 +1,132 @@
+package com.mimi.service.impl;
+
+import com.mimi.service.ProductViewService;
+import com.mimi.util.LongLongHashMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Đếm lượt xem trang chi tiết sản phẩm mà không ghi DB trên luồng đọc. Mỗi lượt xem chỉ cộng vào một trong
+ * các stripe (LongLongHashMap productId → số lượt, khóa riêng từng stripe nên ít tranh chấp); định kỳ các stripe
+ * được tráo ra và ghi vào product_views_daily bằng một batch upsert trong một transaction (lỗi giữa chừng thì
+ * rollback cả lô rồi ghi lại ở chu kỳ sau, không cộng trùng). Khi tắt ứng dụng phần còn lại được ghi nốt.
+ */
+@Slf4j
+@Service
+public class ProductViewServiceImpl implements ProductViewService {
+
+    private static final int STRIPES = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Stripe[] stripes = newStripes();
+    /** Số đếm của ngày đã qua (tráo ra khi sang ngày) hoặc của lần ghi lỗi, chờ lần flush kế tiếp. */
+    private final Queue<DayCounts> carried = new ConcurrentLinkedQueue<>();
+    private final Object flushLock = new Object();
+
+    public ProductViewServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        if (productId == null || productId <= 0) {
+            return;
+        }
+        long today = LocalDate.now().toEpochDay();
+        Stripe stripe = stripes[stripeOf(productId)];
+        synchronized (stripe) {
+            if (stripe.day != today) {
+                if (!stripe.counts.isEmpty()) {
+                    carried.add(new DayCounts(stripe.day, stripe.counts));
+                    stripe.counts = new LongLongHashMap(64);
+                }
+                stripe.day = today;
+            }
+            stripe.counts.addTo(productId, 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.views.flush-interval-ms:10000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<DayCounts> batch = new ArrayList<>();
+            for (DayCounts counts; (counts = carried.poll()) != null; ) {
+                batch.add(counts);
+            }
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    if (!stripe.counts.isEmpty()) {
+                        batch.add(new DayCounts(stripe.day, stripe.counts));
+                        stripe.counts = new LongLongHashMap(64);
+                    }
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            for (DayCounts counts : batch) {
+                Date day = Date.valueOf(LocalDate.ofEpochDay(counts.day));
+                counts.counts.forEach((productId, views) -> rows.add(new Object[]{productId, day, views}));
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "INSERT INTO product_views_daily (product_id, view_date, views) VALUES (?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE views = views + VALUES(views)", rows));
+            } catch (RuntimeException ex) {
+                // Cả lô đã rollback: giữ lại để chu kỳ sau ghi lại
+                log.warn("Product view flush failed", ex);
+                carried.addAll(batch);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static int stripeOf(long productId) {
+        long h = productId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 60) & (STRIPES - 1);
+    }
+
+    private static Stripe[] newStripes() {
+        Stripe[] result = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            result[i] = new Stripe();
+        }
+        return result;
+    }
+
+    private static final class Stripe {
+        long day = LocalDate.now().toEpochDay();
+        LongLongHashMap counts = new LongLongHashMap(64);
+    }
+
+    private static final class DayCounts {
+        final long day;
+        final LongLongHashMap counts;
+
+        DayCounts(long day, LongLongHashMap counts) {
+            this.day = day;
+            this.counts = counts;
+        }
+    }
+}
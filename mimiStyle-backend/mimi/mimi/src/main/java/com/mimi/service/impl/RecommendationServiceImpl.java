@@ -0,0 +1,355 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.BabyProfile;
+import com.mimi.domain.Category;
+import com.mimi.domain.enums.AgeBand;
+import com.mimi.domain.enums.BabyStatus;
+import com.mimi.domain.enums.ProductStatus;
+import com.mimi.dto.response.BabyRecommendationResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.repository.BabyProfileRepository;
+import com.mimi.repository.CategoryRepository;
+import com.mimi.repository.OrderItemRepository;
+import com.mimi.repository.ProductRepository;
+import com.mimi.repository.ProductViewDailyRepository;
+import com.mimi.service.ProductService;
+import com.mimi.service.RecommendationService;
+import com.mimi.util.LongLongHashMap;
+import com.mimi.util.TopKHeap;
+import com.mimi.util.TtlCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gợi ý "dành cho bé" từ BabyProfile. Mỗi giai đoạn (AgeBand) có bảng độ phù hợp theo danh mục; chỉ mục
+ * giai đoạn → danh sách id sản phẩm đã xếp hạng (độ phù hợp danh mục × độ phổ biến/độ mới của sản phẩm)
+ * được dựng lại định kỳ ngoài luồng request. Mỗi request chỉ tính giai đoạn của các bé, lấy danh sách tương ứng
+ * và trộn xen kẽ; kết quả của user được cache tới khi một bé chuyển giai đoạn hoặc chỉ mục được dựng lại.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private static final int PER_BAND = 200;
+    private static final int MERGED_SIZE = 100;
+    private static final int MAX_LIMIT = 50;
+    private static final int SALES_WINDOW_DAYS = 30;
+    private static final int VIEWS_WINDOW_DAYS = 7;
+    private static final int LOAD_BATCH = 5_000;
+    private static final long LATE_PREGNANCY_WEEKS = 12;
+
+    /** Độ phù hợp theo tên danh mục (chữ thường); danh mục con không có trong bảng dùng giá trị của danh mục cha. */
+    private static final Map<AgeBand, Map<String, Double>> AFFINITY = new EnumMap<>(AgeBand.class);
+
+    static {
+        AFFINITY.put(AgeBand.PREGNANCY_EARLY, Map.of(
+            "nôi cũi", 0.6, "xe đẩy", 0.6, "quần áo", 0.5, "bình sữa", 0.4, "đồ dùng tắm", 0.4, "tã bỉm", 0.3));
+        AFFINITY.put(AgeBand.PREGNANCY_LATE, Map.of(
+            "tã bỉm", 1.0, "bình sữa", 0.9, "nôi cũi", 0.9, "quần áo", 0.8, "đồ dùng tắm", 0.8,
+            "xe đẩy", 0.7, "sữa bột", 0.5));
+        AFFINITY.put(AgeBand.NEWBORN_0_3M, Map.of(
+            "tã bỉm", 1.0, "bình sữa", 1.0, "sữa bột", 0.9, "quần áo", 0.8, "đồ dùng tắm", 0.8,
+            "nôi cũi", 0.7, "xe đẩy", 0.6, "đồ chơi", 0.3));
+        AFFINITY.put(AgeBand.INFANT_3_6M, Map.of(
+            "tã bỉm", 0.9, "sữa bột", 0.9, "bình sữa", 0.8, "xe đẩy", 0.8, "quần áo", 0.8,
+            "đồ chơi", 0.6, "đồ dùng tắm", 0.6, "ghế ăn dặm", 0.5));
+        AFFINITY.put(AgeBand.INFANT_6_12M, Map.of(
+            "ghế ăn dặm", 1.0, "đồ chơi", 0.9, "tã bỉm", 0.8, "sữa bột", 0.8, "quần áo", 0.8,
+            "xe đẩy", 0.7, "bình sữa", 0.5, "giày dép", 0.4));
+        AFFINITY.put(AgeBand.TODDLER_1_3Y, Map.of(
+            "đồ chơi", 1.0, "giày dép", 0.9, "quần áo", 0.9, "ghế ăn dặm", 0.6, "xe đẩy", 0.6,
+            "tã bỉm", 0.6, "sữa bột", 0.6));
+        AFFINITY.put(AgeBand.PRESCHOOL_3Y_PLUS, Map.of(
+            "đồ chơi", 1.0, "quần áo", 0.9, "giày dép", 0.9, "sữa bột", 0.3));
+    }
+
+    private final BabyProfileRepository babyProfileRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductViewDailyRepository productViewDailyRepository;
+    private final ProductService productService;
+
+    private volatile BandIndex index = new BandIndex(0, new EnumMap<>(AgeBand.class), new long[0]);
+    private final TtlCache<Long, UserRecommendations> userCache = new TtlCache<>(60 * 60_000L, 10_000);
+
+    @Override
+    public BabyRecommendationResponse getBabyRecommendations(Long userId, int limit) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        BandIndex current = index;
+        LocalDate today = LocalDate.now();
+
+        UserRecommendations recs = userCache.get(userId, id -> compute(id, current, today));
+        if (recs.version != current.version || !today.isBefore(recs.validUntil)) {
+            // Một bé vừa sang giai đoạn mới hoặc chỉ mục đã được dựng lại
+            recs = compute(userId, current, today);
+            userCache.put(userId, recs);
+        }
+
+        // Lấy dư một chút để bù cho sản phẩm vừa ngừng bán kể từ lần dựng chỉ mục
+        List<Long> ids = new ArrayList<>(Math.min(recs.productIds.length, size * 2));
+        for (int i = 0; i < recs.productIds.length && ids.size() < size * 2; i++) {
+            ids.add(recs.productIds[i]);
+        }
+        List<ProductResponse> products = new ArrayList<>(size);
+        for (ProductResponse product : productService.getProductResponsesByIds(ids)) {
+            if (product.getStatus() == ProductStatus.ACTIVE && !userId.equals(product.getSellerId())) {
+                products.add(product);
+                if (products.size() == size) {
+                    break;
+                }
+            }
+        }
+        return new BabyRecommendationResponse(recs.bands, products);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${recommendation.baby.rebuild-interval-ms:3600000}",
+               initialDelayString = "${recommendation.baby.rebuild-interval-ms:3600000}")
+    public void rebuildIndex() {
+        List<Category> categories = categoryRepository.findAll();
+        Map<Long, Category> categoriesById = new HashMap<>();
+        for (Category category : categories) {
+            categoriesById.put(category.getId(), category);
+        }
+
+        LongLongHashMap sold = new LongLongHashMap(1024);
+        for (Object[] row : orderItemRepository.sumUnitsByProductSince(LocalDateTime.now().minusDays(SALES_WINDOW_DAYS))) {
+            sold.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        LongLongHashMap views = new LongLongHashMap(1024);
+        for (Object[] row : productViewDailyRepository.sumViewsByProductSince(LocalDate.now().minusDays(VIEWS_WINDOW_DAYS))) {
+            views.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        Map<AgeBand, Map<Long, Double>> categoryWeights = new EnumMap<>(AgeBand.class);
+        Map<AgeBand, TopKHeap> heaps = new EnumMap<>(AgeBand.class);
+        for (AgeBand band : AgeBand.values()) {
+            Map<Long, Double> weights = new HashMap<>();
+            for (Category category : categories) {
+                double weight = affinity(band, category, categoriesById);
+                if (weight > 0) {
+                    weights.put(category.getId(), weight);
+                }
+            }
+            categoryWeights.put(band, weights);
+            heaps.put(band, new TopKHeap(PER_BAND));
+        }
+        TopKHeap general = new TopKHeap(PER_BAND);
+
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int products = 0;
+        while (true) {
+            List<Object[]> rows = productRepository.findActiveRankingRowsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (Object[] row : rows) {
+                long productId = ((Number) row[0]).longValue();
+                Long categoryId = row[1] != null ? ((Number) row[1]).longValue() : null;
+                double base = baseScore(sold.containsKey(productId) ? sold.get(productId) : 0,
+                        views.containsKey(productId) ? views.get(productId) : 0, Boolean.TRUE.equals(row[2]), Boolean.TRUE.equals(row[3]), (LocalDateTime) row[4], now);
+                general.offer(productId, base);
+                for (AgeBand band : AgeBand.values()) {
+                    Double weight = categoryWeights.get(band).get(categoryId);
+                    if (weight != null) {
+                        heaps.get(band).offer(productId, weight * base);
+                    }
+                }
+                afterId = productId;
+            }
+            products += rows.size();
+            if (rows.size() < LOAD_BATCH) {
+                break;
+            }
+        }
+
+        Map<AgeBand, long[]> ranked = new EnumMap<>(AgeBand.class);
+        for (Map.Entry<AgeBand, TopKHeap> entry : heaps.entrySet()) {
+            ranked.put(entry.getKey(), entry.getValue().drainDescending());
+        }
+        index = new BandIndex(index.version + 1, ranked, general.drainDescending());
+        log.info("Baby recommendation index rebuilt from {} active products", products);
+    }
+
+    private UserRecommendations compute(Long userId, BandIndex current, LocalDate today) {
+        Set<AgeBand> bands = new LinkedHashSet<>();
+        LocalDate validUntil = LocalDate.MAX;
+        for (BabyProfile baby : babyProfileRepository.findByUserId(userId)) {
+            AgeBand band = bandOf(baby, today);
+            if (band != null) {
+                bands.add(band);
+                LocalDate next = nextBandChange(baby, band);
+                if (next.isBefore(validUntil)) {
+                    validUntil = next;
+                }
+            }
+        }
+
+        long[] merged;
+        if (bands.isEmpty()) {
+            merged = current.general.length > MERGED_SIZE
+                    ? Arrays.copyOf(current.general, MERGED_SIZE) : current.general;
+        } else {
+            merged = interleave(bands, current);
+        }
+        return new UserRecommendations(current.version, new ArrayList<>(bands), merged, validUntil);
+    }
+
+    /**
+     * Trộn xen kẽ danh sách của các giai đoạn (nhiều bé khác tuổi), bỏ trùng, tối đa MERGED_SIZE id. Giai đoạn
+     * chưa có sản phẩm thuộc danh mục phù hợp (danh sách rỗng hoặc ngắn) thì bù bằng danh sách chung.
+     */
+    private static long[] interleave(Set<AgeBand> bands, BandIndex current) {
+        List<long[]> lists = new ArrayList<>(bands.size());
+        for (AgeBand band : bands) {
+            lists.add(current.byBand.getOrDefault(band, new long[0]));
+        }
+        LinkedHashSet<Long> merged = new LinkedHashSet<>();
+        for (int i = 0; merged.size() < MERGED_SIZE; i++) {
+            boolean any = false;
+            for (long[] list : lists) {
+                if (i < list.length) {
+                    any = true;
+                    merged.add(list[i]);
+                    if (merged.size() == MERGED_SIZE) {
+                        break;
+                    }
+                }
+            }
+            if (!any) {
+                break;
+            }
+        }
+        for (int i = 0; i < current.general.length && merged.size() < MERGED_SIZE; i++) {
+            merged.add(current.general[i]);
+        }
+        long[] ids = new long[merged.size()];
+        int i = 0;
+        for (Long id : merged) {
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    private static AgeBand bandOf(BabyProfile baby, LocalDate today) {
+        if (baby.getStatus() == BabyStatus.PREGNANT) {
+            if (baby.getDueDate() == null) {
+                return AgeBand.PREGNANCY_LATE;
+            }
+            long weeksLeft = ChronoUnit.WEEKS.between(today, baby.getDueDate());
+            return weeksLeft > LATE_PREGNANCY_WEEKS ? AgeBand.PREGNANCY_EARLY : AgeBand.PREGNANCY_LATE;
+        }
+        if (baby.getBirthDate() == null) {
+            return null;
+        }
+        long months = ChronoUnit.MONTHS.between(baby.getBirthDate(), today);
+        if (months < 3) {
+            return AgeBand.NEWBORN_0_3M;
+        }
+        if (months < 6) {
+            return AgeBand.INFANT_3_6M;
+        }
+        if (months < 12) {
+            return AgeBand.INFANT_6_12M;
+        }
+        if (months < 36) {
+            return AgeBand.TODDLER_1_3Y;
+        }
+        return AgeBand.PRESCHOOL_3Y_PLUS;
+    }
+
+    /** Ngày bé sang giai đoạn kế tiếp (LocalDate.MAX nếu không còn mốc nào). */
+    private static LocalDate nextBandChange(BabyProfile baby, AgeBand band) {
+        switch (band) {
+            case PREGNANCY_EARLY:
+                return baby.getDueDate().minusWeeks(LATE_PREGNANCY_WEEKS);
+            case NEWBORN_0_3M:
+                return baby.getBirthDate().plusMonths(3);
+            case INFANT_3_6M:
+                return baby.getBirthDate().plusMonths(6);
+            case INFANT_6_12M:
+                return baby.getBirthDate().plusMonths(12);
+            case TODDLER_1_3Y:
+                return baby.getBirthDate().plusMonths(36);
+            default:
+                return LocalDate.MAX;
+        }
+    }
+
+    private static double affinity(AgeBand band, Category category, Map<Long, Category> categoriesById) {
+        Map<String, Double> table = AFFINITY.get(band);
+        Category current = category;
+        // Đi ngược lên danh mục cha (giới hạn độ sâu để tránh vòng lặp khi dữ liệu lỗi)
+        for (int depth = 0; current != null && depth < 5; depth++) {
+            Double weight = current.getName() != null ? table.get(current.getName().trim().toLowerCase(Locale.ROOT)) : null;
+            if (weight != null) {
+                return weight;
+            }
+            current = current.getParentId() != null ? categoriesById.get(current.getParentId()) : null;
+        }
+        return 0;
+    }
+
+    /** Độ phổ biến (bán 30 ngày, lượt xem 7 ngày, thang log) cộng điểm nổi bật và độ mới của tin đăng. */
+    private static double baseScore(long unitsSold, long views, boolean featured, boolean isNew, LocalDateTime createdAt, LocalDateTime now) {
+        double score = 1 + Math.log1p(Math.max(0, unitsSold)) + 0.3 * Math.log1p(Math.max(0, views));
+        if (featured) {
+            score += 0.5;
+        }
+        if (isNew) {
+            score += 0.2;
+        }
+        if (createdAt != null) {
+            long ageDays = Math.max(0, ChronoUnit.DAYS.between(createdAt, now));
+            score += 0.5 * Math.exp(-ageDays / 30.0);
+        }
+        return score;
+    }
+
+    private static final class BandIndex {
+        final long version;
+        final Map<AgeBand, long[]> byBand;
+        final long[] general;
+
+        BandIndex(long version, Map<AgeBand, long[]> byBand, long[] general) {
+            this.version = version;
+            this.byBand = byBand;
+            this.general = general;
+        }
+    }
+
+    private static final class UserRecommendations {
+        final long version;
+        final List<AgeBand> bands;
+        final long[] productIds;
+        final LocalDate validUntil;
+
+        UserRecommendations(long version, List<AgeBand> bands, long[] productIds, LocalDate validUntil) {
+            this.version = version;
+            this.bands = bands;
+            this.productIds = productIds;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -1,28 +1,64 @@
 package com.mimi.service.impl;
 
+import com.mimi.domain.Category;
 import com.mimi.domain.OrderItem;
 import com.mimi.domain.ProductImage;
+import com.mimi.domain.enums.TimeGranularity;
+import com.mimi.dto.projection.SoldItemRow;
+import com.mimi.dto.response.CategoryRevenueResponse;
+import com.mimi.dto.response.ProductPerformanceResponse;
+import com.mimi.dto.response.RevenueBucketResponse;
 import com.mimi.dto.response.RevenueResponse;
+import com.mimi.dto.response.RevenueTimeSeriesResponse;
 import com.mimi.dto.response.SoldProductResponse;
+import com.mimi.repository.CategoryRepository;
 import com.mimi.repository.OrderItemRepository;
 import com.mimi.repository.ProductImageRepository;
+import com.mimi.repository.ProductViewDailyRepository;
 import com.mimi.service.RevenueService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RevenueServiceImpl implements RevenueService {
 
+    private static final String[] CSV_HEADER = {
+        "Mã đơn", "Ngày bán", "Trạng thái", "Mã sản phẩm", "Tên sản phẩm", "Danh mục",
+        "Số lượng", "Đơn giá", "Thành tiền", "Người nhận", "Số điện thoại", "Địa chỉ", "Ghi chú"
+    };
+    /** Đủ cho 5 năm theo ngày */
+    private static final int MAX_BUCKETS = 2000;
+    private static final DateTimeFormatter CSV_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final OrderItemRepository orderItemRepository;
     private final ProductImageRepository productImageRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductViewDailyRepository productViewDailyRepository;
 
     @Override
     @Transactional(readOnly = true)
@@ -35,7 +71,45 @@ public class RevenueServiceImpl implements RevenueService {
             .mapToInt(OrderItem::getQuantity)
             .sum();
         String period = formatPeriod(startDate, endDate);
-        return new RevenueResponse(totalRevenue, totalProductsSold, period);
+        long totalViews = 0;
+        for (Object[] row : findViews(userId, startDate, endDate, category)) {
+            totalViews += toLong(row[3]);
+        }
+        return new RevenueResponse(totalRevenue, totalProductsSold, period, totalViews);
+    }
+
+    /**
+     * Lượt xem và số bán theo từng sản phẩm của seller: sản phẩm có lượt xem nhưng chưa bán vẫn có mặt
+     * (unitsSold = 0). Sắp theo doanh thu rồi lượt xem, giảm dần.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductPerformanceResponse> getProductPerformance(Long userId, LocalDate startDate, LocalDate endDate,
+                                                                  String category) {
+        Map<Long, ProductPerformanceResponse> byProduct = new LinkedHashMap<>();
+        for (Object[] row : findViews(userId, startDate, endDate, category)) {
+            Long productId = ((Number) row[0]).longValue();
+            byProduct.put(productId, new ProductPerformanceResponse(
+                productId, (String) row[1], row[2] != null ? (String) row[2] : "Khác", toLong(row[3]), 0, BigDecimal.ZERO, null));
+        }
+        for (OrderItem item : getSoldItemsForSeller(userId, startDate, endDate, category)) {
+            if (item.getProduct() == null) {
+                continue;
+            }
+            ProductPerformanceResponse perf = byProduct.computeIfAbsent(item.getProduct().getId(), id ->
+                new ProductPerformanceResponse(id, item.getProduct().getName(),
+                    item.getProduct().getCategory() != null ? item.getProduct().getCategory().getName() : "Khác",
+                    0L, 0, BigDecimal.ZERO, null));
+            perf.setUnitsSold(perf.getUnitsSold() + item.getQuantity());
+            perf.setRevenue(perf.getRevenue().add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()))));
+        }
+        List<ProductPerformanceResponse> result = new ArrayList<>(byProduct.values());
+        for (ProductPerformanceResponse perf : result) {
+            perf.setConversionRate(perf.getViews() > 0 ? perf.getUnitsSold() / (double) perf.getViews() : null);
+        }
+        result.sort(Comparator.comparing(ProductPerformanceResponse::getRevenue)
+            .thenComparing(ProductPerformanceResponse::getViews).reversed());
+        return result;
     }
 
     @Override
@@ -47,6 +121,121 @@ public class RevenueServiceImpl implements RevenueService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Doanh thu theo ngày/tuần/tháng: DB gom nhóm theo bucket và danh mục trong một truy vấn,
+     * phía Java chỉ ráp kết quả và điền các bucket trống để biểu đồ liên tục.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueTimeSeriesResponse getRevenueTimeSeries(Long userId, TimeGranularity granularity,
+                                                          LocalDate startDate, LocalDate endDate) {
+        TimeGranularity g = granularity != null ? granularity : TimeGranularity.DAY;
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : defaultStart(g, end);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+
+        List<Object[]> rows = orderItemRepository.aggregateRevenueBuckets(
+            userId, g.name(), start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+
+        Map<LocalDate, RevenueBucketResponse> buckets = new LinkedHashMap<>();
+        for (LocalDate b = bucketStart(start, g); !b.isAfter(end); b = nextBucket(b, g)) {
+            if (buckets.size() >= MAX_BUCKETS) {
+                throw new IllegalArgumentException("Date range is too large for granularity " + g);
+            }
+            buckets.put(b, new RevenueBucketResponse(b, BigDecimal.ZERO, 0L, 0L, new ArrayList<>()));
+        }
+
+        Set<Long> categoryIds = new HashSet<>();
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalUnits = 0;
+        long totalOrders = 0;
+        for (Object[] row : rows) {
+            BigDecimal revenue = toBigDecimal(row[2]);
+            long units = toLong(row[3]);
+            long orders = toLong(row[4]);
+            if (toLong(row[6]) == 1) {
+                totalRevenue = revenue;
+                totalUnits = units;
+                totalOrders = orders;
+                continue;
+            }
+            RevenueBucketResponse bucket = buckets.get(toLocalDate(row[0]));
+            if (bucket == null) continue;
+            if (toLong(row[5]) == 1) {
+                bucket.setRevenue(revenue);
+                bucket.setUnitsSold(units);
+                bucket.setOrderCount(orders);
+            } else {
+                Long categoryId = toLong(row[1]);
+                categoryIds.add(categoryId);
+                bucket.getCategories().add(new CategoryRevenueResponse(categoryId, null, revenue, units, orders));
+            }
+        }
+
+        if (!categoryIds.isEmpty()) {
+            Map<Long, String> names = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+            buckets.values().forEach(bucket -> bucket.getCategories()
+                .forEach(c -> c.setCategoryName(names.getOrDefault(c.getCategoryId(), "Khác"))));
+        }
+
+        return new RevenueTimeSeriesResponse(g, start, end, totalRevenue, totalUnits, totalOrders,
+            new ArrayList<>(buckets.values()));
+    }
+
+    /**
+     * Ghi toàn bộ lịch sử bán hàng ra CSV theo từng dòng: đọc từ cursor của DB và ghi thẳng ra response,
+     * không giữ danh sách trong bộ nhớ và không truy vấn ảnh cho từng dòng.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSoldProductsCsv(Long userId, LocalDate startDate, LocalDate endDate, String category,
+                                      OutputStream out) throws IOException {
+        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : null;
+        String categoryFilter = category != null && !category.isEmpty() ? category : null;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        // BOM để Excel nhận đúng UTF-8 (tiếng Việt)
+        writer.write('\uFEFF');
+        writeCsvLine(writer, CSV_HEADER);
+
+        try (Stream<SoldItemRow> rows = orderItemRepository.streamSoldItemRowsBySeller(
+                userId, startDateTime, endDateTime, categoryFilter)) {
+            Iterator<SoldItemRow> it = rows.iterator();
+            while (it.hasNext()) {
+                SoldItemRow row = it.next();
+                BigDecimal lineTotal = row.getPrice().multiply(BigDecimal.valueOf(row.getQuantity()));
+                writeCsvLine(writer, new String[] {
+                    String.valueOf(row.getOrderId()),
+                    row.getOrderCreatedAt() != null ? row.getOrderCreatedAt().format(CSV_DATE_TIME) : "",
+                    row.getOrderStatus() != null ? row.getOrderStatus().name() : "PENDING",
+                    String.valueOf(row.getProductId()),
+                    row.getProductName(),
+                    row.getCategoryName() != null ? row.getCategoryName() : "Khác",
+                    String.valueOf(row.getQuantity()),
+                    row.getPrice().toPlainString(),
+                    lineTotal.toPlainString(),
+                    row.getShippingName(),
+                    row.getShippingPhone(),
+                    row.getShippingAddress(),
+                    row.getNote()
+                });
+            }
+        }
+        writer.flush();
+    }
+
+    /** Lượt xem theo sản phẩm của seller; không có ngày thì tính từ đầu tới hôm nay. */
+    private List<Object[]> findViews(Long userId, LocalDate startDate, LocalDate endDate, String category) {
+        return productViewDailyRepository.sumViewsBySellerBetween(userId,
+            startDate != null ? startDate : LocalDate.EPOCH,
+            endDate != null ? endDate : LocalDate.now(),
+            category != null && !category.isEmpty() ? category : null);
+    }
+
     /** Lấy order items của seller: không lọc ngày khi startDate/endDate đều null (lấy tất cả đơn đã bán). */
     private List<OrderItem> getSoldItemsForSeller(Long userId, LocalDate startDate, LocalDate endDate, String category) {
         List<OrderItem> soldItems;
@@ -100,6 +289,82 @@ public class RevenueServiceImpl implements RevenueService {
         );
     }
     
+    private LocalDate defaultStart(TimeGranularity granularity, LocalDate end) {
+        switch (granularity) {
+            case WEEK:
+                return end.minusWeeks(11);
+            case MONTH:
+                return end.minusMonths(11);
+            default:
+                return end.minusDays(29);
+        }
+    }
+
+    private LocalDate bucketStart(LocalDate date, TimeGranularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    private LocalDate nextBucket(LocalDate bucket, TimeGranularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return bucket.plusWeeks(1);
+            case MONTH:
+                return bucket.plusMonths(1);
+            default:
+                return bucket.plusDays(1);
+        }
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) return (LocalDate) value;
+        if (value instanceof java.sql.Date) return ((java.sql.Date) value).toLocalDate();
+        if (value instanceof LocalDateTime) return ((LocalDateTime) value).toLocalDate();
+        return value != null ? LocalDate.parse(value.toString().substring(0, 10)) : null;
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) return (BigDecimal) value;
+        if (value instanceof Number) return BigDecimal.valueOf(((Number) value).doubleValue());
+        return BigDecimal.ZERO;
+    }
+
+    private void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) return;
+        // Tên/địa chỉ/ghi chú do người mua nhập: chặn Excel hiểu là công thức (CSV injection)
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
     private String formatPeriod(LocalDate startDate, LocalDate endDate) {
         if (startDate == null && endDate == null) {
             return "Tất cả thời gian";
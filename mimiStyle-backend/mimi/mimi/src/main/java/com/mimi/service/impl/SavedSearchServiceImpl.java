@@ -0,0 +1,298 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.SavedSearch;
+import com.mimi.domain.enums.TradeType;
+import com.mimi.dto.request.CreateSavedSearchRequest;
+import com.mimi.dto.response.SavedSearchResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.repository.CategoryRepository;
+import com.mimi.repository.ProductRepository;
+import com.mimi.repository.SavedSearchRepository;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.CategoryTree;
+import com.mimi.service.NotificationService;
+import com.mimi.service.SavedSearchService;
+import com.mimi.util.ReverseQueryIndex;
+import com.mimi.util.TextFolding;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tìm kiếm đã lưu và thông báo tin đăng mới khớp. Các tìm kiếm nằm trong một ReverseQueryIndex: mỗi tìm kiếm
+ * treo ở bucket (danh mục, từ khóa dài nhất), nên khi một sản phẩm được tạo/sửa chỉ cần ghé các bucket ứng với
+ * danh mục (cùng các danh mục cha) và từng từ trong tên sản phẩm, bỏ qua luôn các tìm kiếm có giá trần thấp hơn
+ * giá của sản phẩm; các điều kiện còn lại (đủ từ khóa, kiểu giao dịch, độ mới) kiểm trên số ít ứng viên đó.
+ * Việc so khớp chạy trên listingAlertExecutor sau khi lưu sản phẩm commit; thông báo được ghi theo lô.
+ */
+@Slf4j
+@Service
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private static final int MAX_PER_USER = 20;
+    private static final int MAX_KEYWORDS = 5;
+    private static final int LOAD_BATCH = 5_000;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryTree categoryTree;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final ThreadPoolTaskExecutor listingAlertExecutor;
+
+    private final ReverseQueryIndex<Query> index = new ReverseQueryIndex<>();
+
+    public SavedSearchServiceImpl(SavedSearchRepository savedSearchRepository,
+                                  ProductRepository productRepository,
+                                  CategoryRepository categoryRepository,
+                                  CategoryTree categoryTree,
+                                  UserRepository userRepository,
+                                  NotificationService notificationService,
+                                  @Qualifier("listingAlertExecutor") ThreadPoolTaskExecutor listingAlertExecutor) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryTree = categoryTree;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.listingAlertExecutor = listingAlertExecutor;
+    }
+
+    @Override
+    public SavedSearchResponse createSavedSearch(Long userId, CreateSavedSearchRequest request) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (request.getCategoryId() != null && !categoryRepository.existsById(request.getCategoryId())) {
+            throw new IllegalArgumentException("Category not found");
+        }
+        if (request.getMaxPrice() != null && request.getMaxPrice().signum() < 0) {
+            throw new IllegalArgumentException("maxPrice must not be negative");
+        }
+        if (request.getMinCondition() != null && (request.getMinCondition() < 0 || request.getMinCondition() > 100)) {
+            throw new IllegalArgumentException("minCondition must be between 0 and 100");
+        }
+        String[] keywords = keywordTokens(request.getKeywords());
+        if (keywords.length > MAX_KEYWORDS) {
+            throw new IllegalArgumentException("At most " + MAX_KEYWORDS + " keywords are allowed");
+        }
+        // Tìm kiếm không có danh mục lẫn từ khóa sẽ khớp gần như mọi tin đăng
+        if (request.getCategoryId() == null && keywords.length == 0) {
+            throw new IllegalArgumentException("categoryId or keywords is required");
+        }
+        if (savedSearchRepository.countByUserId(userId) >= MAX_PER_USER) {
+            throw new IllegalArgumentException("At most " + MAX_PER_USER + " saved searches per user");
+        }
+
+        SavedSearch search = new SavedSearch();
+        search.setUserId(userId);
+        search.setCategoryId(request.getCategoryId());
+        search.setMaxPrice(request.getMaxPrice());
+        search.setTradeType(request.getTradeType());
+        search.setMinCondition(request.getMinCondition());
+        search.setKeywords(keywords.length == 0 ? null : request.getKeywords().trim());
+        SavedSearch saved = savedSearchRepository.save(search);
+        addToIndex(saved);
+        return toResponse(saved);
+    }
+
+    @Override
+    public List<SavedSearchResponse> getSavedSearches(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        List<SavedSearchResponse> result = new ArrayList<>();
+        for (SavedSearch search : savedSearchRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+            result.add(toResponse(search));
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteSavedSearch(Long userId, Long savedSearchId) {
+        SavedSearch search = savedSearchRepository.findById(savedSearchId)
+                .filter(s -> s.getUserId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Saved search not found"));
+        savedSearchRepository.delete(search);
+        index.remove(search.getId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long startedAt = System.nanoTime();
+        categoryTree.reload();
+        long afterId = 0;
+        while (true) {
+            List<SavedSearch> batch = savedSearchRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+                    PageRequest.of(0, LOAD_BATCH));
+            for (SavedSearch search : batch) {
+                addToIndex(search);
+                afterId = search.getId();
+            }
+            if (batch.size() < LOAD_BATCH) {
+                break;
+            }
+        }
+        log.info("Saved search index loaded: {} searches in {} ms", index.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /** Tin đăng mới/sửa: so khớp ngoài luồng request, sau khi dữ liệu đã commit. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted() || event.getProductId() == null) {
+            return;
+        }
+        Long productId = event.getProductId();
+        listingAlertExecutor.execute(() -> {
+            try {
+                matchProduct(productId);
+            } catch (RuntimeException ex) {
+                log.warn("Saved search matching failed for product {}", productId, ex);
+            }
+        });
+    }
+
+    private void matchProduct(Long productId) {
+        List<Object[]> rows = productRepository.findActiveAlertRow(productId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        Listing listing = new Listing(rows.get(0));
+        // Tìm kiếm theo danh mục cha khớp cả tin đăng ở danh mục con
+        long[] categories = categoryTree.selfAndAncestors(listing.categoryId);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TextFolding.fold(listing.name).split(" ")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        index.forEachCandidate(categories, tokens, listing.minPrice(), query -> {
+            if (query.userId != listing.sellerId && query.matches(listing, tokens)) {
+                notificationService.enqueueListingMatch(query.userId, listing.id, listing.name, query.id);
+            }
+        });
+    }
+
+    private void addToIndex(SavedSearch search) {
+        String[] keywords = keywordTokens(search.getKeywords());
+        // Neo bằng từ khóa dài nhất (thường hiếm nhất); tin đăng phải chứa đủ mọi từ nên neo bằng từ nào cũng đúng
+        String anchor = "";
+        for (String keyword : keywords) {
+            if (keyword.length() > anchor.length()) {
+                anchor = keyword;
+            }
+        }
+        Query query = new Query(search, keywords);
+        index.put(query.id, search.getCategoryId() == null ? 0L : search.getCategoryId(), anchor, query.maxPrice, query);
+    }
+
+    private static String[] keywordTokens(String keywords) {
+        String folded = TextFolding.fold(keywords);
+        if (folded.isEmpty()) {
+            return new String[0];
+        }
+        return new LinkedHashSet<>(List.of(folded.split(" "))).toArray(new String[0]);
+    }
+
+    private static SavedSearchResponse toResponse(SavedSearch search) {
+        return new SavedSearchResponse(search.getId(), search.getCategoryId(), search.getMaxPrice(),
+                search.getTradeType(), search.getMinCondition(), search.getKeywords(), search.getCreatedAt());
+    }
+
+    private static double toDouble(Object value) {
+        return value == null ? Double.NaN : ((BigDecimal) value).doubleValue();
+    }
+
+    /** Tin đăng cần so khớp, từ ProductRepository.findActiveAlertRow. Giá NaN = không có. */
+    private static final class Listing {
+        final long id;
+        final long sellerId;
+        final long categoryId;
+        final String name;
+        final TradeType tradeType;
+        final double buyPrice;
+        final double rentPrice;
+        final Integer condition;
+
+        Listing(Object[] row) {
+            this.id = ((Number) row[0]).longValue();
+            this.sellerId = ((Number) row[1]).longValue();
+            this.categoryId = ((Number) row[2]).longValue();
+            this.name = (String) row[3];
+            this.tradeType = (TradeType) row[4];
+            this.buyPrice = toDouble(row[5]);
+            this.rentPrice = toDouble(row[6]);
+            this.condition = row[7] == null ? null : ((Number) row[7]).intValue();
+        }
+
+        /** Giá thấp nhất của tin (để loại các tìm kiếm có giá trần thấp hơn); 0 nếu tin không ghi giá. */
+        double minPrice() {
+            double min = Math.min(Double.isNaN(buyPrice) ? Double.MAX_VALUE : buyPrice,
+                    Double.isNaN(rentPrice) ? Double.MAX_VALUE : rentPrice);
+            return min == Double.MAX_VALUE ? 0 : min;
+        }
+    }
+
+    /** Bản trong bộ nhớ của một SavedSearch, từ khóa đã bỏ dấu. */
+    private static final class Query {
+        final long id;
+        final long userId;
+        final double maxPrice;
+        final TradeType tradeType;
+        final int minCondition;
+        final String[] keywords;
+
+        Query(SavedSearch search, String[] keywords) {
+            this.id = search.getId();
+            this.userId = search.getUserId();
+            this.maxPrice = search.getMaxPrice() == null ? Double.POSITIVE_INFINITY : search.getMaxPrice().doubleValue();
+            this.tradeType = search.getTradeType();
+            this.minCondition = search.getMinCondition() == null ? 0 : search.getMinCondition();
+            this.keywords = keywords;
+        }
+
+        boolean matches(Listing listing, Set<String> tokens) {
+            for (String keyword : keywords) {
+                if (!tokens.contains(keyword)) {
+                    return false;
+                }
+            }
+            if (minCondition > 0 && (listing.condition == null || listing.condition < minCondition)) {
+                return false;
+            }
+            double price;
+            if (tradeType == TradeType.BUY_ONLY) {
+                if (listing.tradeType == TradeType.RENT_ONLY) {
+                    return false;
+                }
+                price = listing.buyPrice;
+            } else if (tradeType == TradeType.RENT_ONLY) {
+                if (listing.tradeType == TradeType.BUY_ONLY) {
+                    return false;
+                }
+                price = listing.rentPrice;
+            } else {
+                // Không chọn kiểu giao dịch: so giá mua, tin chỉ cho thuê thì so giá thuê
+                price = listing.tradeType == TradeType.RENT_ONLY || Double.isNaN(listing.buyPrice)
+                        ? listing.rentPrice : listing.buyPrice;
+            }
+            return maxPrice == Double.POSITIVE_INFINITY || (!Double.isNaN(price) && price <= maxPrice);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.Category;
+import com.mimi.domain.Product;
+import com.mimi.domain.enums.ProductStatus;
+import com.mimi.dto.response.SuggestionResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.repository.CategoryRepository;
+import com.mimi.repository.OrderItemRepository;
+import com.mimi.repository.ProductRepository;
+import com.mimi.repository.ProductViewDailyRepository;
+import com.mimi.service.SearchSuggestService;
+import com.mimi.util.LongLongHashMap;
+import com.mimi.util.SuggestTrie;
+import com.mimi.util.TextFolding;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gợi ý khi gõ ô tìm kiếm, từ tên sản phẩm đang bán và tên danh mục. Tên được bỏ dấu và đưa vào SuggestTrie
+ * tại đầu mỗi từ (gõ "sua" khớp cả "Máy hút sữa"), trọng số theo độ phổ biến (bán 30 ngày, xem 7 ngày, nổi bật);
+ * danh mục được ưu tiên hơn tên sản phẩm. Trie dựng lại định kỳ ngoài luồng request và thay thế nguyên khối;
+ * sản phẩm tạo/sửa sau lần dựng được giữ trong một danh sách nhỏ (trọng số tính như lúc dựng, từ số liệu bán/xem
+ * của lần dựng gần nhất), quét thêm khi tra và trộn với kết quả trie theo trọng số cho tới lần dựng kế tiếp.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchSuggestServiceImpl implements SearchSuggestService {
+
+    private static final int K = 10;
+    private static final int MAX_TOKENS = 6;
+    private static final int MAX_RECENT = 500;
+    private static final int LOAD_BATCH = 5_000;
+    private static final double CATEGORY_BOOST = 3.0;
+
+    private static final ThreadLocal<int[]> LOOKUP_BUFFER = ThreadLocal.withInitial(() -> new int[K]);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductViewDailyRepository productViewDailyRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(new SuggestTrie.Builder(K).build(), new String[0], new String[0],
+            new long[0], new double[0], new LongLongHashMap(), new LongLongHashMap());
+    /** Sản phẩm tạo/sửa sau lần dựng gần nhất (copy-on-write, ít phần tử). */
+    private volatile List<Recent> recent = List.of();
+    private final Object recentLock = new Object();
+
+    @Override
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, K));
+        Snapshot current = snapshot;
+        int[] buffer = LOOKUP_BUFFER.get();
+        int found = current.trie.lookup(query, buffer);
+
+        List<SuggestionResponse> result = new ArrayList<>(size);
+        List<Recent> recentList = recent;
+        if (recentList.isEmpty()) {
+            for (int i = 0; i < found && result.size() < size; i++) {
+                int s = buffer[i];
+                result.add(new SuggestionResponse(current.texts[s], current.types[s], current.refIds[s]));
+            }
+            return result;
+        }
+
+        // Trộn kết quả trie với các tên mới chưa vào trie, theo trọng số
+        String folded = TextFolding.fold(query);
+        Set<String> seen = new HashSet<>();
+        List<Recent> matches = new ArrayList<>();
+        for (Recent entry : recentList) {
+            if (entry.matches(folded)) {
+                matches.add(entry);
+            }
+        }
+        // Cùng trọng số thì tin mới hơn (đứng trước trong recent) trước; sort ổn định giữ thứ tự đó
+        matches.sort((a, b) -> Double.compare(b.weight, a.weight));
+        int next = 0;
+        int nextRecent = 0;
+        while (result.size() < size && (next < found || nextRecent < matches.size())) {
+            boolean takeTrie = nextRecent >= matches.size()
+                    || (next < found && current.weights[buffer[next]] >= matches.get(nextRecent).weight);
+            SuggestionResponse candidate;
+            if (takeTrie) {
+                int s = buffer[next++];
+                candidate = new SuggestionResponse(current.texts[s], current.types[s], current.refIds[s]);
+            } else {
+                Recent entry = matches.get(nextRecent++);
+                candidate = new SuggestionResponse(entry.text, "PRODUCT", entry.productId);
+            }
+            if (seen.add(TextFolding.fold(candidate.getText()))) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval-ms:600000}",
+               initialDelayString = "${search.suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+
+        LongLongHashMap sold = new LongLongHashMap(1024);
+        for (Object[] row : orderItemRepository.sumUnitsByProductSince(LocalDateTime.now().minusDays(30))) {
+            sold.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        LongLongHashMap views = new LongLongHashMap(1024);
+        for (Object[] row : productViewDailyRepository.sumViewsByProductSince(LocalDate.now().minusDays(7))) {
+            views.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        // Gộp sản phẩm trùng tên (sau khi bỏ dấu) thành một gợi ý; trọng số danh mục = tổng trọng số sản phẩm
+        Map<String, NameStats> names = new HashMap<>();
+        Map<Long, Double> categoryWeight = new HashMap<>();
+        long afterId = 0;
+        while (true) {
+            List<Object[]> rows = productRepository.findActiveNamesAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (Object[] row : rows) {
+                long productId = ((Number) row[0]).longValue();
+                afterId = productId;
+                String name = (String) row[1];
+                String folded = TextFolding.fold(name);
+                if (folded.isEmpty()) {
+                    continue;
+                }
+                double weight = productWeight(sold.get(productId), views.get(productId), Boolean.TRUE.equals(row[3]));
+                names.computeIfAbsent(folded, key -> new NameStats(name.trim(), productId)).add(productId, weight);
+                if (row[2] != null) {
+                    categoryWeight.merge(((Number) row[2]).longValue(), weight, Double::sum);
+                }
+            }
+            if (rows.size() < LOAD_BATCH) {
+                break;
+            }
+        }
+
+        List<Category> categories = categoryRepository.findAll();
+        int count = categories.size() + names.size();
+        String[] texts = new String[count];
+        String[] types = new String[count];
+        long[] refIds = new long[count];
+        double[] weights = new double[count];
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        int s = 0;
+        for (Category category : categories) {
+            if (category.getName() == null || category.getName().isBlank()) {
+                continue;
+            }
+            texts[s] = category.getName().trim();
+            types[s] = "CATEGORY";
+            refIds[s] = category.getId();
+            weights[s] = CATEGORY_BOOST + Math.log1p(categoryWeight.getOrDefault(category.getId(), 0.0));
+            addTokens(builder, TextFolding.fold(texts[s]), s, weights[s]);
+            s++;
+        }
+        for (Map.Entry<String, NameStats> entry : names.entrySet()) {
+            NameStats stats = entry.getValue();
+            texts[s] = stats.text;
+            types[s] = "PRODUCT";
+            refIds[s] = stats.bestProductId;
+            weights[s] = stats.bestWeight + Math.log(stats.count);
+            addTokens(builder, entry.getKey(), s, weights[s]);
+            s++;
+        }
+        SuggestTrie trie = builder.build();
+
+        synchronized (recentLock) {
+            snapshot = new Snapshot(trie, texts, types, refIds, weights, sold, views);
+            // Những gì thêm trước lúc bắt đầu dựng đã nằm trong trie mới
+            List<Recent> kept = new ArrayList<>();
+            for (Recent entry : recent) {
+                if (entry.addedAt - startedAt > 0) {
+                    kept.add(entry);
+                }
+            }
+            recent = List.copyOf(kept);
+        }
+        log.info("Search suggestions rebuilt: {} entries, {} trie nodes in {} ms", s, trie.nodeCount(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Tin đăng mới/sửa tên: cho vào danh sách tạm để gợi ý được ngay, không chờ lần dựng kế tiếp.
+     * Tin bị xóa hoặc không còn ACTIVE thì bỏ khỏi danh sách tạm.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.isDeleted() ? null : productRepository.findById(event.getProductId()).orElse(null);
+        String name = product != null && product.getStatus() == ProductStatus.ACTIVE ? product.getName() : null;
+        String folded = name != null ? TextFolding.fold(name) : "";
+        synchronized (recentLock) {
+            List<Recent> next = new ArrayList<>(recent.size() + 1);
+            for (Recent entry : recent) {
+                if (entry.productId != event.getProductId()) {
+                    next.add(entry);
+                }
+            }
+            if (!folded.isEmpty()) {
+                Snapshot current = snapshot;
+                long productId = event.getProductId();
+                double weight = productWeight(current.sold.get(productId), current.views.get(productId),
+                        Boolean.TRUE.equals(product.getFeatured()));
+                next.add(0, new Recent(name.trim(), folded, productId, weight, System.nanoTime()));
+            }
+            if (next.size() != recent.size() || !folded.isEmpty()) {
+                recent = List.copyOf(next.size() > MAX_RECENT ? next.subList(0, MAX_RECENT) : next);
+            }
+        }
+    }
+
+    /** Độ phổ biến của một sản phẩm: bán 30 ngày nặng gấp đôi xem 7 ngày, tin nổi bật cộng thêm. */
+    private static double productWeight(long sold, long views, boolean featured) {
+        return 1 + 2 * Math.log1p(sold) + Math.log1p(views) + (featured ? 0.5 : 0);
+    }
+
+    /** Đưa khóa vào trie tại đầu mỗi từ (tối đa MAX_TOKENS từ). */
+    private static void addTokens(SuggestTrie.Builder builder, String folded, int suggestion, double weight) {
+        int tokens = 0;
+        for (int i = 0; i < folded.length() && tokens < MAX_TOKENS; i++) {
+            if (i == 0 || folded.charAt(i - 1) == ' ') {
+                builder.add(folded.substring(i), suggestion, weight);
+                tokens++;
+            }
+        }
+    }
+
+    private static final class NameStats {
+        final String text;
+        long bestProductId;
+        double bestWeight = Double.NEGATIVE_INFINITY;
+        int count;
+
+        NameStats(String text, long productId) {
+            this.text = text;
+            this.bestProductId = productId;
+        }
+
+        void add(long productId, double weight) {
+            count++;
+            if (weight > bestWeight) {
+                bestWeight = weight;
+                bestProductId = productId;
+            }
+        }
+    }
+
+    private static final class Recent {
+        final String text;
+        final String folded;
+        final long productId;
+        final double weight;
+        final long addedAt;
+
+        Recent(String text, String folded, long productId, double weight, long addedAt) {
+            this.text = text;
+            this.folded = folded;
+            this.productId = productId;
+            this.weight = weight;
+            this.addedAt = addedAt;
+        }
+
+        boolean matches(String foldedPrefix) {
+            for (int i = 0; i < folded.length(); i++) {
+                if ((i == 0 || folded.charAt(i - 1) == ' ') && folded.startsWith(foldedPrefix, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Snapshot {
+        final SuggestTrie trie;
+        final String[] texts;
+        final String[] types;
+        final long[] refIds;
+        final double[] weights;
+        /** Số bán 30 ngày / lượt xem 7 ngày theo sản phẩm lúc dựng, để tính trọng số tin trong recent (chỉ đọc). */
+        final LongLongHashMap sold;
+        final LongLongHashMap views;
+
+        Snapshot(SuggestTrie trie, String[] texts, String[] types, long[] refIds, double[] weights,
+                 LongLongHashMap sold, LongLongHashMap views) {
+            this.trie = trie;
+            this.texts = texts;
+            this.types = types;
+            this.refIds = refIds;
+            this.weights = weights;
+            this.sold = sold;
+            this.views = views;
+        }
+    }
+}
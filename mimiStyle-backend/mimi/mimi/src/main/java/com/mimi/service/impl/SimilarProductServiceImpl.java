@@ -0,0 +1,416 @@
+package com.mimi.service.impl;
+
+import com.mimi.domain.enums.ProductStatus;
+import com.mimi.domain.enums.TradeType;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.event.ProductChangedEvent;
+import com.mimi.repository.OrderItemRepository;
+import com.mimi.repository.ProductRepository;
+import com.mimi.service.ProductService;
+import com.mimi.service.SimilarProductService;
+import com.mimi.util.LongLongHashMap;
+import com.mimi.util.TopKHeap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * "Sản phẩm tương tự" tính trước cho mọi sản phẩm đang bán. Độ tương tự cộng từ: cùng danh mục, cùng kiểu
+ * giao dịch, giá gần nhau (theo tỉ lệ), độ mới gần nhau và số đơn mua cùng nhau trong order_items.
+ * Job dựng lại chạy song song theo danh mục trên ForkJoinPool, dữ liệu đặc trưng nằm trong mảng nguyên thủy;
+ * ứng viên là các sản phẩm cùng danh mục có giá lân cận (cửa sổ trên danh sách sắp theo giá) cộng các sản phẩm
+ * từng được mua cùng. Kết quả là K láng giềng/sản phẩm trong một mảng phẳng, tra theo slot nên đọc là O(K).
+ * Sản phẩm tạo/sửa sau lần dựng được tính lại riêng và ghi đè (kèm chèn ngược vào danh sách của láng giềng);
+ * sản phẩm bị xóa/ẩn chỉ bị lọc khi đọc cho tới lần dựng kế tiếp.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimilarProductServiceImpl implements SimilarProductService {
+
+    private static final int K = 12;
+    private static final int PRICE_WINDOW = 200;
+    private static final int CO_PURCHASE_DAYS = 180;
+    private static final int LOAD_BATCH = 5_000;
+    private static final int MAX_LIMIT = K;
+    private static final double LN_4 = Math.log(4);
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductService productService;
+
+    private volatile SimilarityIndex index = SimilarityIndex.EMPTY;
+
+    /** Thay đổi kể từ lần dựng gần nhất; xóa khi dựng lại. Chỉ một luồng ghi (khóa overlayLock). */
+    private final Map<Long, Features> changedFeatures = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> overriddenNeighbors = new ConcurrentHashMap<>();
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+    private final Object overlayLock = new Object();
+    /** Sản phẩm thay đổi trong lúc đang dựng lại; tính lại trên chỉ mục mới ngay sau khi thay thế. */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    @Override
+    public List<ProductResponse> getSimilarProducts(Long productId, int limit) {
+        if (productId == null) {
+            throw new IllegalArgumentException("productId is required");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        long[] neighbors = overriddenNeighbors.get(productId);
+        if (neighbors == null) {
+            neighbors = index.neighborsOf(productId);
+        }
+        List<Long> ids = new ArrayList<>(neighbors.length);
+        for (long id : neighbors) {
+            if (!removed.contains(id)) {
+                ids.add(id);
+            }
+        }
+        List<ProductResponse> products = new ArrayList<>(size);
+        for (ProductResponse product : productService.getProductResponsesByIds(ids)) {
+            if (product.getStatus() == ProductStatus.ACTIVE) {
+                products.add(product);
+                if (products.size() == size) {
+                    break;
+                }
+            }
+        }
+        return products;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendation.similar.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        rebuilding = true;
+        try {
+            rebuildIndex();
+        } finally {
+            rebuilding = false;
+        }
+        for (Long productId : changedDuringRebuild) {
+            changedDuringRebuild.remove(productId);
+            onProductChanged(new ProductChangedEvent(productId, false));
+        }
+        log.info("Similar products rebuilt for {} products in {} ms", index.size, System.currentTimeMillis() - started);
+    }
+
+    private void rebuildIndex() {
+        List<Object[]> rows = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            List<Object[]> batch = productRepository.findActiveSimilarityRowsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            rows.addAll(batch);
+            if (batch.size() < LOAD_BATCH) {
+                break;
+            }
+            afterId = ((Number) batch.get(batch.size() - 1)[0]).longValue();
+        }
+        SimilarityIndex built = new SimilarityIndex(rows.size());
+        for (Object[] row : rows) {
+            built.add(Features.of(row));
+        }
+        for (Object[] row : orderItemRepository.countCoPurchasesSince(LocalDateTime.now().minusDays(CO_PURCHASE_DAYS))) {
+            long a = ((Number) row[0]).longValue();
+            long b = ((Number) row[1]).longValue();
+            if (built.slotOf.containsKey(a) && built.slotOf.containsKey(b)) {
+                built.coPurchases.computeIfAbsent(a, key -> new LongLongHashMap(8)).put(b, ((Number) row[2]).longValue());
+            }
+        }
+
+        // Mỗi danh mục một tác vụ; các tác vụ ghi vào các slot rời nhau của cùng mảng láng giềng
+        List<int[]> categories = built.slotsByCategorySortedByPrice();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        try {
+            pool.submit(() -> categories.parallelStream().forEach(slots -> computeCategory(built, slots))).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException ex) {
+            log.error("Similar products rebuild failed", ex.getCause());
+            return;
+        } finally {
+            pool.shutdown();
+        }
+
+        synchronized (overlayLock) {
+            index = built;
+            changedFeatures.clear();
+            overriddenNeighbors.clear();
+            removed.clear();
+        }
+    }
+
+    /** Tính lại sau commit cho sản phẩm vừa tạo/sửa; sản phẩm bị xóa hoặc không còn bán thì chỉ đánh dấu. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long productId = event.getProductId();
+        if (rebuilding) {
+            changedDuringRebuild.add(productId);
+        }
+        List<Object[]> rows = event.isDeleted() ? List.of() : productRepository.findActiveSimilarityRow(productId);
+        synchronized (overlayLock) {
+            if (rows.isEmpty()) {
+                removed.add(productId);
+                changedFeatures.remove(productId);
+                overriddenNeighbors.remove(productId);
+                return;
+            }
+            Features changed = Features.of(rows.get(0));
+            removed.remove(productId);
+            changedFeatures.put(productId, changed);
+            SimilarityIndex current = index;
+
+            TopKHeap heap = new TopKHeap(K);
+            int[] slots = current.slotsByCategory.getOrDefault(changed.categoryId, new int[0]);
+            for (int slot : slots) {
+                long otherId = current.ids[slot];
+                if (otherId != productId && !removed.contains(otherId) && !changedFeatures.containsKey(otherId)) {
+                    heap.offer(otherId, similarity(changed, current.features(slot), current.coPurchases(productId, otherId)));
+                }
+            }
+            for (Features other : changedFeatures.values()) {
+                if (other.id != productId && other.categoryId == changed.categoryId) {
+                    heap.offer(other.id, similarity(changed, other, current.coPurchases(productId, other.id)));
+                }
+            }
+            long[] neighbors = new long[heap.size()];
+            double[] scores = new double[heap.size()];
+            heap.drainDescending(neighbors, scores);
+            overriddenNeighbors.put(productId, neighbors);
+
+            // Chèn ngược: sản phẩm mới/vừa sửa có thể lọt vào top-K của các láng giềng của nó
+            for (int i = 0; i < neighbors.length; i++) {
+                insertInto(current, neighbors[i], productId, scores[i]);
+            }
+        }
+    }
+
+    private void insertInto(SimilarityIndex current, long targetId, long candidateId, double candidateScore) {
+        long[] list = overriddenNeighbors.get(targetId);
+        if (list == null) {
+            list = current.neighborsOf(targetId);
+        }
+        Features target = featuresOf(current, targetId);
+        if (target == null) {
+            return;
+        }
+        TopKHeap heap = new TopKHeap(K);
+        heap.offer(candidateId, candidateScore);
+        for (long id : list) {
+            if (id == candidateId) {
+                continue;
+            }
+            Features other = featuresOf(current, id);
+            if (other != null) {
+                heap.offer(id, similarity(target, other, current.coPurchases(targetId, id)));
+            }
+        }
+        overriddenNeighbors.put(targetId, heap.drainDescending());
+    }
+
+    private Features featuresOf(SimilarityIndex current, long id) {
+        if (removed.contains(id)) {
+            return null;
+        }
+        Features changed = changedFeatures.get(id);
+        if (changed != null) {
+            return changed;
+        }
+        return current.slotOf.containsKey(id) ? current.features((int) current.slotOf.get(id)) : null;
+    }
+
+    /** Top-K cho mọi sản phẩm của một danh mục (slots đã sắp theo giá). */
+    private static void computeCategory(SimilarityIndex built, int[] slots) {
+        Features a = new Features();
+        Features b = new Features();
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            built.fill(slot, a);
+            TopKHeap heap = new TopKHeap(K);
+            int from = Math.max(0, i - PRICE_WINDOW);
+            int to = Math.min(slots.length, i + PRICE_WINDOW + 1);
+            for (int j = from; j < to; j++) {
+                if (j != i) {
+                    built.fill(slots[j], b);
+                    heap.offer(b.id, similarity(a, b, built.coPurchases(a.id, b.id)));
+                }
+            }
+            // Sản phẩm từng được mua cùng, kể cả khác danh mục hoặc nằm ngoài cửa sổ giá
+            LongLongHashMap partners = built.coPurchases.get(a.id);
+            if (partners != null) {
+                partners.forEach((partnerId, count) -> {
+                    built.fill((int) built.slotOf.get(partnerId), b);
+                    if (b.categoryId != a.categoryId || !withinWindow(built, slots, from, to, partnerId)) {
+                        heap.offer(partnerId, similarity(a, b, count));
+                    }
+                });
+            }
+            long[] top = heap.drainDescending();
+            System.arraycopy(top, 0, built.neighbors, slot * K, top.length);
+        }
+    }
+
+    private static boolean withinWindow(SimilarityIndex built, int[] slots, int from, int to, long id) {
+        for (int j = from; j < to; j++) {
+            if (built.ids[slots[j]] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double similarity(Features a, Features b, long coPurchases) {
+        double score = 0;
+        if (a.categoryId == b.categoryId) {
+            score += 1.0;
+        }
+        if (a.tradeType == b.tradeType) {
+            score += 0.5;
+        } else if (a.tradeType == TradeType.BOTH.ordinal() || b.tradeType == TradeType.BOTH.ordinal()) {
+            score += 0.25;
+        }
+        double priceA = a.buyPrice > 0 && b.buyPrice > 0 ? a.buyPrice : a.rentPrice;
+        double priceB = a.buyPrice > 0 && b.buyPrice > 0 ? b.buyPrice : b.rentPrice;
+        if (priceA > 0 && priceB > 0) {
+            // Chênh 4 lần trở lên thì không cộng điểm
+            score += Math.max(0, 1 - Math.abs(Math.log(priceA / priceB)) / LN_4);
+        }
+        if (a.condition >= 0 && b.condition >= 0) {
+            score += 0.5 * (1 - Math.abs(a.condition - b.condition) / 100.0);
+        }
+        if (coPurchases > 0) {
+            score += 0.75 * Math.log1p(coPurchases);
+        }
+        return score;
+    }
+
+    /** Đặc trưng của một sản phẩm; giá không có thì 0, độ mới không có thì -1. */
+    private static final class Features {
+        long id;
+        long categoryId;
+        int tradeType;
+        double buyPrice;
+        double rentPrice;
+        int condition;
+
+        static Features of(Object[] row) {
+            Features f = new Features();
+            f.id = ((Number) row[0]).longValue();
+            f.categoryId = row[1] != null ? ((Number) row[1]).longValue() : 0;
+            f.tradeType = row[2] != null ? ((TradeType) row[2]).ordinal() : -1;
+            f.buyPrice = row[3] != null ? ((BigDecimal) row[3]).doubleValue() : 0;
+            f.rentPrice = row[4] != null ? ((BigDecimal) row[4]).doubleValue() : 0;
+            f.condition = row[5] != null ? ((Number) row[5]).intValue() : -1;
+            return f;
+        }
+    }
+
+    /** Đặc trưng dạng cột (mảng nguyên thủy theo slot) và K láng giềng mỗi slot trong một mảng phẳng (0 = trống). */
+    private static final class SimilarityIndex {
+        static final SimilarityIndex EMPTY = new SimilarityIndex(0);
+
+        final LongLongHashMap slotOf;
+        final long[] ids;
+        final long[] categoryIds;
+        final byte[] tradeTypes;
+        final double[] buyPrices;
+        final double[] rentPrices;
+        final byte[] conditions;
+        final long[] neighbors;
+        final Map<Long, LongLongHashMap> coPurchases = new HashMap<>();
+        Map<Long, int[]> slotsByCategory = Map.of();
+        int size;
+
+        SimilarityIndex(int capacity) {
+            slotOf = new LongLongHashMap(Math.max(16, capacity));
+            ids = new long[capacity];
+            categoryIds = new long[capacity];
+            tradeTypes = new byte[capacity];
+            buyPrices = new double[capacity];
+            rentPrices = new double[capacity];
+            conditions = new byte[capacity];
+            neighbors = new long[capacity * K];
+        }
+
+        void add(Features f) {
+            int slot = size++;
+            slotOf.put(f.id, slot);
+            ids[slot] = f.id;
+            categoryIds[slot] = f.categoryId;
+            tradeTypes[slot] = (byte) f.tradeType;
+            buyPrices[slot] = f.buyPrice;
+            rentPrices[slot] = f.rentPrice;
+            conditions[slot] = (byte) f.condition;
+        }
+
+        void fill(int slot, Features out) {
+            out.id = ids[slot];
+            out.categoryId = categoryIds[slot];
+            out.tradeType = tradeTypes[slot];
+            out.buyPrice = buyPrices[slot];
+            out.rentPrice = rentPrices[slot];
+            out.condition = conditions[slot];
+        }
+
+        Features features(int slot) {
+            Features f = new Features();
+            fill(slot, f);
+            return f;
+        }
+
+        long coPurchases(long a, long b) {
+            LongLongHashMap partners = coPurchases.get(a);
+            return partners != null && partners.containsKey(b) ? partners.get(b) : 0;
+        }
+
+        long[] neighborsOf(long productId) {
+            if (!slotOf.containsKey(productId)) {
+                return new long[0];
+            }
+            int from = (int) slotOf.get(productId) * K;
+            int to = from;
+            while (to < from + K && neighbors[to] != 0) {
+                to++;
+            }
+            return Arrays.copyOfRange(neighbors, from, to);
+        }
+
+        /** Nhóm slot theo danh mục, mỗi nhóm sắp theo giá (giá bán, không có thì giá thuê); giữ lại cho cập nhật lẻ. */
+        List<int[]> slotsByCategorySortedByPrice() {
+            Map<Long, List<Integer>> grouped = new HashMap<>();
+            for (int slot = 0; slot < size; slot++) {
+                grouped.computeIfAbsent(categoryIds[slot], key -> new ArrayList<>()).add(slot);
+            }
+            Map<Long, int[]> result = new HashMap<>();
+            for (Map.Entry<Long, List<Integer>> entry : grouped.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().stream()
+                        .sorted((x, y) -> Double.compare(price(x), price(y)))
+                        .mapToInt(Integer::intValue).toArray());
+            }
+            slotsByCategory = result;
+            return new ArrayList<>(result.values());
+        }
+
+        private double price(int slot) {
+            return buyPrices[slot] > 0 ? buyPrices[slot] : rentPrices[slot];
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.mimi.service.impl;
+
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.PostResponse;
+import com.mimi.event.PostCreatedEvent;
+import com.mimi.event.PostEngagementEvent;
+import com.mimi.repository.PostRepository;
+import com.mimi.service.PostEngagementService;
+import com.mimi.service.PostService;
+import com.mimi.service.TrendingPostService;
+import com.mimi.util.Cursor;
+import com.mimi.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tab "thịnh hành" của cộng đồng. Điểm mỗi bài = ln(1 + like + 2 × bình luận) + (createdAt - epoch) / tau,
+ * tức mức tương tác suy giảm theo hàm mũ với chu kỳ bán rã cấu hình được. Vì độ suy giảm chỉ phụ thuộc
+ * thời điểm đăng bài nên thứ tự giữa các bài không đổi theo thời gian: chỉ bài vừa có like/bình luận
+ * cần tính lại điểm. Bảng xếp hạng là skip list (điểm giảm dần) giữ trong bộ nhớ, cập nhật từ sự kiện sau commit;
+ * định kỳ dời epoch về hiện tại (rebase) để điểm không phình to, đồng thời bỏ bài quá cũ và bài điểm thấp.
+ * Bài còn trong cửa sổ nhưng chưa được theo dõi (bị loại vì điểm thấp) mà có tương tác mới thì được nạp lại từ DB.
+ * Đọc một trang chỉ duyệt skip list rồi hydrate các id của trang đó theo lô như feed.
+ */
+@Service
+public class TrendingPostServiceImpl implements TrendingPostService {
+
+    private static final int COMMENT_WEIGHT = 2;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+    private static final long UNTRACKABLE_TTL_MS = 60 * 60_000L;
+    private static final int MAX_UNTRACKABLE = 10_000;
+
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final PostEngagementService engagementService;
+    private final long windowSeconds;
+    private final double tauSeconds;
+    private final int maxTracked;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Ranking ranking;
+    /** Cập nhật điểm giữ read lock (song song được với nhau), rebase/nạp lại giữ write lock. */
+    private final ReentrantReadWriteLock rankingLock = new ReentrantReadWriteLock();
+    /** Bài đã ra khỏi cửa sổ (hoặc không còn tồn tại): tương tác lên chúng không cần hỏi lại DB. */
+    private final TtlCache<Long, Boolean> untrackable = new TtlCache<>(UNTRACKABLE_TTL_MS, MAX_UNTRACKABLE);
+
+    public TrendingPostServiceImpl(PostRepository postRepository,
+                                   PostService postService,
+                                   PostEngagementService engagementService,
+                                   @Value("${community.trending.window-hours:72}") long windowHours,
+                                   @Value("${community.trending.half-life-hours:12}") double halfLifeHours,
+                                   @Value("${community.trending.max-posts:5000}") int maxTracked) {
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.engagementService = engagementService;
+        this.windowSeconds = windowHours * 3600;
+        this.tauSeconds = halfLifeHours * 3600 / Math.log(2);
+        this.maxTracked = maxTracked;
+        this.ranking = new Ranking(nowSeconds());
+    }
+
+    @Override
+    public CursorPageResponse<PostResponse> getTrending(Long viewerId, String cursor, Integer limit, int commentPreview) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Ranking current = ranking;
+        Iterable<Ranked> source = current.set;
+        Cursor after = Cursor.decodeKey(cursor);
+        if (after != null) {
+            source = current.set.tailSet(parseCursor(after, current.epoch), false);
+        }
+
+        List<Long> ids = new ArrayList<>(size);
+        String nextCursor = null;
+        Ranked last = null;
+        for (Ranked ranked : source) {
+            if (ids.size() == size) {
+                nextCursor = Cursor.encodeKey(current.epoch + ":" + last.score, last.id);
+                break;
+            }
+            ids.add(ranked.id);
+            last = ranked;
+        }
+        List<PostResponse> posts = postService.getPostResponsesByIds(ids, viewerId);
+        postService.attachCommentPreviews(posts, commentPreview);
+        return new CursorPageResponse<>(posts, nextCursor);
+    }
+
+    /** Nạp các bài trong cửa sổ cùng bộ đếm hiện có trong DB; chỉ chạy khi khởi động. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long now = nowSeconds();
+        List<Object[]> rows = postRepository.findEngagementSince(
+                LocalDateTime.now().minusSeconds(windowSeconds), PageRequest.of(0, maxTracked * 4));
+        rankingLock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                long id = ((Number) row[0]).longValue();
+                Entry entry = new Entry(id, toSeconds((LocalDateTime) row[1]));
+                entry.likes = row[2] != null ? ((Number) row[2]).intValue() : 0;
+                entry.comments = row[3] != null ? ((Number) row[3]).intValue() : 0;
+                entries.putIfAbsent(id, entry);
+            }
+            rebaseLocked(now);
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${community.trending.rebase-interval-ms:600000}")
+    public void rebase() {
+        rankingLock.writeLock().lock();
+        try {
+            rebaseLocked(nowSeconds());
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        long createdAt = event.getCreatedAt() != null ? toSeconds(event.getCreatedAt()) : nowSeconds();
+        rankingLock.readLock().lock();
+        try {
+            Entry entry = new Entry(event.getPostId(), createdAt);
+            if (entries.putIfAbsent(entry.id, entry) == null) {
+                synchronized (entry) {
+                    reposition(entry, ranking);
+                }
+            }
+        } finally {
+            rankingLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEngagement(PostEngagementEvent event) {
+        int likeDelta = 0;
+        int commentDelta = 0;
+        switch (event.getType()) {
+            case LIKED -> likeDelta = 1;
+            case UNLIKED -> likeDelta = -1;
+            case COMMENTED -> commentDelta = 1;
+            case COMMENT_DELETED -> commentDelta = -1;
+        }
+        long postId = event.getPostId();
+        // Nạp từ DB trước khi lấy read lock để rebase không phải chờ truy vấn
+        Entry loaded = entries.containsKey(postId) ? null : loadEntry(postId);
+        rankingLock.readLock().lock();
+        try {
+            Entry entry = entries.get(postId);
+            if (entry == null) {
+                if (loaded == null) {
+                    return;
+                }
+                entry = entries.putIfAbsent(postId, loaded);
+                if (entry == null) {
+                    // Bộ đếm nạp về đã gồm tương tác này
+                    synchronized (loaded) {
+                        reposition(loaded, ranking);
+                    }
+                    return;
+                }
+            }
+            synchronized (entry) {
+                entry.likes = Math.max(0, entry.likes + likeDelta);
+                entry.comments = Math.max(0, entry.comments + commentDelta);
+                reposition(entry, ranking);
+            }
+        } finally {
+            rankingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bài chưa được theo dõi: nạp lại nếu còn trong cửa sổ, với bộ đếm = giá trị trong posts + phần đang chờ flush.
+     * Bài đã quá cửa sổ được nhớ trong untrackable để các tương tác sau không hỏi lại DB.
+     */
+    private Entry loadEntry(long postId) {
+        if (untrackable.getIfPresent(postId) != null) {
+            return null;
+        }
+        List<Object[]> rows = postRepository.findEngagementByIdSince(postId, LocalDateTime.now().minusSeconds(windowSeconds));
+        if (rows.isEmpty()) {
+            untrackable.put(postId, Boolean.TRUE);
+            return null;
+        }
+        Object[] row = rows.get(0);
+        Entry entry = new Entry(postId, toSeconds((LocalDateTime) row[1]));
+        long likes = (row[2] != null ? ((Number) row[2]).longValue() : 0) + engagementService.pendingLikeDelta(postId);
+        long comments = (row[3] != null ? ((Number) row[3]).longValue() : 0) + engagementService.pendingCommentDelta(postId);
+        entry.likes = (int) Math.max(0, likes);
+        entry.comments = (int) Math.max(0, comments);
+        return entry;
+    }
+
+    /** Gọi khi đang giữ khóa của entry và read lock (hoặc write lock). */
+    private void reposition(Entry entry, Ranking target) {
+        if (entry.ranked) {
+            target.set.remove(new Ranked(entry.score, entry.id));
+        }
+        entry.score = score(entry, target.epoch);
+        target.set.add(new Ranked(entry.score, entry.id));
+        entry.ranked = true;
+    }
+
+    /**
+     * Dựng bảng xếp hạng mới với epoch = now: bỏ bài đã ra khỏi cửa sổ, giữ tối đa maxTracked bài điểm cao nhất.
+     * Thứ tự tương đối không đổi nên chỉ cần trừ cùng một lượng cho mọi điểm, nhưng tính lại từ bộ đếm cho chắc.
+     */
+    private void rebaseLocked(long now) {
+        Ranking next = new Ranking(now);
+        long oldest = now - windowSeconds;
+        entries.values().removeIf(entry -> entry.createdAt < oldest);
+        for (Entry entry : entries.values()) {
+            entry.score = score(entry, now);
+            entry.ranked = true;
+            next.set.add(new Ranked(entry.score, entry.id));
+        }
+        while (next.set.size() > maxTracked) {
+            Ranked lowest = next.set.pollLast();
+            entries.remove(lowest.id);
+        }
+        ranking = next;
+    }
+
+    private double score(Entry entry, long epoch) {
+        return Math.log(1 + entry.likes + (double) COMMENT_WEIGHT * entry.comments)
+                + (entry.createdAt - epoch) / tauSeconds;
+    }
+
+    /** Cursor mang theo epoch lúc phát hành; nếu đã rebase thì quy đổi điểm về epoch hiện tại. */
+    private Ranked parseCursor(Cursor cursor, long currentEpoch) {
+        String key = cursor.getKey();
+        int sep = key.indexOf(':');
+        try {
+            long epoch = Long.parseLong(key.substring(0, sep));
+            double score = Double.parseDouble(key.substring(sep + 1));
+            return new Ranked(score + (epoch - currentEpoch) / tauSeconds, cursor.getId());
+        } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static final class Entry {
+        final long id;
+        final long createdAt;
+        int likes;
+        int comments;
+        double score;
+        boolean ranked;
+
+        Entry(long id, long createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class Ranked {
+        final double score;
+        final long id;
+
+        Ranked(double score, long id) {
+            this.score = score;
+            this.id = id;
+        }
+    }
+
+    /** Điểm giảm dần, cùng điểm thì bài mới (id lớn) trước. */
+    private static final Comparator<Ranked> BY_SCORE_DESC = Comparator
+            .comparingDouble((Ranked r) -> r.score).reversed()
+            .thenComparing(Comparator.comparingLong((Ranked r) -> r.id).reversed());
+
+    private static final class Ranking {
+        final long epoch;
+        final ConcurrentSkipListSet<Ranked> set = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+
+        Ranking(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mimi.service.impl;
+
+import com.mimi.dto.request.UserSearchRequest;
+import com.mimi.dto.response.CursorPageResponse;
+import com.mimi.dto.response.UserResponse;
+import com.mimi.repository.UserRepository;
+import com.mimi.service.UserService;
+import com.mimi.util.Cursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class UserServiceImpl implements UserService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponse> searchUsers(UserSearchRequest filter) {
+        String sort = filter.getSort() == null ? "createdAt" : filter.getSort();
+        if (!sort.equalsIgnoreCase("createdAt") && !sort.equalsIgnoreCase("username")) {
+            throw new IllegalArgumentException("sort must be createdAt or username");
+        }
+        String direction = filter.getDirection() == null ? "desc" : filter.getDirection();
+        if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            throw new IllegalArgumentException("direction must be asc or desc");
+        }
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && filter.getCreatedFrom().isAfter(filter.getCreatedTo())) {
+            throw new IllegalArgumentException("createdFrom must not be after createdTo");
+        }
+        filter.setSort(sort);
+        filter.setDirection(direction);
+        int limit = filter.getLimit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(filter.getLimit(), MAX_LIMIT));
+
+        // Lấy dư một dòng để biết còn trang sau hay không
+        List<UserResponse> rows = userRepository.searchUserResponses(filter, limit + 1);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            UserResponse last = rows.get(limit - 1);
+            nextCursor = sort.equalsIgnoreCase("username")
+                    ? Cursor.encodeKey(last.getUsername(), last.getId())
+                    : Cursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageResponse<>(rows, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> listAllUsers() {
+        return userRepository.findAllUserResponses();
+    }
+}
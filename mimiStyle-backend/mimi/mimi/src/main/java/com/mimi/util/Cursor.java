@@ -0,0 +1,71 @@
+package com.mimi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Con trỏ phân trang keyset theo (createdAt, id), mã hóa thành chuỗi opaque để client gửi lại nguyên văn.
+ * Khi sắp xếp theo cột chuỗi (vd. username) thì dùng encodeKey/decodeKey, giá trị nằm ở getKey().
+ */
+public final class Cursor {
+
+    private final LocalDateTime createdAt;
+    private final String key;
+    private final Long id;
+
+    private Cursor(LocalDateTime createdAt, String key, Long id) {
+        this.createdAt = createdAt;
+        this.key = key;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return encodeKey(createdAt.toString(), id);
+    }
+
+    public static String encodeKey(String key, Long id) {
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Trả về null khi cursor rỗng (trang đầu); cursor sai định dạng thì ném IllegalArgumentException. */
+    public static Cursor decode(String cursor) {
+        Cursor raw = decodeKey(cursor);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return new Cursor(LocalDateTime.parse(raw.key), null, raw.id);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /** Như decode nhưng giữ nguyên giá trị khóa dạng chuỗi. */
+    public static Cursor decodeKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Cursor(null, raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
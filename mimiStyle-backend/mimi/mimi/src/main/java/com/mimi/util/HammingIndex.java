@@ -0,0 +1,235 @@
+package com.mimi.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục hash 64 bit để tìm các hash cách một hash cho trước không quá r bit (multi-index hashing).
+ * Hash được cắt thành 4 đoạn 16 bit, mỗi đoạn có một bảng 65536 bucket. Nếu hai hash lệch nhau ≤ r bit thì
+ * theo nguyên lý chuồng bồ câu có ít nhất một đoạn lệch ≤ r/4 bit, nên chỉ cần ghé các bucket cách đoạn
+ * tương ứng ≤ r/4 bit (r ≤ 7: 17 bucket mỗi đoạn) rồi kiểm khoảng cách đầy đủ trên số ít ứng viên,
+ * thay vì so với mọi ảnh. Dữ liệu nằm trong mảng nguyên thủy, mỗi bucket giữ luôn hash bên cạnh số slot nên
+ * quét bucket là đọc tuần tự, không nhảy sang mảng khác cho từng ứng viên. Xóa gỡ item khỏi 4 bucket của nó
+ * và trả slot vào danh sách trống để lần thêm sau dùng lại; các item cùng nhóm nối thành danh sách liên kết
+ * theo slot nên xóa cả nhóm chỉ đi qua item của nhóm đó. Đọc song song được (read lock), ghi giữ write lock.
+ */
+public final class HammingIndex {
+
+    public static final int MAX_DISTANCE = 11;
+
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int BUCKETS = 1 << CHUNK_BITS;
+
+    public interface MatchConsumer {
+        void accept(long itemId, long groupId, int distance);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int[][][] buckets = new int[CHUNKS][BUCKETS][];
+    private final long[][][] bucketHashes = new long[CHUNKS][BUCKETS][];
+    private final int[][] bucketSizes = new int[CHUNKS][BUCKETS];
+    private long[] itemIds = new long[1024];
+    /** 0 = ô trống */
+    private long[] groupIds = new long[1024];
+    private long[] hashes = new long[1024];
+    /** Slot kế tiếp/trước trong danh sách của cùng nhóm, -1 nếu hết */
+    private int[] nextInGroup = new int[1024];
+    private int[] prevInGroup = new int[1024];
+    /** Số slot đã từng dùng; slot đã xóa nằm trong freeSlots */
+    private int size;
+    private int live;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    /** itemId → slot + 1 */
+    private final LongLongHashMap slots = new LongLongHashMap(1024);
+    /** groupId → slot đầu danh sách của nhóm + 1 */
+    private final LongLongHashMap groupHeads = new LongLongHashMap(1024);
+
+    /** Thêm hoặc thay hash của item (vd. ảnh); groupId (vd. sản phẩm) phải khác 0. */
+    public void put(long itemId, long groupId, long hash) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+            int slot = allocateSlot();
+            itemIds[slot] = itemId;
+            groupIds[slot] = groupId;
+            hashes[slot] = hash;
+            int head = (int) groupHeads.get(groupId) - 1;
+            nextInGroup[slot] = head;
+            prevInGroup[slot] = -1;
+            if (head >= 0) {
+                prevInGroup[head] = slot;
+            }
+            groupHeads.put(groupId, slot + 1L);
+            for (int c = 0; c < CHUNKS; c++) {
+                int bucket = chunk(hash, c);
+                int[] entries = buckets[c][bucket];
+                long[] entryHashes = bucketHashes[c][bucket];
+                int n = bucketSizes[c][bucket];
+                if (entries == null) {
+                    entries = buckets[c][bucket] = new int[2];
+                    entryHashes = bucketHashes[c][bucket] = new long[2];
+                } else if (n == entries.length) {
+                    entries = buckets[c][bucket] = Arrays.copyOf(entries, n * 2);
+                    entryHashes = bucketHashes[c][bucket] = Arrays.copyOf(entryHashes, n * 2);
+                }
+                entries[n] = slot;
+                entryHashes[n] = hash;
+                bucketSizes[c][bucket] = n + 1;
+            }
+            slots.put(itemId, slot + 1L);
+            live++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Xóa mọi item của một nhóm (vd. khi xóa sản phẩm). */
+    public void removeGroup(long groupId) {
+        lock.writeLock().lock();
+        try {
+            for (int slot = (int) groupHeads.get(groupId) - 1; slot >= 0; slot = (int) groupHeads.get(groupId) - 1) {
+                removeLocked(itemIds[slot]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Gọi consumer cho mỗi item có hash cách hash ≤ maxDistance bit (mỗi item một lần, không theo thứ tự). */
+    public void search(long hash, int maxDistance, MatchConsumer consumer) {
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_DISTANCE);
+        }
+        int radius = maxDistance / CHUNKS;
+        lock.readLock().lock();
+        try {
+            for (int c = 0; c < CHUNKS; c++) {
+                int query = chunk(hash, c);
+                visit(c, query, hash, radius, maxDistance, consumer);
+                for (int i = 0; radius >= 1 && i < CHUNK_BITS; i++) {
+                    visit(c, query ^ (1 << i), hash, radius, maxDistance, consumer);
+                    for (int j = i + 1; radius >= 2 && j < CHUNK_BITS; j++) {
+                        visit(c, query ^ (1 << i) ^ (1 << j), hash, radius, maxDistance, consumer);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void visit(int c, int bucket, long hash, int radius, int maxDistance, MatchConsumer consumer) {
+        long[] entryHashes = bucketHashes[c][bucket];
+        int n = bucketSizes[c][bucket];
+        for (int k = 0; k < n; k++) {
+            long candidate = entryHashes[k];
+            int distance = Long.bitCount(candidate ^ hash);
+            if (distance > maxDistance || seenInEarlierChunk(candidate, hash, c, radius)) {
+                continue;
+            }
+            int slot = buckets[c][bucket][k];
+            consumer.accept(itemIds[slot], groupIds[slot], distance);
+        }
+    }
+
+    /** Ứng viên đã được ghé ở một đoạn trước (đoạn đó cũng lệch ≤ radius) thì bỏ qua để không báo trùng. */
+    private static boolean seenInEarlierChunk(long candidate, long hash, int c, int radius) {
+        for (int earlier = 0; earlier < c; earlier++) {
+            if (Integer.bitCount(chunk(candidate, earlier) ^ chunk(hash, earlier)) <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (size == itemIds.length) {
+            int capacity = size * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            groupIds = Arrays.copyOf(groupIds, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            nextInGroup = Arrays.copyOf(nextInGroup, capacity);
+            prevInGroup = Arrays.copyOf(prevInGroup, capacity);
+        }
+        return size++;
+    }
+
+    private void removeLocked(long itemId) {
+        int slot = (int) slots.remove(itemId) - 1;
+        if (slot < 0) {
+            return;
+        }
+        long hash = hashes[slot];
+        for (int c = 0; c < CHUNKS; c++) {
+            removeFromBucket(c, chunk(hash, c), slot);
+        }
+
+        long groupId = groupIds[slot];
+        int prev = prevInGroup[slot];
+        int next = nextInGroup[slot];
+        if (prev >= 0) {
+            nextInGroup[prev] = next;
+        } else if (next >= 0) {
+            groupHeads.put(groupId, next + 1L);
+        } else {
+            groupHeads.remove(groupId);
+        }
+        if (next >= 0) {
+            prevInGroup[next] = prev;
+        }
+
+        itemIds[slot] = 0;
+        groupIds[slot] = 0;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        live--;
+    }
+
+    /** Gỡ slot khỏi bucket bằng cách chép phần tử cuối vào chỗ của nó; bucket rỗng thì bỏ luôn mảng. */
+    private void removeFromBucket(int c, int bucket, int slot) {
+        int[] entries = buckets[c][bucket];
+        int n = bucketSizes[c][bucket];
+        for (int k = 0; k < n; k++) {
+            if (entries[k] == slot) {
+                n--;
+                entries[k] = entries[n];
+                bucketHashes[c][bucket][k] = bucketHashes[c][bucket][n];
+                bucketSizes[c][bucket] = n;
+                if (n == 0) {
+                    buckets[c][bucket] = null;
+                    bucketHashes[c][bucket] = null;
+                }
+                return;
+            }
+        }
+    }
+
+    private static int chunk(long hash, int c) {
+        return (int) (hash >>> (c * CHUNK_BITS)) & (BUCKETS - 1);
+    }
+}
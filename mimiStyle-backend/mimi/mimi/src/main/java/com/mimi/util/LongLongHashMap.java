@@ -0,0 +1,163 @@
+package com.mimi.util;
+
+import java.util.Arrays;
+
+/**
+ * Map long -> long dùng open addressing trên mảng nguyên thủy (không boxing, không tạo object mỗi entry).
+ * Key 0 được dành làm ô trống nên không dùng được làm key (id sinh tự động trong DB luôn &gt; 0).
+ * Không thread-safe: nơi dùng tự đồng bộ.
+ */
+public class LongLongHashMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public long get(long key) {
+        int slot = findSlot(key);
+        return keys[slot] == key ? values[slot] : 0L;
+    }
+
+    public boolean containsKey(long key) {
+        checkKey(key);
+        return keys[findSlot(key)] == key;
+    }
+
+    public void put(long key, long value) {
+        checkKey(key);
+        int slot = findSlot(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size > resizeAt) {
+                values[slot] = value;
+                grow();
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /** Cộng delta vào giá trị hiện tại (mặc định 0) và trả về giá trị mới. */
+    public long addTo(long key, long delta) {
+        checkKey(key);
+        int slot = findSlot(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size > resizeAt) {
+                grow();
+            }
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    public long remove(long key) {
+        checkKey(key);
+        int slot = findSlot(key);
+        if (keys[slot] != key) {
+            return 0L;
+        }
+        long old = values[slot];
+        deleteSlot(slot);
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, 0L);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0L && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Xóa theo kiểu backward-shift để chuỗi dò tuyến tính không bị đứt. */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0L) {
+            int home = mix(keys[next]) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0L;
+        values[hole] = 0L;
+        size--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0L) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0L) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,95 @@
+package com.mimi.util;
+
+/**
+ * Vòng đệm có giới hạn chứa các id (long) theo thứ tự tăng dần; đầy thì id cũ nhất bị đẩy ra.
+ * Id thường được thêm theo thứ tự tăng nên add là O(1); id đến muộn (commit lệch thứ tự) được chèn đúng chỗ.
+ * Thread-safe (synchronized; mỗi thao tác chỉ chạm tới vài phần tử).
+ */
+public class LongRingBuffer {
+
+    private final long[] items;
+    private int start;
+    private int size;
+    /** Có id cũ hơn đã bị đẩy ra (hoặc chưa được nạp) nên phần đuôi phải đọc từ DB */
+    private boolean truncated;
+
+    public LongRingBuffer(int capacity) {
+        this.items = new long[capacity];
+    }
+
+    /** Thêm id; bỏ qua nếu đã có hoặc cũ hơn mọi phần tử trong khi vòng đệm đã đầy. */
+    public synchronized void add(long id) {
+        int capacity = items.length;
+        int pos = size;
+        while (pos > 0 && items[(start + pos - 1) % capacity] > id) {
+            pos--;
+        }
+        if (pos > 0 && items[(start + pos - 1) % capacity] == id) {
+            return;
+        }
+        if (size == capacity) {
+            truncated = true;
+            if (pos == 0) {
+                return;
+            }
+            // Bỏ phần tử cũ nhất để có chỗ
+            start = (start + 1) % capacity;
+            size--;
+            pos--;
+        }
+        for (int i = size; i > pos; i--) {
+            items[(start + i) % capacity] = items[(start + i - 1) % capacity];
+        }
+        items[(start + pos) % capacity] = id;
+        size++;
+    }
+
+    public synchronized void remove(long id) {
+        int capacity = items.length;
+        for (int i = 0; i < size; i++) {
+            if (items[(start + i) % capacity] == id) {
+                for (int j = i; j < size - 1; j++) {
+                    items[(start + j) % capacity] = items[(start + j + 1) % capacity];
+                }
+                size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tối đa limit id nhỏ hơn beforeId, mới nhất trước. beforeId &lt;= 0 nghĩa là lấy từ id mới nhất.
+     */
+    public synchronized long[] pageBefore(long beforeId, int limit) {
+        int capacity = items.length;
+        int end = size;
+        if (beforeId > 0) {
+            while (end > 0 && items[(start + end - 1) % capacity] >= beforeId) {
+                end--;
+            }
+        }
+        int count = Math.min(limit, end);
+        long[] page = new long[count];
+        for (int i = 0; i < count; i++) {
+            page[i] = items[(start + end - 1 - i) % capacity];
+        }
+        return page;
+    }
+
+    /** true khi có thể còn id cũ hơn phần tử cũ nhất đang giữ. */
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    public synchronized void markTruncated() {
+        truncated = true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mimi.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * dHash 64 bit của ảnh: thu ảnh về lưới xám 9×8 (trung bình từng ô), mỗi bit là "ô trái sáng hơn ô phải".
+ * Ảnh chỉ đổi kích thước, nén lại, đổi tên file hay chỉnh sáng nhẹ cho hash giống hệt hoặc lệch vài bit;
+ * so hai ảnh bằng khoảng cách Hamming. Ảnh lớn được giải mã có subsampling (chỉ đọc mỗi n pixel) nên
+ * không phải bung cả ảnh nhiều megapixel ra bộ nhớ.
+ */
+public final class PerceptualHash {
+
+    private static final int COLS = 9;
+    private static final int ROWS = 8;
+    /** Cạnh ngắn sau subsampling khoảng chừng này pixel là đủ cho lưới 9×8 */
+    private static final int TARGET_SIDE = 128;
+
+    private PerceptualHash() {
+    }
+
+    /** Hash của file ảnh; null nếu không đọc được hoặc không phải ảnh. */
+    public static Long dHash(Path file) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int side = Math.min(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, side / TARGET_SIDE);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return dHash(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /** Hash của ảnh đã giải mã; null nếu ảnh nhỏ hơn lưới 9×8. */
+    public static Long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (width < COLS || height < ROWS) {
+            return null;
+        }
+        double[] sum = new double[COLS * ROWS];
+        int[] count = new int[COLS * ROWS];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = y * ROWS / height * COLS;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int cell = cellRow + x * COLS / width;
+                sum[cell] += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                count[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS - 1; c++) {
+                int left = r * COLS + c;
+                hash <<= 1;
+                if (sum[left] / count[left] > sum[left + 1] / count[left + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
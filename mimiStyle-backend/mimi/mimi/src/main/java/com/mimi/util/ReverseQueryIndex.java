@@ -0,0 +1,175 @@
+package com.mimi.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Chỉ mục ngược cho truy vấn đã lưu: thay vì chạy từng truy vấn trên tài liệu mới, mỗi truy vấn được treo vào
+ * đúng một bucket (danh mục, từ khóa neo) và tài liệu mới chỉ ghé các bucket ứng với danh mục và từ của nó.
+ * Danh mục 0 nghĩa là "mọi danh mục", từ neo "" nghĩa là không có từ khóa. Trong bucket, truy vấn sắp theo giá
+ * trần tăng dần nên những truy vấn có giá trần thấp hơn giá rẻ nhất của tài liệu bị bỏ qua bằng binary search.
+ * Bucket là mảng bất biến thay nguyên khối khi thêm/xóa (ghi ít, đọc nhiều), đọc không cần khóa.
+ */
+public final class ReverseQueryIndex<T> {
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<String, Bucket>> buckets = new ConcurrentHashMap<>();
+    /** id truy vấn → vị trí bucket, chỉ dùng khi ghi (giữ khóa this) */
+    private final Map<Long, Location> locations = new HashMap<>();
+
+    /** Thêm hoặc thay truy vấn; maxPrice = +∞ khi không giới hạn giá. */
+    public synchronized void put(long id, long categoryId, String anchor, double maxPrice, T payload) {
+        remove(id);
+        ConcurrentHashMap<String, Bucket> byAnchor = buckets.computeIfAbsent(categoryId, c -> new ConcurrentHashMap<>());
+        Bucket bucket = byAnchor.get(anchor);
+        byAnchor.put(anchor, bucket == null ? Bucket.of(id, maxPrice, payload) : bucket.with(id, maxPrice, payload));
+        locations.put(id, new Location(categoryId, anchor));
+    }
+
+    public synchronized void remove(long id) {
+        Location location = locations.remove(id);
+        if (location == null) {
+            return;
+        }
+        ConcurrentHashMap<String, Bucket> byAnchor = buckets.get(location.categoryId);
+        Bucket next = byAnchor.get(location.anchor).without(id);
+        if (next == null) {
+            byAnchor.remove(location.anchor);
+            if (byAnchor.isEmpty()) {
+                buckets.remove(location.categoryId);
+            }
+        } else {
+            byAnchor.put(location.anchor, next);
+        }
+    }
+
+    public synchronized int size() {
+        return locations.size();
+    }
+
+    /**
+     * Gọi action cho mọi truy vấn có thể khớp: treo ở một trong các danh mục (cùng danh mục 0), neo bằng một
+     * trong các từ (cùng neo ""), và giá trần ≥ minPrice. Người gọi tự kiểm các điều kiện còn lại.
+     * Mỗi truy vấn được gọi tối đa một lần nếu categories và tokens không trùng lặp.
+     */
+    public void forEachCandidate(long[] categories, Collection<String> tokens, double minPrice, Consumer<T> action) {
+        visitCategory(0L, tokens, minPrice, action);
+        for (long categoryId : categories) {
+            if (categoryId != 0) {
+                visitCategory(categoryId, tokens, minPrice, action);
+            }
+        }
+    }
+
+    private void visitCategory(long categoryId, Collection<String> tokens, double minPrice, Consumer<T> action) {
+        ConcurrentHashMap<String, Bucket> byAnchor = buckets.get(categoryId);
+        if (byAnchor == null) {
+            return;
+        }
+        visitBucket(byAnchor.get(""), minPrice, action);
+        for (String token : tokens) {
+            if (!token.isEmpty()) {
+                visitBucket(byAnchor.get(token), minPrice, action);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visitBucket(Bucket bucket, double minPrice, Consumer<T> action) {
+        if (bucket == null) {
+            return;
+        }
+        for (int i = bucket.lowerBound(minPrice); i < bucket.ids.length; i++) {
+            action.accept((T) bucket.payloads[i]);
+        }
+    }
+
+    private static final class Location {
+        final long categoryId;
+        final String anchor;
+
+        Location(long categoryId, String anchor) {
+            this.categoryId = categoryId;
+            this.anchor = anchor;
+        }
+    }
+
+    /** Truy vấn trong một bucket, sắp theo giá trần tăng dần. Bất biến. */
+    private static final class Bucket {
+        final long[] ids;
+        final double[] maxPrices;
+        final Object[] payloads;
+
+        Bucket(long[] ids, double[] maxPrices, Object[] payloads) {
+            this.ids = ids;
+            this.maxPrices = maxPrices;
+            this.payloads = payloads;
+        }
+
+        static Bucket of(long id, double maxPrice, Object payload) {
+            return new Bucket(new long[]{id}, new double[]{maxPrice}, new Object[]{payload});
+        }
+
+        /** Vị trí đầu tiên có giá trần ≥ price. */
+        int lowerBound(double price) {
+            int lo = 0;
+            int hi = maxPrices.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (maxPrices[mid] < price) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        Bucket with(long id, double maxPrice, Object payload) {
+            int n = ids.length;
+            int pos = lowerBound(maxPrice);
+            long[] nextIds = new long[n + 1];
+            double[] nextPrices = new double[n + 1];
+            Object[] nextPayloads = new Object[n + 1];
+            System.arraycopy(ids, 0, nextIds, 0, pos);
+            System.arraycopy(maxPrices, 0, nextPrices, 0, pos);
+            System.arraycopy(payloads, 0, nextPayloads, 0, pos);
+            nextIds[pos] = id;
+            nextPrices[pos] = maxPrice;
+            nextPayloads[pos] = payload;
+            System.arraycopy(ids, pos, nextIds, pos + 1, n - pos);
+            System.arraycopy(maxPrices, pos, nextPrices, pos + 1, n - pos);
+            System.arraycopy(payloads, pos, nextPayloads, pos + 1, n - pos);
+            return new Bucket(nextIds, nextPrices, nextPayloads);
+        }
+
+        /** null khi bucket rỗng sau khi xóa. */
+        Bucket without(long id) {
+            int pos = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] nextIds = new long[ids.length - 1];
+            double[] nextPrices = new double[ids.length - 1];
+            Object[] nextPayloads = new Object[ids.length - 1];
+            System.arraycopy(ids, 0, nextIds, 0, pos);
+            System.arraycopy(maxPrices, 0, nextPrices, 0, pos);
+            System.arraycopy(payloads, 0, nextPayloads, 0, pos);
+            System.arraycopy(ids, pos + 1, nextIds, pos, ids.length - pos - 1);
+            System.arraycopy(maxPrices, pos + 1, nextPrices, pos, ids.length - pos - 1);
+            System.arraycopy(payloads, pos + 1, nextPayloads, pos, ids.length - pos - 1);
+            return new Bucket(nextIds, nextPrices, nextPayloads);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.mimi.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trie tiền tố chỉ đọc cho gợi ý tìm kiếm, nén vào các mảng nguyên thủy: con của một node nằm liền nhau và
+ * sắp theo ký tự (tìm bằng binary search), mỗi node giữ sẵn top-K id gợi ý theo trọng số của cả nhánh.
+ * Tra một tiền tố chỉ đi xuống theo từng ký tự rồi chép top-K ra mảng của người gọi, không tạo object.
+ * Khóa phải đã được bỏ dấu (TextFolding); độ sâu giới hạn ở MAX_DEPTH ký tự.
+ */
+public final class SuggestTrie {
+
+    public static final int MAX_DEPTH = 24;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final byte[] topLength;
+    private final int[] top;
+
+    private SuggestTrie(char[] labels, int[] firstChild, int[] childCount, int[] topStart, byte[] topLength, int[] top) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topLength = topLength;
+        this.top = top;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    /**
+     * Ghi tối đa out.length id gợi ý (trọng số giảm dần) cho tiền tố vào out, trả về số id đã ghi.
+     * Tiền tố được bỏ dấu từng ký tự khi duyệt; khoảng trắng liên tiếp coi như một.
+     */
+    public int lookup(CharSequence prefix, int[] out) {
+        int node = 0;
+        int depth = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < prefix.length() && depth < MAX_DEPTH; i++) {
+            char c = TextFolding.fold(prefix.charAt(i));
+            if (c == TextFolding.SKIP) {
+                continue;
+            }
+            if (c == ' ') {
+                pendingSpace = depth > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                node = child(node, ' ');
+                pendingSpace = false;
+                if (node < 0) {
+                    return 0;
+                }
+                depth++;
+            }
+            node = child(node, c);
+            if (node < 0) {
+                return 0;
+            }
+            depth++;
+        }
+        if (depth == 0) {
+            return 0;
+        }
+        int n = Math.min(out.length, topLength[node]);
+        System.arraycopy(top, topStart[node], out, 0, n);
+        return n;
+    }
+
+    private int child(int node, char c) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /** Dựng trie: add các khóa (đã bỏ dấu) kèm id gợi ý và trọng số, rồi build() một lần. Không thread-safe. */
+    public static final class Builder {
+
+        private final int k;
+        private final Node root;
+
+        public Builder(int k) {
+            this.k = k;
+            this.root = new Node('\0', k);
+        }
+
+        public void add(String foldedKey, int suggestion, double weight) {
+            Node node = root;
+            int depth = Math.min(foldedKey.length(), MAX_DEPTH);
+            for (int i = 0; i < depth; i++) {
+                node = node.childFor(foldedKey.charAt(i), k);
+                node.offer(suggestion, weight);
+            }
+        }
+
+        public SuggestTrie build() {
+            // Đánh số node theo BFS để con của mỗi node nằm liền nhau
+            List<Node> order = new ArrayList<>();
+            ArrayDeque<Node> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                order.add(node);
+                node.sortChildren();
+                for (int i = 0; i < node.childCount; i++) {
+                    queue.add(node.children[i]);
+                }
+            }
+            int n = order.size();
+            char[] labels = new char[n];
+            int[] firstChild = new int[n];
+            int[] childCount = new int[n];
+            int[] topStart = new int[n];
+            byte[] topLength = new byte[n];
+            int totalTop = 0;
+            for (Node node : order) {
+                totalTop += node.size;
+            }
+            int[] top = new int[totalTop];
+
+            int nextChild = 1;
+            int nextTop = 0;
+            for (int i = 0; i < n; i++) {
+                Node node = order.get(i);
+                labels[i] = node.label;
+                firstChild[i] = nextChild;
+                childCount[i] = node.childCount;
+                nextChild += node.childCount;
+                topStart[i] = nextTop;
+                topLength[i] = (byte) node.size;
+                nextTop += node.drainInto(top, nextTop);
+            }
+            return new SuggestTrie(labels, firstChild, childCount, topStart, topLength, top);
+        }
+    }
+
+    private static final class Node {
+        final char label;
+        Node[] children = new Node[0];
+        int childCount;
+        final int[] ids;
+        final double[] weights;
+        int size;
+
+        Node(char label, int k) {
+            this.label = label;
+            this.ids = new int[k];
+            this.weights = new double[k];
+        }
+
+        Node childFor(char c, int k) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].label == c) {
+                    return children[i];
+                }
+            }
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            Node child = new Node(c, k);
+            children[childCount++] = child;
+            return child;
+        }
+
+        /** Giữ top-K theo trọng số giảm dần (chèn có thứ tự, K nhỏ); cùng id thì giữ trọng số lớn hơn. */
+        void offer(int id, double weight) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    if (weight <= weights[i]) {
+                        return;
+                    }
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+            if (size == ids.length && weight <= weights[size - 1]) {
+                return;
+            }
+            int pos = size < ids.length ? size : size - 1;
+            while (pos > 0 && weights[pos - 1] < weight) {
+                ids[pos] = ids[pos - 1];
+                weights[pos] = weights[pos - 1];
+                pos--;
+            }
+            ids[pos] = id;
+            weights[pos] = weight;
+            if (size < ids.length) {
+                size++;
+            }
+        }
+
+        void sortChildren() {
+            Arrays.sort(children, 0, childCount, (a, b) -> Character.compare(a.label, b.label));
+        }
+
+        int drainInto(int[] out, int offset) {
+            System.arraycopy(ids, 0, out, offset, size);
+            return size;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mimi.util;
+
+import java.text.Normalizer;
+
+/**
+ * Bỏ dấu tiếng Việt và chuyển về chữ thường theo từng ký tự ("Sữa Bột" → "sua bot", "Đồ" → "do"),
+ * dùng bảng tra dựng sẵn nên gọi trên từng ký tự không tạo object. Ký tự không phải chữ/số thành khoảng trắng.
+ * Dấu rời (combining mark, như chuỗi NFD từ bàn phím macOS/iOS: "a" + U+0301) bị bỏ hẳn để "só" dạng NFD
+ * gấp giống "só" dạng NFC.
+ */
+public final class TextFolding {
+
+    private static final int TABLE_SIZE = 0x2000;
+    private static final char[] TABLE = new char[TABLE_SIZE];
+
+    /** Kết quả fold(char) của dấu rời: nơi gọi bỏ qua ký tự này. */
+    public static final char SKIP = '\0';
+
+    static {
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            TABLE[c] = computeFold((char) c);
+        }
+    }
+
+    private TextFolding() {
+    }
+
+    /** Ký tự đã bỏ dấu, chữ thường; ' ' nếu là dấu câu/khoảng trắng; SKIP nếu là dấu rời. */
+    public static char fold(char c) {
+        if (c < TABLE_SIZE) {
+            return TABLE[c];
+        }
+        if (Character.getType(c) == Character.NON_SPACING_MARK) {
+            return SKIP;
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : ' ';
+    }
+
+    /** Bỏ dấu cả chuỗi, gộp các khoảng trắng liên tiếp và cắt hai đầu. */
+    public static String fold(CharSequence text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (c == SKIP) {
+                continue;
+            }
+            if (c == ' ') {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static char computeFold(char c) {
+        if (c == 'đ' || c == 'Đ') {
+            return 'd';
+        }
+        if (Character.getType(c) == Character.NON_SPACING_MARK) {
+            return SKIP;
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return ' ';
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return Character.toLowerCase(decomposed.charAt(0));
+    }
+}
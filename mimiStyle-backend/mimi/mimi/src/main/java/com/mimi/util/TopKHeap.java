@@ -0,0 +1,102 @@
+package com.mimi.util;
+
+/**
+ * Min-heap giới hạn K phần tử trên mảng nguyên thủy để chọn top-K (id, score) trong một lần duyệt,
+ * O(n log K) và không cần sắp xếp toàn bộ.
+ */
+public class TopKHeap {
+
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopKHeap(int k) {
+        this.ids = new long[Math.max(1, k)];
+        this.scores = new double[Math.max(1, k)];
+    }
+
+    public void offer(long id, double score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (isBetter(score, id, 0)) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Score nhỏ nhất đang giữ, hoặc -Infinity khi heap chưa đầy. */
+    public double threshold() {
+        return size < ids.length ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /** Lấy kết quả theo score giảm dần (hòa thì id nhỏ hơn đứng trước). Heap bị làm rỗng sau khi gọi. */
+    public long[] drainDescending() {
+        long[] result = new long[size];
+        drainDescending(result, new double[size]);
+        return result;
+    }
+
+    /** Giống drainDescending nhưng trả kèm score tương ứng. */
+    public void drainDescending(long[] outIds, double[] outScores) {
+        for (int i = size - 1; i >= 0; i--) {
+            outIds[i] = ids[0];
+            outScores[i] = scores[0];
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+    }
+
+    private boolean isBetter(double score, long id, int slot) {
+        return score > scores[slot] || (score == scores[slot] && id < ids[slot]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBetter(scores[parent], ids[parent], i)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && isBetter(scores[left], ids[left], right)) {
+                smallest = right;
+            }
+            if (!isBetter(scores[i], ids[i], smallest)) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mimi.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cache in-memory đơn giản có TTL cho từng entry.
+ * Khi nhiều request cùng miss một key, chỉ một request gọi loader, các request còn lại chờ kết quả đó
+ * (tránh nhân tải lên DB khi cache vừa hết hạn).
+ */
+public class TtlCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public TtlCache(long ttlMillis, int maxSize) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            Entry<V> current = entries.get(key);
+            if (current != null && !current.isExpired(System.nanoTime())) {
+                return join(current.value);
+            }
+
+            Entry<V> fresh = new Entry<>(new CompletableFuture<>(), System.nanoTime() + ttlNanos);
+            boolean won = current == null
+                    ? entries.putIfAbsent(key, fresh) == null
+                    : entries.replace(key, current, fresh);
+            if (!won) {
+                continue;
+            }
+
+            evictIfFull();
+            try {
+                V value = loader.apply(key);
+                fresh.value.complete(value);
+                return value;
+            } catch (RuntimeException ex) {
+                entries.remove(key, fresh);
+                fresh.value.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+    }
+
+    /** Trả về giá trị còn hạn đã nạp xong, không gọi loader. */
+    public V getIfPresent(K key) {
+        Entry<V> current = entries.get(key);
+        if (current == null || current.isExpired(System.nanoTime()) || !current.value.isDone()
+                || current.value.isCompletedExceptionally()) {
+            return null;
+        }
+        return current.value.join();
+    }
+
+    /**
+     * Chạy action trên giá trị còn hạn của key: ngay nếu đã nạp xong, hoặc ngay khi loader đang chạy nạp xong
+     * (trên luồng của loader). Không làm gì nếu key không có trong cache hoặc lần nạp thất bại.
+     */
+    public void whenLoaded(K key, Consumer<? super V> action) {
+        Entry<V> current = entries.get(key);
+        if (current == null || current.isExpired(System.nanoTime())) {
+            return;
+        }
+        current.value.thenAccept(action);
+    }
+
+    public void put(K key, V value) {
+        evictIfFull();
+        entries.put(key, new Entry<>(CompletableFuture.completedFuture(value), System.nanoTime() + ttlNanos));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(e -> e.isExpired(now));
+        // Vẫn đầy: bỏ bớt entry bất kỳ cho tới khi còn chỗ
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> value;
+        private final long expiresAt;
+
+        private Entry(CompletableFuture<V> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
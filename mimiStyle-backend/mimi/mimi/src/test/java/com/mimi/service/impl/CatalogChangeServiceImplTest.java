@@ -0,0 +1,178 @@
+package com.mimi.service.impl;
+
+import com.mimi.dto.response.CatalogChangesResponse;
+import com.mimi.dto.response.ProductResponse;
+import com.mimi.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Client đồng bộ theo trang (findLatestAfter qua getChanges) trong khi sản phẩm vẫn đang được sửa/xóa giữa các
+ * trang: không được bỏ sót thay đổi nào và trạng thái cuối cùng phải khớp DB. Chạy trên H2 chế độ MySQL.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CatalogChangeServiceImpl.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class CatalogChangeServiceImplTest {
+
+    @Autowired
+    private CatalogChangeServiceImpl service;
+
+    @MockitoBean
+    private ProductService productService;
+
+    /** Sản phẩm đang có trong "DB": id → phiên bản (tăng mỗi lần sửa) */
+    private final Map<Long, Integer> products = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(productService.getProductResponsesByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            List<ProductResponse> found = new ArrayList<>();
+            for (Long id : ids) {
+                if (products.containsKey(id)) {
+                    ProductResponse product = new ProductResponse();
+                    product.setId(id);
+                    product.setName("v" + products.get(id));
+                    found.add(product);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Test
+    void returnsOnlyLatestEntryPerProductInIdOrder() {
+        save(1L);
+        save(2L);
+        save(1L);
+        save(3L);
+        delete(2L);
+
+        CatalogChangesResponse page = service.getChanges(0, 10);
+
+        assertThat(page.getUpserts()).extracting(ProductResponse::getId).containsExactly(1L, 3L);
+        assertThat(page.getDeletedIds()).containsExactly(2L);
+        assertThat(page.getNextSince()).isEqualTo(5L);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(service.getChanges(5, 10).getUpserts()).isEmpty();
+    }
+
+    @Test
+    void updateToUndeliveredProductMovesItToLaterPage() {
+        for (long id = 1; id <= 5; id++) {
+            save(id);
+        }
+
+        CatalogChangesResponse first = service.getChanges(0, 2);
+        assertThat(first.getUpserts()).extracting(ProductResponse::getId).containsExactly(1L, 2L);
+        assertThat(first.isHasMore()).isTrue();
+
+        // Giữa hai trang: sửa sản phẩm chưa tới lượt (3) và sản phẩm đã nhận (1)
+        save(3L);
+        save(1L);
+
+        CatalogChangesResponse second = service.getChanges(first.getNextSince(), 2);
+        assertThat(second.getUpserts()).extracting(ProductResponse::getId).containsExactly(4L, 5L);
+        CatalogChangesResponse third = service.getChanges(second.getNextSince(), 2);
+        assertThat(third.getUpserts()).extracting(ProductResponse::getId).containsExactly(3L, 1L);
+        assertThat(third.getUpserts()).extracting(ProductResponse::getName).containsExactly("v2", "v2");
+        assertThat(third.isHasMore()).isFalse();
+    }
+
+    @Test
+    void productDeletedAfterLogReadComesBackAsTombstone() {
+        save(1L);
+        save(2L);
+        // Xóa khỏi bảng sản phẩm nhưng dòng nhật ký xóa chưa ghi (vd. transaction xóa chưa commit)
+        products.remove(2L);
+
+        CatalogChangesResponse page = service.getChanges(0, 10);
+
+        assertThat(page.getUpserts()).extracting(ProductResponse::getId).containsExactly(1L);
+        assertThat(page.getDeletedIds()).containsExactly(2L);
+    }
+
+    @Test
+    void pagingThroughInterleavedChangesConvergesToCurrentCatalog() {
+        Random random = new Random(5);
+        for (long id = 1; id <= 40; id++) {
+            save(id);
+        }
+        Map<Long, String> client = new HashMap<>();
+        long since = 0;
+        Set<Long> seenIds = new HashSet<>();
+        for (int round = 0; round < 200; round++) {
+            CatalogChangesResponse page = service.getChanges(since, 1 + random.nextInt(7));
+            assertThat(page.getNextSince()).isGreaterThanOrEqualTo(since);
+            for (ProductResponse product : page.getUpserts()) {
+                assertThat(seenIds.add(product.getId())).as("duplicate in page").isTrue();
+                client.put(product.getId(), product.getName());
+            }
+            for (Long id : page.getDeletedIds()) {
+                assertThat(seenIds.add(id)).as("duplicate in page").isTrue();
+                client.remove(id);
+            }
+            seenIds.clear();
+            since = page.getNextSince();
+
+            // Các thao tác khác xen giữa hai lần gọi
+            for (int i = random.nextInt(4); i > 0; i--) {
+                long id = 1 + random.nextInt(50);
+                if (random.nextInt(5) == 0) {
+                    delete(id);
+                } else {
+                    save(id);
+                }
+            }
+        }
+        CatalogChangesResponse last;
+        do {
+            last = service.getChanges(since, 7);
+            last.getUpserts().forEach(product -> client.put(product.getId(), product.getName()));
+            last.getDeletedIds().forEach(client::remove);
+            since = last.getNextSince();
+        } while (last.isHasMore());
+
+        Map<Long, String> expected = new HashMap<>();
+        products.forEach((id, version) -> expected.put(id, "v" + version));
+        assertThat(client).isEqualTo(expected);
+    }
+
+    private void save(long productId) {
+        products.merge(productId, 1, Integer::sum);
+        service.record(productId, false);
+    }
+
+    private void delete(long productId) {
+        products.remove(productId);
+        service.record(productId, true);
+    }
+}
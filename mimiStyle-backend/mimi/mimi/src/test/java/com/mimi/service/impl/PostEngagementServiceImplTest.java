@@ -0,0 +1,178 @@
+package com.mimi.service.impl;
+
+import com.mimi.repository.CommentRepository;
+import com.mimi.repository.LikeRepository;
+import com.mimi.repository.PostRepository;
+import com.mimi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Gom like/unlike trong bộ nhớ và phần chênh lệch total_likes mà flush ghi xuống (JdbcTemplate giả lập).
+ */
+class PostEngagementServiceImplTest {
+
+    private static final String INSERT_LIKE = "INSERT IGNORE INTO likes";
+    private static final String DELETE_LIKE = "DELETE FROM likes";
+    private static final String UPDATE_LIKES = "UPDATE posts SET total_likes";
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final LikeRepository likeRepository = mock(LikeRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private PostEngagementServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(postRepository.findAuthorId(anyLong())).thenReturn(Optional.of(99L));
+        when(postRepository.findTotalLikes(anyLong())).thenReturn(0);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        service = new PostEngagementServiceImpl(postRepository, likeRepository, mock(CommentRepository.class),
+                userRepository, jdbcTemplate, transactionManager, mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void repeatedLikesCoalesceIntoOneInsert() {
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_LIKE), anyList())).thenReturn(new int[]{1});
+
+        service.like(1L, 10L);
+        service.like(1L, 10L);
+        assertThat(service.pendingLikeDelta(1L)).isEqualTo(1);
+        assertThat(service.pendingLikeState(1L, 10L)).isTrue();
+
+        service.flush();
+
+        assertThat(batchRows(INSERT_LIKE)).containsExactly(new Object[]{1L, 10L});
+        assertThat(batchRows(UPDATE_LIKES)).containsExactly(new Object[]{1L, 1L});
+        assertThat(service.pendingLikeDelta(1L)).isZero();
+        assertThat(service.pendingLikeState(1L, 10L)).isNull();
+    }
+
+    @Test
+    void likeThenUnlikeCancelsOut() {
+        service.like(1L, 10L);
+        service.unlike(1L, 10L);
+
+        assertThat(service.pendingLikeDelta(1L)).isZero();
+        assertThat(service.pendingLikeState(1L, 10L)).isNull();
+        service.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void unlikeOfPersistedLikeDeletesAndDecrements() {
+        when(likeRepository.existsByPostIdAndUserId(1L, 10L)).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(startsWith(DELETE_LIKE), anyList())).thenReturn(new int[]{1});
+
+        service.like(1L, 10L);
+        assertThat(service.pendingLikeDelta(1L)).isZero();
+        service.unlike(1L, 10L);
+        assertThat(service.pendingLikeDelta(1L)).isEqualTo(-1);
+
+        service.flush();
+
+        assertThat(batchRows(DELETE_LIKE)).containsExactly(new Object[]{1L, 10L});
+        assertThat(batchRows(UPDATE_LIKES)).containsExactly(new Object[]{-1L, 1L});
+    }
+
+    @Test
+    void flushOnlyCountsRowsThatChanged() {
+        // Dòng của user 11 đã có trong DB (INSERT IGNORE trả 0), của user 12 thì chưa
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_LIKE), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            return rows.stream().mapToInt(row -> row[1].equals(11L) ? 0 : 1).toArray();
+        });
+        when(jdbcTemplate.batchUpdate(startsWith(DELETE_LIKE), anyList())).thenReturn(new int[]{0});
+        when(likeRepository.existsByPostIdAndUserId(2L, 20L)).thenReturn(true);
+
+        service.like(1L, 11L);
+        service.like(1L, 12L);
+        service.unlike(2L, 20L);
+        service.flush();
+
+        assertThat(batchRows(UPDATE_LIKES)).containsExactly(new Object[]{1L, 1L});
+        assertThat(service.pendingLikeDelta(1L)).isZero();
+        assertThat(service.pendingLikeDelta(2L)).isZero();
+    }
+
+    @Test
+    void nothingChangedSkipsCounterUpdate() {
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_LIKE), anyList())).thenReturn(new int[]{0});
+
+        service.like(1L, 10L);
+        service.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith(UPDATE_LIKES), anyList());
+    }
+
+    @Test
+    void failedFlushIsRetriedNextCycle() {
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_LIKE), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+
+        service.like(1L, 10L);
+        service.flush();
+        assertThat(service.pendingLikeDelta(1L)).isEqualTo(1);
+        assertThat(service.pendingLikeState(1L, 10L)).isTrue();
+
+        service.flush();
+        assertThat(batchRows(UPDATE_LIKES)).containsExactly(new Object[]{1L, 1L});
+        assertThat(service.pendingLikeDelta(1L)).isZero();
+    }
+
+    @Test
+    void unlikeDuringFlushWaitsForCommit() throws Exception {
+        AtomicBoolean committed = new AtomicBoolean();
+        AtomicReference<Thread> other = new AtomicReference<>();
+        when(likeRepository.existsByPostIdAndUserId(1L, 10L)).thenAnswer(invocation -> committed.get());
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_LIKE), anyList())).thenAnswer(invocation -> {
+            // Trong transaction của flush: unlike chạy song song không được đọc DB trước commit
+            Thread thread = new Thread(() -> service.unlike(1L, 10L));
+            other.set(thread);
+            thread.start();
+            thread.join(200);
+            assertThat(thread.isAlive()).isTrue();
+            committed.set(true);
+            return new int[]{1};
+        });
+
+        service.like(1L, 10L);
+        service.flush();
+        other.get().join();
+
+        assertThat(service.pendingLikeState(1L, 10L)).isFalse();
+        assertThat(service.pendingLikeDelta(1L)).isEqualTo(-1);
+    }
+
+    private List<Object[]> batchRows(String sqlPrefix) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(sqlPrefix), rows.capture());
+        return rows.getValue();
+    }
+}
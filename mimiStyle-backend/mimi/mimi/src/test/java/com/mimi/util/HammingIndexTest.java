@@ -0,0 +1,169 @@
+package com.mimi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HammingIndexTest {
+
+    private static final long BASE = 0x0123_4567_89AB_CDEFL;
+
+    @Test
+    void searchReportsItemsWithinRadiusOnce() {
+        HammingIndex index = new HammingIndex();
+        index.put(1, 100, BASE);
+        index.put(2, 100, flip(BASE, 0, 17, 33));
+        index.put(3, 200, flip(BASE, 1, 2, 3, 4, 5, 6, 7));
+        index.put(4, 300, flip(BASE, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+
+        assertThat(search(index, BASE, 0)).containsExactly(Map.entry(1L, 0));
+        assertThat(search(index, BASE, 3)).containsOnly(Map.entry(1L, 0), Map.entry(2L, 3));
+        assertThat(search(index, BASE, 7)).containsOnly(Map.entry(1L, 0), Map.entry(2L, 3), Map.entry(3L, 7));
+        assertThat(search(index, BASE, HammingIndex.MAX_DISTANCE)).doesNotContainKey(4L).hasSize(3);
+    }
+
+    @Test
+    void searchFindsBitsSpreadOverEveryChunk() {
+        HammingIndex index = new HammingIndex();
+        // 11 bit lệch chia 3-3-3-2 qua 4 đoạn: chỉ đoạn cuối lệch ≤ 11/4
+        long spread = flip(BASE, 0, 1, 2, 16, 17, 18, 32, 33, 34, 48, 49);
+        index.put(1, 100, spread);
+
+        assertThat(search(index, BASE, HammingIndex.MAX_DISTANCE)).containsExactly(Map.entry(1L, 11));
+        assertThat(search(index, BASE, 10)).isEmpty();
+    }
+
+    @Test
+    void rejectsRadiusOutOfRange() {
+        HammingIndex index = new HammingIndex();
+        assertThatThrownBy(() -> index.search(BASE, -1, (item, group, distance) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(BASE, HammingIndex.MAX_DISTANCE + 1, (item, group, distance) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void putReplacesHashOfSameItem() {
+        HammingIndex index = new HammingIndex();
+        index.put(1, 100, BASE);
+        index.put(1, 100, ~BASE);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(search(index, BASE, 5)).isEmpty();
+        assertThat(search(index, ~BASE, 0)).containsExactly(Map.entry(1L, 0));
+    }
+
+    @Test
+    void removeDropsOnlyThatItem() {
+        HammingIndex index = new HammingIndex();
+        index.put(1, 100, BASE);
+        index.put(2, 100, flip(BASE, 5));
+        index.put(3, 100, flip(BASE, 40));
+
+        index.remove(2);
+        index.remove(42);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(search(index, BASE, 3)).containsOnlyKeys(1L, 3L);
+    }
+
+    @Test
+    void removeGroupDropsEveryItemOfGroup() {
+        HammingIndex index = new HammingIndex();
+        index.put(1, 100, BASE);
+        index.put(2, 200, flip(BASE, 1));
+        index.put(3, 100, flip(BASE, 2));
+        index.put(4, 100, flip(BASE, 3));
+        // Gỡ phần tử giữa danh sách của nhóm trước khi xóa cả nhóm
+        index.remove(3);
+
+        index.removeGroup(100);
+        index.removeGroup(999);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(search(index, BASE, 3)).containsOnlyKeys(2L);
+    }
+
+    @Test
+    void reusedSlotsKeepGroupsApart() {
+        HammingIndex index = new HammingIndex();
+        index.put(1, 100, BASE);
+        index.put(2, 100, flip(BASE, 1));
+        index.remove(1);
+        index.remove(2);
+        // Hai slot vừa trả lại được nhóm khác dùng; xóa nhóm cũ không được đụng tới chúng
+        index.put(3, 200, flip(BASE, 2, 3));
+        index.put(4, 200, flip(BASE, 4, 5, 6));
+        index.removeGroup(100);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(search(index, BASE, 3)).containsOnly(Map.entry(3L, 2), Map.entry(4L, 3));
+
+        index.removeGroup(200);
+        assertThat(index.size()).isZero();
+        assertThat(search(index, BASE, HammingIndex.MAX_DISTANCE)).isEmpty();
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomChurn() {
+        Random random = new Random(11);
+        HammingIndex index = new HammingIndex();
+        Map<Long, Long> hashes = new HashMap<>();
+        Map<Long, Long> groups = new HashMap<>();
+        long[] centers = {BASE, ~BASE, random.nextLong()};
+        for (int step = 0; step < 5_000; step++) {
+            long itemId = 1 + random.nextInt(1_500);
+            long groupId = 1 + itemId % 40;
+            int op = random.nextInt(10);
+            if (op < 6) {
+                long hash = centers[random.nextInt(centers.length)];
+                for (int b = random.nextInt(14); b > 0; b--) {
+                    hash ^= 1L << random.nextInt(64);
+                }
+                index.put(itemId, groupId, hash);
+                hashes.put(itemId, hash);
+                groups.put(itemId, groupId);
+            } else if (op < 9) {
+                index.remove(itemId);
+                hashes.remove(itemId);
+                groups.remove(itemId);
+            } else {
+                index.removeGroup(groupId);
+                groups.entrySet().removeIf(e -> e.getValue() == groupId && hashes.remove(e.getKey()) != null);
+            }
+        }
+        assertThat(index.size()).isEqualTo(hashes.size());
+
+        for (int q = 0; q < 200; q++) {
+            long query = centers[random.nextInt(centers.length)] ^ (1L << random.nextInt(64));
+            int maxDistance = random.nextInt(HammingIndex.MAX_DISTANCE + 1);
+            Map<Long, Integer> expected = new HashMap<>();
+            hashes.forEach((item, hash) -> {
+                int distance = Long.bitCount(hash ^ query);
+                if (distance <= maxDistance) {
+                    expected.put(item, distance);
+                }
+            });
+            assertThat(search(index, query, maxDistance)).as("r=%d", maxDistance).isEqualTo(expected);
+        }
+    }
+
+    private static Map<Long, Integer> search(HammingIndex index, long hash, int maxDistance) {
+        Map<Long, Integer> found = new HashMap<>();
+        index.search(hash, maxDistance, (itemId, groupId, distance) ->
+                assertThat(found.put(itemId, distance)).as("item %d reported twice", itemId).isNull());
+        return found;
+    }
+
+    private static long flip(long hash, int... bits) {
+        for (int bit : bits) {
+            hash ^= 1L << bit;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,92 @@
+package com.mimi.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.Normalizer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đo thời gian tra tiền tố của SuggestTrie (đường nóng của /api/search/suggest) trên bộ tên sản phẩm giả lập.
+ * Không chạy trong mvn test; chạy bằng main() của lớp này sau mvn test-compile, hoặc từ IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestTrieBenchmark {
+
+    private static final int K = 10;
+    private static final String[] WORDS = {
+        "Sữa bột", "Bình sữa", "Tã bỉm", "Xe đẩy", "Nôi cũi", "Quần áo", "Giày dép", "Đồ chơi", "Ghế ăn dặm",
+        "Đồ dùng tắm", "cho bé", "sơ sinh", "cao cấp", "chính hãng", "size M", "màu hồng", "Nhật Bản", "Hàn Quốc"
+    };
+
+    @Param({"10000", "100000"})
+    public int names;
+
+    private SuggestTrie trie;
+    private final int[] out = new int[K];
+    private String nfdQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        for (int i = 0; i < names; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 2 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                name.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            name.append(i);
+            builder.add(TextFolding.fold(name), i, random.nextDouble());
+        }
+        trie = builder.build();
+        nfdQuery = Normalizer.normalize("Sữa bột cho", Normalizer.Form.NFD);
+    }
+
+    @Benchmark
+    public int shortPrefix() {
+        return trie.lookup("s", out);
+    }
+
+    @Benchmark
+    public int foldedPrefix() {
+        return trie.lookup("sua bot cho", out);
+    }
+
+    @Benchmark
+    public int accentedPrefix() {
+        return trie.lookup("Sữa bột cho", out);
+    }
+
+    @Benchmark
+    public int decomposedPrefix() {
+        return trie.lookup(nfdQuery, out);
+    }
+
+    @Benchmark
+    public int miss() {
+        return trie.lookup("zzz", out);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SuggestTrieBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.mimi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestTrieTest {
+
+    private static final int K = 3;
+
+    @Test
+    void returnsTopKByWeightForEachPrefix() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add("sua bot", 0, 5);
+        builder.add("sua tam", 1, 2);
+        builder.add("sua chua", 2, 9);
+        builder.add("sua rua mat", 3, 1);
+        builder.add("so sinh", 4, 7);
+        SuggestTrie trie = builder.build();
+
+        assertThat(lookup(trie, "s", K)).containsExactly(2, 4, 0);
+        assertThat(lookup(trie, "su", K)).containsExactly(2, 0, 1);
+        assertThat(lookup(trie, "sua t", K)).containsExactly(1);
+        assertThat(lookup(trie, "so", K)).containsExactly(4);
+        assertThat(lookup(trie, "sua bot", K)).containsExactly(0);
+    }
+
+    @Test
+    void outputArrayLimitsResults() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add("ao", 0, 1);
+        builder.add("ao dai", 1, 3);
+        builder.add("ao khoac", 2, 2);
+        SuggestTrie trie = builder.build();
+
+        assertThat(lookup(trie, "ao", 2)).containsExactly(1, 2);
+    }
+
+    @Test
+    void sameSuggestionKeepsItsHighestWeight() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add("xe day", 0, 1);
+        builder.add("xe dap", 1, 2);
+        builder.add("xe day", 0, 4);
+        builder.add("xe day", 0, 3);
+        SuggestTrie trie = builder.build();
+
+        assertThat(lookup(trie, "xe", K)).containsExactly(0, 1);
+    }
+
+    @Test
+    void missesReturnNothing() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add("non", 0, 1);
+        SuggestTrie trie = builder.build();
+
+        assertThat(lookup(trie, "nom", K)).isEmpty();
+        assertThat(lookup(trie, "non la", K)).isEmpty();
+        assertThat(lookup(trie, "", K)).isEmpty();
+        assertThat(lookup(trie, "  ", K)).isEmpty();
+    }
+
+    @Test
+    void foldsAccentsCaseAndWhitespaceWhileLookingUp() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add(TextFolding.fold("Sữa bột Nhật"), 0, 1);
+        builder.add(TextFolding.fold("Đồ chơi gỗ"), 1, 1);
+        SuggestTrie trie = builder.build();
+
+        assertThat(lookup(trie, "Sữa  BỘT", K)).containsExactly(0);
+        assertThat(lookup(trie, "  sua bot nh", K)).containsExactly(0);
+        assertThat(lookup(trie, "đồ", K)).containsExactly(1);
+        assertThat(lookup(trie, "DO CHOI", K)).containsExactly(1);
+    }
+
+    @Test
+    void decomposedInputMatchesComposedKeys() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add(TextFolding.fold(Normalizer.normalize("Bình sữa", Normalizer.Form.NFD)), 0, 1);
+        SuggestTrie trie = builder.build();
+
+        assertThat(TextFolding.fold(Normalizer.normalize("Bình sữa", Normalizer.Form.NFD))).isEqualTo("binh sua");
+        assertThat(lookup(trie, Normalizer.normalize("Bình sữ", Normalizer.Form.NFD), K)).containsExactly(0);
+        assertThat(lookup(trie, "Bình sữ", K)).containsExactly(0);
+    }
+
+    @Test
+    void keysAreCutAtMaxDepth() {
+        String longKey = "a".repeat(SuggestTrie.MAX_DEPTH + 10);
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        builder.add(longKey, 0, 1);
+        SuggestTrie trie = builder.build();
+
+        assertThat(lookup(trie, longKey, K)).containsExactly(0);
+        assertThat(lookup(trie, longKey.substring(0, SuggestTrie.MAX_DEPTH), K)).containsExactly(0);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomKeys() {
+        Random random = new Random(7);
+        int n = 2_000;
+        String[] keys = new String[n];
+        double[] weights = new double[n];
+        SuggestTrie.Builder builder = new SuggestTrie.Builder(K);
+        for (int i = 0; i < n; i++) {
+            StringBuilder key = new StringBuilder();
+            int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                key.append((char) ('a' + random.nextInt(4)));
+            }
+            keys[i] = key.toString();
+            weights[i] = random.nextDouble();
+            builder.add(keys[i], i, weights[i]);
+        }
+        SuggestTrie trie = builder.build();
+
+        for (int q = 0; q < 500; q++) {
+            String prefix = keys[random.nextInt(n)];
+            prefix = prefix.substring(0, 1 + random.nextInt(prefix.length()));
+            String p = prefix;
+            int[] expected = IntStream.range(0, n)
+                    .filter(i -> keys[i].startsWith(p))
+                    .boxed()
+                    .sorted((a, b) -> Double.compare(weights[b], weights[a]))
+                    .limit(K)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertThat(lookup(trie, prefix, K)).as(prefix).containsExactly(expected);
+        }
+    }
+
+    private static int[] lookup(SuggestTrie trie, String prefix, int k) {
+        int[] out = new int[k];
+        return Arrays.copyOf(out, trie.lookup(prefix, out));
+    }
+}
@@ -46,12 +46,19 @@ export async function updateOrderStatus(orderId, status) {
 }
 
 /**
- * Lấy danh sách đơn hàng của người mua (buyer) từ backend.
- * @param {number} buyerId
+ * Lấy danh sách đơn hàng của người đang đăng nhập (backend xác định người mua qua session token).
  * @returns {Promise<Array>} [{ id, createdAt, status, shippingName, shippingPhone, shippingAddress, items, totalAmount, ... }]
  */
-export async function getMyOrders(buyerId) {
-  const res = await fetch(`${API_BASE_URL}/orders/me?buyerId=${buyerId}`);
+export async function getMyOrders() {
+  let token = null;
+  try {
+    token = JSON.parse(sessionStorage.getItem('user') || 'null')?.token ?? null;
+  } catch {
+    token = null;
+  }
+  const res = await fetch(`${API_BASE_URL}/orders/me`, {
+    headers: token ? { Authorization: `Bearer ${token}` } : {},
+  });
   const text = await res.text();
   if (!res.ok) throw new Error('Không thể tải lịch sử đơn hàng');
   try {
@@ -95,7 +95,7 @@ export default function OrderHistoryPage() {
       setUser(u);
       const uid = u?.id ?? u?.userId ?? null;
       if (!uid) return;
-      getMyOrders(uid)
+      getMyOrders()
         .then((apiOrders) => {
           const list = Array.isArray(apiOrders) ? apiOrders.map(mapApiOrderToDisplay) : [];
           setOrders(list.length > 0 ? list : getOrderHistory(uid));
@@ -123,7 +123,7 @@ export default function OrderHistoryPage() {
     if (/^\d+$/.test(idStr)) {
       try {
         await updateOrderStatusApi(Number(orderId), 'CANCELLED');
-        const apiOrders = await getMyOrders(userId);
+        const apiOrders = await getMyOrders();
         setOrders(Array.isArray(apiOrders) ? apiOrders.map(mapApiOrderToDisplay) : []);
         setExpandedId(null);
       } catch (err) {
@@ -66,7 +66,18 @@ export default function ProfilePage() {
 
   const persistUser = (nextUser) => {
     setUser(nextUser);
-    sessionStorage.setItem('user', JSON.stringify(nextUser));
+    // Giữ lại session token của lần đăng nhập: response cập nhật hồ sơ không trả token
+    let saved = null;
+    try {
+      saved = JSON.parse(sessionStorage.getItem('user') || 'null');
+    } catch {
+      saved = null;
+    }
+    sessionStorage.setItem('user', JSON.stringify({
+      ...nextUser,
+      token: nextUser?.token ?? saved?.token,
+      tokenExpiresAt: nextUser?.tokenExpiresAt ?? saved?.tokenExpiresAt,
+    }));
     window.dispatchEvent(new Event('mimi:user-updated'));
   };
 